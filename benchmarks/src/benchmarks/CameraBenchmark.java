@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the construction of the primary rays through the pixels of the view plane.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CameraBenchmark {
+    private static final int RESOLUTION = 500;
+
+    private Camera camera;
+    private int pixel;
+
+    /**
+     * Builds the camera of the benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        camera = new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(1000);
+    }
+
+    /**
+     * Constructs the ray through the next pixel, going over the whole view plane row by row.
+     *
+     * @return the ray, so it isn't eliminated.
+     */
+    @Benchmark
+    public Ray constructRay() {
+        int j = pixel % RESOLUTION;
+        int i = pixel / RESOLUTION;
+        pixel = (pixel + 1) % (RESOLUTION * RESOLUTION);
+        return camera.constructRay(RESOLUTION, RESOLUTION, j, i);
+    }
+}
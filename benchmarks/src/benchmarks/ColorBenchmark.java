@@ -0,0 +1,88 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Color;
+import primitives.Double3;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the color and attenuation arithmetic that is done for every shading point.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark {
+    private Color color = new Color(120, 60, 30);
+    private Color other = new Color(10, 200, 40);
+    private Double3 k = new Double3(0.5, 0.25, 0.125);
+    private Double3 kOther = new Double3(0.8, 0.6, 0.4);
+    private double scalar = 0.7;
+
+    /**
+     * @return the sum of two colors.
+     */
+    @Benchmark
+    public Color colorAdd() {
+        return color.add(other);
+    }
+
+    /**
+     * @return the color scaled by a number.
+     */
+    @Benchmark
+    public Color colorScale() {
+        return color.scale(scalar);
+    }
+
+    /**
+     * @return the color scaled by an attenuation factor.
+     */
+    @Benchmark
+    public Color colorScaleDouble3() {
+        return color.scale(k);
+    }
+
+    /**
+     * @return the color reduced by a number.
+     */
+    @Benchmark
+    public Color colorReduce() {
+        return color.reduce(2);
+    }
+
+    /**
+     * @return the product of two attenuation factors.
+     */
+    @Benchmark
+    public Double3 double3Product() {
+        return k.product(kOther);
+    }
+
+    /**
+     * @return the sum of two attenuation factors.
+     */
+    @Benchmark
+    public Double3 double3Add() {
+        return k.add(kOther);
+    }
+
+    /**
+     * @return the attenuation factor scaled by a number.
+     */
+    @Benchmark
+    public Double3 double3Scale() {
+        return k.scale(scalar);
+    }
+
+    /**
+     * @return whether the attenuation factor is below a threshold.
+     */
+    @Benchmark
+    public boolean double3LowerThan() {
+        return k.lowerThan(0.001);
+    }
+}
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the intersection kernels of every shape, for a ray that hits the shape and for one that misses it.
+ * Every shape is placed around the origin, the hitting ray comes from the positive z direction towards it,
+ * and the missing ray passes beside it (but inside the range of an infinite shape's bounding test).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntersectionBenchmark {
+    /**
+     * The shape that is intersected.
+     */
+    @Param({"sphere", "plane", "triangle", "polygon", "tube", "cylinder"})
+    public String shape;
+
+    /**
+     * Whether the ray hits the shape or misses it.
+     */
+    @Param({"hit", "miss"})
+    public String ray;
+
+    private Intersectable geometry;
+    private Ray tested;
+    private final Hit hit = new Hit();
+
+    /**
+     * Builds the shape and the ray of the benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        geometry = switch (shape) {
+            case "sphere" -> new Sphere(1, new Point(0, 0, 0));
+            case "plane" -> new Plane(new Point(0, 0, 0), new Vector(0, 1, 1));
+            case "triangle" -> new Triangle(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(0, 1, 0));
+            case "polygon" -> new Polygon(new Point(-1, -1, 0), new Point(1, -1, 0),
+                    new Point(1, 1, 0), new Point(-1, 1, 0));
+            case "tube" -> new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 1, 0)));
+            case "cylinder" -> new Cylinder(1, new Ray(new Point(0, -1, 0), new Vector(0, 1, 0)), 2);
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        };
+        tested = switch (ray) {
+            case "hit" -> new Ray(new Point(0.2, 0.1, 5), new Vector(0, 0, -1));
+            // the plane is hit by every ray that isn't parallel to it
+            case "miss" -> shape.equals("plane")
+                    ? new Ray(new Point(0, 3, -3), new Vector(0, 1, -1))
+                    : new Ray(new Point(3, 0, 5), new Vector(0, 0, -1));
+            default -> throw new IllegalArgumentException("Unknown ray: " + ray);
+        };
+    }
+
+    /**
+     * All the intersections of the ray with the shape.
+     *
+     * @return the intersections, so they aren't eliminated.
+     */
+    @Benchmark
+    public List<GeoPoint> findGeoIntersections() {
+        return geometry.findGeoIntersections(tested);
+    }
+
+    /**
+     * The closest intersection of the ray with the shape, as it is searched by the ray tracer.
+     *
+     * @return whether the shape was hit, so the search isn't eliminated.
+     */
+    @Benchmark
+    public boolean findClosestHit() {
+        return geometry.findClosestHit(tested, Double.POSITIVE_INFINITY, hit);
+    }
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import geometries.*;
+import geometries.Intersectable.Hit;
+import org.openjdk.jmh.annotations.*;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the intersections search of a flat collection of mixed shapes (spheres, triangles, polygons,
+ * planes, tubes and cylinders) by its acceleration. The type grouping culls by the boxes like the bounds culling,
+ * so the difference between the two is the cost of the virtual call that sees all the types in a single loop.
+ * Every invocation shoots a fan of rays at the whole collection, the way the primary rays of a small image do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MixedSceneBenchmark {
+    /**
+     * The way the shapes are organized.
+     */
+    @Param({"NONE", "BOUNDS", "BVH", "TYPED"})
+    public Geometries.Acceleration acceleration;
+
+    /**
+     * The amount of shapes of every type.
+     */
+    @Param({"4", "16"})
+    public int perType;
+
+    /**
+     * The width and the height of the fan of rays.
+     */
+    private static final int FAN = 16;
+
+    private Geometries geometries;
+    private Ray[] rays;
+    private final Hit hit = new Hit();
+
+    /**
+     * Builds the shapes, in a row along the x axis with all the types interleaved, and the fan of rays.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        Material glass = new Material().setKt(0.6);
+        geometries = new Geometries().setAcceleration(acceleration);
+        for (int i = 0; i < perType; i++) {
+            double x = (i - perType / 2.0) * 6;
+            geometries.add(
+                    new Sphere(1, new Point(x, 0, -20)).setMaterial(glass),
+                    new Triangle(new Point(x + 1, 1, -15), new Point(x + 3, 1, -15), new Point(x + 2, 3, -15)),
+                    new Polygon(new Point(x - 1, -3, -16), new Point(x + 1, -3, -16),
+                            new Point(x + 1, -1.5, -16), new Point(x - 1, -1.5, -16)).setMaterial(glass),
+                    new Plane(new Point(0, -5 - i, 0), new Vector(0, 1, 0.01 * i)),
+                    new Tube(0.3, new Ray(new Point(x + 3, 0, -25), new Vector(0, 1, 0))),
+                    new Cylinder(1, new Ray(new Point(x + 4, -4, -18), new Vector(0, 1, 0)), 2));
+        }
+        // build the structure before the measurement
+        geometries.getBoundingBox();
+
+        double width = perType * 6;
+        rays = new Ray[FAN * FAN];
+        Point eye = new Point(0, 0, 10);
+        for (int i = 0; i < FAN; i++) {
+            for (int j = 0; j < FAN; j++) {
+                Point target = new Point((j + 0.5 - FAN / 2.0) * width / FAN, (FAN / 2.0 - i - 0.5) * 10 / FAN, -20);
+                rays[i * FAN + j] = new Ray(eye, target.subtract(eye));
+            }
+        }
+    }
+
+    /**
+     * The closest intersection of every ray, as it is searched for the primary rays.
+     *
+     * @return the amount of rays that hit a shape, so the search isn't eliminated.
+     */
+    @Benchmark
+    public int findClosestHit() {
+        int found = 0;
+        for (Ray ray : rays) {
+            if (geometries.findClosestHit(ray, Double.POSITIVE_INFINITY, hit)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The transparency along every ray, as it is calculated for the shadow rays.
+     *
+     * @return the sum of the transparencies, so the search isn't eliminated.
+     */
+    @Benchmark
+    public double findTransparency() {
+        double sum = 0;
+        for (Ray ray : rays) {
+            Double3 ktr = geometries.findTransparency(ray, 100, 0.001);
+            sum += ktr.getD1();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,176 @@
+package benchmarks;
+
+import geometries.*;
+import lighting.AmbientLight;
+import lighting.SpotLight;
+import org.openjdk.jmh.annotations.*;
+import primitives.*;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.awt.Color.*;
+
+/**
+ * End-to-end renders of whole frames. The scenes are the ones of SoftShadowTest and ReflectionRefractionTests
+ * (the test sources aren't visible to this module, so they are built here again), rendered at a fixed resolution.
+ * The images are rendered into memory only, nothing is written to the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RenderBenchmark {
+    /**
+     * The rendered scene.
+     */
+    @Param({"softShadow", "twoSpheres", "twoSpheresOnMirrors", "trianglesTransparentSphere"})
+    public String scene;
+
+    /**
+     * The width and the height of the image in pixels.
+     */
+    @Param({"100", "200"})
+    public int resolution;
+
+    /**
+     * The amount of rendering threads of the camera.
+     */
+    @Param({"1"})
+    public int threads;
+
+    private Camera camera;
+
+    /**
+     * Builds the scene and the camera of the benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        camera = switch (scene) {
+            case "softShadow" -> softShadow();
+            case "twoSpheres" -> twoSpheres();
+            case "twoSpheresOnMirrors" -> twoSpheresOnMirrors();
+            case "trianglesTransparentSphere" -> trianglesTransparentSphere();
+            default -> throw new IllegalArgumentException("Unknown scene: " + scene);
+        };
+        camera.setImageWriter(new ImageWriter(scene, resolution, resolution)).setThreads(threads);
+    }
+
+    /**
+     * Renders the whole frame.
+     *
+     * @return the camera, so the render isn't eliminated.
+     */
+    @Benchmark
+    public Camera render() {
+        return camera.renderImage();
+    }
+
+    /**
+     * The room with a lamp, a mirror and a ball of SoftShadowTest, lighted by a soft spotlight.
+     *
+     * @return the camera of the scene, without an image writer.
+     */
+    private static Camera softShadow() {
+        Scene scene = new Scene.SceneBuilder("softShadow").build();
+        Material roomMaterial = new Material().setKs(0.3).setKd(0.5);
+        Material ball = new Material().setKs(0.8).setKd(0.5);
+        scene.geometries.add(
+                new Polygon(new Point(100, 100, 0), new Point(100, -80, 0),
+                        new Point(40, -80, -250), new Point(40, 100, -250))
+                        .setEmission(new Color(200, 200, 100)),
+                new Polygon(new Point(-100, 100, 0), new Point(-100, -80, 0),
+                        new Point(40, -80, -250), new Point(40, 100, -250))
+                        .setEmission(new Color(255, 153, 34)),
+                new Triangle(new Point(100, 100, 0), new Point(-100, 100, 0), new Point(40, 99, -250))
+                        .setEmission(new Color(0, 240, 0).scale(0.8)).setMaterial(roomMaterial),
+                new Triangle(new Point(40, -80, -250), new Point(185, -100, 0), new Point(-265, -100, 0))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)),
+                new Sphere(15, new Point(40, 100, -100)).setMaterial(new Material().setKt(1))
+                        .setEmission(new Color(GRAY)),
+                new Polygon(new Point(-40, 20, 0), new Point(-40, -20, 0),
+                        new Point(-20, -20, -100), new Point(-20, 20, -100))
+                        .setEmission(new Color(15, 15, 15)).setMaterial(new Material().setKr(1)),
+                new Sphere(20, new Point(40, -20, -100)).setMaterial(ball).setEmission(new Color(BLUE)));
+        scene.lights.add(new SpotLight(new Color(100, 20, 200), new Point(40, 75, -100), new Vector(0, -1, 0))
+                .setKl(1E-5).setKq(1.5E-7));
+        return new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(1000)
+                .setRayTracer(new RayTracerBasic(scene));
+    }
+
+    /**
+     * A transparent sphere around another sphere, lighted by a spotlight.
+     *
+     * @return the camera of the scene, without an image writer.
+     */
+    private static Camera twoSpheres() {
+        Scene scene = new Scene.SceneBuilder("twoSpheres").build();
+        scene.geometries.add(
+                new Sphere(50d, new Point(0, 0, -50)).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(100).setKt(0.3)),
+                new Sphere(25d, new Point(0, 0, -50)).setEmission(new Color(RED))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100)));
+        scene.lights.add(new SpotLight(new Color(1000, 600, 0), new Point(-100, -100, 500), new Vector(-1, -1, -2))
+                .setKl(0.0004).setKq(0.0000006));
+        return new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(150, 150).setVPDistance(1000)
+                .setRayTracer(new RayTracerBasic(scene));
+    }
+
+    /**
+     * Two spheres reflected by two mirrors.
+     *
+     * @return the camera of the scene, without an image writer.
+     */
+    private static Camera twoSpheresOnMirrors() {
+        Scene scene = new Scene.SceneBuilder("twoSpheresOnMirrors").build();
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.geometries.add(
+                new Sphere(400d, new Point(-950, -900, -1000)).setEmission(new Color(0, 50, 100))
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)
+                                .setKt(new Double3(0.5, 0, 0))),
+                new Sphere(200d, new Point(-950, -900, -1000)).setEmission(new Color(100, 50, 20))
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                        new Point(670, 670, 3000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKr(1)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                        new Point(-1500, -1500, -2000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKr(new Double3(0.5, 0, 0.4))));
+        scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4))
+                .setKl(0.00001).setKq(0.000005));
+        return new Camera(new Point(0, 0, 10000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(2500, 2500).setVPDistance(10000)
+                .setRayTracer(new RayTracerBasic(scene));
+    }
+
+    /**
+     * Two triangles with the partial shadow of a transparent sphere.
+     *
+     * @return the camera of the scene, without an image writer.
+     */
+    private static Camera trianglesTransparentSphere() {
+        Scene scene = new Scene.SceneBuilder("trianglesTransparentSphere").build();
+        scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
+        scene.geometries.add(
+                new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135), new Point(75, 75, -150))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+                new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+                new Sphere(30d, new Point(60, 50, -50)).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setKd(0.2).setKs(0.2).setShininess(30).setKt(0.6)));
+        scene.lights.add(new SpotLight(new Color(700, 400, 400), new Point(60, 50, 0), new Vector(0, 0, -1))
+                .setKl(4E-5).setKq(2E-7));
+        return new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(1000)
+                .setRayTracer(new RayTracerBasic(scene));
+    }
+}
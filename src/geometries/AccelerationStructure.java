@@ -0,0 +1,137 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A structure that organizes the members of a {@link Geometries} collection for a faster intersections search.
+ * The structure is built once from the members and isn't changed afterwards, so it can be used by many
+ * rendering threads at once. It is rebuilt by the collection whenever a geometry is added.
+ * The counters of the intersection tests are given to every search rather than kept by the structure,
+ * so renders that share the structure count their tests apart.
+ */
+abstract class AccelerationStructure {
+    /**
+     * Getter.
+     *
+     * @return the box of all the geometries, or null if any of them is unbounded (or there are none).
+     */
+    abstract BoundingBox getBoundingBox();
+
+    /**
+     * Finds the intersections of a ray with the organized geometries.
+     *
+     * @param ray         the ray.
+     * @param maxDistance the maximal distance of an intersection from the ray's head.
+     * @param statistics  the counters of the tests of the members (may be null).
+     * @return the intersections, or null if there are none.
+     */
+    abstract List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, IntersectionStatistics statistics);
+
+    /**
+     * Finds the intersection of a ray with the organized geometries that is the closest to the ray's head.
+     * Whenever a closer intersection is found, its distance becomes the maximum distance of the rest of the search.
+     *
+     * @param ray         the ray.
+     * @param maxDistance the maximal distance of an intersection from the ray's head.
+     * @param hit         the record the closest intersection is written to (untouched if there are none).
+     * @param statistics  the counters of the tests of the members (may be null).
+     * @return true if an intersection was found, false otherwise.
+     */
+    abstract boolean findClosestHit(Ray ray, double maxDistance, Hit hit, IntersectionStatistics statistics);
+
+    /**
+     * Calculates the transparency along a ray, stopping at the first geometry that blocks it
+     * (see {@link Intersectable#findTransparency(Ray, double, double)}).
+     *
+     * @param ray             the ray.
+     * @param maxDistance     the maximal distance of an intersection from the ray's head.
+     * @param ktr             the transparency that was accumulated so far.
+     * @param minTransparency the transparency below which the ray is considered fully blocked.
+     * @param statistics      the counters of the tests of the members (may be null).
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the ray is blocked.
+     */
+    abstract Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minTransparency,
+                                      IntersectionStatistics statistics);
+
+    /**
+     * Finds the intersections of a ray with a single geometry, counting the test if the statistics are given.
+     *
+     * @param statistics  the counters of the tests (may be null).
+     * @param geometry    the tested geometry.
+     * @param ray         the ray.
+     * @param maxDistance the maximal distance of an intersection from the ray's head.
+     * @return the intersections, or null if there are none.
+     */
+    static List<GeoPoint> findGeoIntersections(IntersectionStatistics statistics, Intersectable geometry,
+                                               Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = geometry.findGeoIntersectionsHelper(ray, maxDistance);
+        if (statistics != null) {
+            statistics.count(geometry, intersections != null);
+        }
+        return intersections;
+    }
+
+    /**
+     * Finds the closest intersection of a ray with a single geometry, counting the test if the statistics are given.
+     *
+     * @param statistics  the counters of the tests (may be null).
+     * @param geometry    the tested geometry.
+     * @param ray         the ray.
+     * @param maxDistance the maximal distance of an intersection from the ray's head.
+     * @param hit         the record the closest intersection is written to.
+     * @return true if an intersection was found, false otherwise.
+     */
+    static boolean findClosestHit(IntersectionStatistics statistics, Intersectable geometry,
+                                  Ray ray, double maxDistance, Hit hit) {
+        boolean found = geometry.findClosestHitHelper(ray, maxDistance, hit);
+        if (statistics != null) {
+            statistics.count(geometry, found);
+        }
+        return found;
+    }
+
+    /**
+     * Calculates the transparency of a single geometry along a ray, counting the test if the statistics are given
+     * (the geometry is hit if it changed the transparency).
+     *
+     * @param statistics      the counters of the tests (may be null).
+     * @param geometry        the tested geometry.
+     * @param ray             the ray.
+     * @param maxDistance     the maximal distance of an intersection from the ray's head.
+     * @param ktr             the transparency that was accumulated so far.
+     * @param minTransparency the transparency below which the ray is considered fully blocked.
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the ray is blocked.
+     */
+    static Double3 findTransparency(IntersectionStatistics statistics, Intersectable geometry,
+                                    Ray ray, double maxDistance, Double3 ktr, double minTransparency) {
+        Double3 result = geometry.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+        if (statistics != null) {
+            statistics.count(geometry, result != ktr);
+        }
+        return result;
+    }
+
+    /**
+     * Adds intersections to the result list, creating it when the first ones are found.
+     *
+     * @param result        the intersections that were found so far (may be null).
+     * @param intersections the new intersections (may be null).
+     * @return the list of all the intersections, or null if there are none.
+     */
+    static List<GeoPoint> addAll(List<GeoPoint> result, List<GeoPoint> intersections) {
+        if (intersections == null) {
+            return result;
+        }
+        if (result == null) {
+            return new LinkedList<>(intersections);
+        }
+        result.addAll(intersections);
+        return result;
+    }
+}
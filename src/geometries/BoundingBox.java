@@ -0,0 +1,216 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Axis aligned bounding box (AABB) in 3D Cartesian coordinate system.
+ * The box is described by its minimal and maximal coordinates on every axis.
+ * It is used for rejecting rays that can't hit a geometry before the exact intersection is calculated.
+ */
+public class BoundingBox {
+    /**
+     * Tolerance of the ray test, so flat boxes (of polygons that are parallel to an axis)
+     * and rays that touch the box's faces are never missed because of rounding.
+     */
+    static final double TOLERANCE = 1e-6;
+
+    final double minX;
+    final double minY;
+    final double minZ;
+    final double maxX;
+    final double maxY;
+    final double maxZ;
+
+    /**
+     * Constructs a bounding box from its minimal and maximal coordinates.
+     *
+     * @param minX the minimal x coordinate.
+     * @param minY the minimal y coordinate.
+     * @param minZ the minimal z coordinate.
+     * @param maxX the maximal x coordinate.
+     * @param maxY the maximal y coordinate.
+     * @param maxZ the maximal z coordinate.
+     * @throws IllegalArgumentException if a minimal coordinate is bigger than the maximal one.
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            throw new IllegalArgumentException("The minimal coordinates of a box can't be bigger than the maximal ones");
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructs the smallest bounding box that contains all the given points.
+     *
+     * @param points the points in the box (at least one).
+     * @return the bounding box of the points.
+     */
+    public static BoundingBox of(Point... points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the corner of the box with the minimal coordinates.
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the corner of the box with the maximal coordinates.
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Constructs the smallest box that contains both this box and the other one.
+     *
+     * @param other the other box.
+     * @return the union of the boxes.
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Calculates the surface area of the box (used by the surface area heuristic).
+     *
+     * @return the surface area.
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX;
+        double dy = maxY - minY;
+        double dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Checks whether a ray enters the box before the given distance (the slab test).
+     *
+     * @param ray         the ray.
+     * @param maxDistance the maximal distance from the ray's head.
+     * @return true if the ray may hit something inside the box, false otherwise.
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return intersects(p0.getX(), p0.getY(), p0.getZ(),
+                1 / dir.getX(), 1 / dir.getY(), 1 / dir.getZ(), maxDistance);
+    }
+
+    /**
+     * The slab test with the ray given by its head and the inverse of its direction,
+     * so they can be calculated once for many boxes.
+     *
+     * @param x           the x coordinate of the ray's head.
+     * @param y           the y coordinate of the ray's head.
+     * @param z           the z coordinate of the ray's head.
+     * @param invX        1 divided by the x coordinate of the ray's direction.
+     * @param invY        1 divided by the y coordinate of the ray's direction.
+     * @param invZ        1 divided by the z coordinate of the ray's direction.
+     * @param maxDistance the maximal distance from the ray's head.
+     * @return true if the ray may hit something inside the box, false otherwise.
+     */
+    boolean intersects(double x, double y, double z, double invX, double invY, double invZ, double maxDistance) {
+        return intersects(minX, minY, minZ, maxX, maxY, maxZ, x, y, z, invX, invY, invZ, maxDistance);
+    }
+
+    /**
+     * The slab test for a box that is given by its coordinates.
+     *
+     * @return true if the ray may hit something inside the box, false otherwise.
+     */
+    static boolean intersects(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                              double x, double y, double z, double invX, double invY, double invZ,
+                              double maxDistance) {
+        return entryDistance(minX, minY, minZ, maxX, maxY, maxZ, x, y, z, invX, invY, invZ, maxDistance)
+                != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * The distance from the ray's head to the point where the ray enters the box (0 if it starts inside it),
+     * with the ray given by its head and the inverse of its direction.
+     *
+     * @return the entry distance, or positive infinity if the ray doesn't enter the box before maxDistance.
+     */
+    double entryDistance(double x, double y, double z, double invX, double invY, double invZ, double maxDistance) {
+        return entryDistance(minX, minY, minZ, maxX, maxY, maxZ, x, y, z, invX, invY, invZ, maxDistance);
+    }
+
+    /**
+     * The entry distance of a ray into a box that is given by its coordinates (the slab test).
+     * A coordinate that is calculated as NaN (a ray that is parallel to a face of the box and starts
+     * exactly on it) doesn't change the range, it happens on the tolerance border of the box only.
+     *
+     * @return the entry distance, or positive infinity if the ray doesn't enter the box before maxDistance.
+     */
+    static double entryDistance(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                                double x, double y, double z, double invX, double invY, double invZ,
+                                double maxDistance) {
+        double tMin = 0;
+        double tMax = maxDistance + TOLERANCE;
+
+        double t1 = (minX - TOLERANCE - x) * invX;
+        double t2 = (maxX + TOLERANCE - x) * invX;
+        if (t1 > t2) {
+            double tmp = t1;
+            t1 = t2;
+            t2 = tmp;
+        }
+        if (t1 > tMin) tMin = t1;
+        if (t2 < tMax) tMax = t2;
+
+        t1 = (minY - TOLERANCE - y) * invY;
+        t2 = (maxY + TOLERANCE - y) * invY;
+        if (t1 > t2) {
+            double tmp = t1;
+            t1 = t2;
+            t2 = tmp;
+        }
+        if (t1 > tMin) tMin = t1;
+        if (t2 < tMax) tMax = t2;
+
+        t1 = (minZ - TOLERANCE - z) * invZ;
+        t2 = (maxZ + TOLERANCE - z) * invZ;
+        if (t1 > t2) {
+            double tmp = t1;
+            t1 = t2;
+            t2 = tmp;
+        }
+        if (t1 > tMin) tMin = t1;
+        if (t2 < tMax) tMax = t2;
+
+        return tMin <= tMax ? tMin : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+}
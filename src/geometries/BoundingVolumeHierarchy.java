@@ -0,0 +1,286 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy (BVH) over the members of a {@link Geometries} collection.
+ * The bounded members are organized in a binary tree of bounding boxes that is built with the
+ * binned surface area heuristic (SAH), so a ray visits only the branches whose box it enters.
+ * The unbounded members (planes, infinite tubes) can't be put in a box, so they are kept
+ * in a side list and are tested against every ray.
+ * <p>
+ * The tree is laid out by {@link BvhLayout} in flat arrays in depth-first order, and the geometries of the leaves
+ * are kept in one array, leaf after leaf.
+ * The traversal uses an explicit stack of node indices that every thread allocates once and reuses.
+ */
+class BoundingVolumeHierarchy extends AccelerationStructure {
+    /**
+     * The boxes of the nodes in depth-first order, 6 coordinates per node (min x,y,z and max x,y,z).
+     * The left child of an inner node always follows it.
+     */
+    final double[] bounds;
+    /**
+     * The links of the nodes, 2 per node: for an inner node the index of its right child and 0,
+     * and for a leaf the index of its first geometry and the (positive) amount of its geometries.
+     */
+    final int[] links;
+    /**
+     * The geometries of the leaves in the order of the leaves.
+     */
+    final Intersectable[] primitives;
+    /**
+     * The layout of the tree over the bounded geometries.
+     */
+    final BvhLayout layout;
+    private final Intersectable[] unbounded;
+    private final BoundingBox box;
+
+    /**
+     * Builds the hierarchy over the given geometries, in parallel if there are many of them.
+     *
+     * @param geometries the geometries to organize.
+     */
+    BoundingVolumeHierarchy(List<Intersectable> geometries) {
+        this(geometries, true);
+    }
+
+    /**
+     * Builds the hierarchy over the given geometries.
+     * The parallel build makes exactly the same tree as the sequential one, only faster.
+     *
+     * @param geometries the geometries to organize.
+     * @param parallel   whether big subtrees are built by fork/join tasks in the common pool.
+     */
+    BoundingVolumeHierarchy(List<Intersectable> geometries, boolean parallel) {
+        this(geometries, null, parallel);
+    }
+
+    /**
+     * Restores the hierarchy over the given geometries from a layout that was built before over the same
+     * geometries (in the same order), without building it again.
+     *
+     * @param geometries the geometries to organize.
+     * @param layout     the layout of the hierarchy over the bounded geometries.
+     * @throws IllegalArgumentException if the layout isn't of the amount of the bounded geometries.
+     */
+    BoundingVolumeHierarchy(List<Intersectable> geometries, BvhLayout layout) {
+        this(geometries, layout, false);
+    }
+
+    private BoundingVolumeHierarchy(List<Intersectable> geometries, BvhLayout prebuilt, boolean parallel) {
+        List<Intersectable> bounded = new LinkedList<>();
+        List<BoundingBox> boxes = new LinkedList<>();
+        List<Intersectable> unboundedList = new LinkedList<>();
+        for (Intersectable geometry : geometries) {
+            BoundingBox box = geometry.getBoundingBox();
+            if (box == null) {
+                unboundedList.add(geometry);
+            } else {
+                bounded.add(geometry);
+                boxes.add(box);
+            }
+        }
+        unbounded = unboundedList.toArray(new Intersectable[0]);
+
+        int count = bounded.size();
+        Intersectable[] items = bounded.toArray(new Intersectable[0]);
+        if (prebuilt != null) {
+            if (prebuilt.order.length != count)
+                throw new IllegalArgumentException("The layout isn't of the bounded geometries");
+            layout = prebuilt;
+        } else {
+            double[] itemBounds = new double[6 * count];
+            int i = 0;
+            for (BoundingBox box : boxes) {
+                itemBounds[i++] = box.minX;
+                itemBounds[i++] = box.minY;
+                itemBounds[i++] = box.minZ;
+                itemBounds[i++] = box.maxX;
+                itemBounds[i++] = box.maxY;
+                itemBounds[i++] = box.maxZ;
+            }
+            layout = new BvhLayout(itemBounds, parallel);
+        }
+        bounds = layout.bounds;
+        links = layout.links;
+        primitives = new Intersectable[count];
+        for (int i = 0; i < count; i++) {
+            primitives[i] = items[layout.order[i]];
+        }
+        box = count == 0 ? null
+                : new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * The entry distance of a ray into the box of a node (see {@link BoundingBox#entryDistance}).
+     */
+    private double entryDistance(int node, double x, double y, double z, double invX, double invY, double invZ,
+                                 double maxDistance) {
+        return layout.entryDistance(node, x, y, z, invX, invY, invZ, maxDistance);
+    }
+
+    @Override
+    BoundingBox getBoundingBox() {
+        return unbounded.length > 0 ? null : box;
+    }
+
+    @Override
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, IntersectionStatistics statistics) {
+        List<GeoPoint> result = null;
+        for (Intersectable geometry : unbounded) {
+            result = addAll(result, findGeoIntersections(statistics, geometry, ray, maxDistance));
+        }
+        if (box == null) {
+            return result;
+        }
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        int[] stack = layout.stack().nodes;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entryDistance(node, x, y, z, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int count = links[2 * node + 1];
+            if (count > 0) {
+                int first = links[2 * node];
+                for (int i = first; i < first + count; i++) {
+                    result = addAll(result, findGeoIntersections(statistics, primitives[i], ray, maxDistance));
+                }
+            } else {
+                // the left child is visited first
+                stack[top++] = links[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    boolean findClosestHit(Ray ray, double maxDistance, Hit hit, IntersectionStatistics statistics) {
+        boolean found = false;
+        for (Intersectable geometry : unbounded) {
+            if (findClosestHit(statistics, geometry, ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        if (box == null) {
+            return found;
+        }
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+        if (entryDistance(0, x, y, z, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY) {
+            return found;
+        }
+
+        // The child that the ray enters first is visited first, and the other one is pushed with its entry
+        // distance - it is visited only if it starts before the closest intersection that is found until then
+        BvhLayout.Stack stack = layout.stack();
+        int[] nodes = stack.nodes;
+        double[] entries = stack.entries;
+        int top = 0;
+        nodes[top] = 0;
+        entries[top++] = 0;
+        while (top > 0) {
+            --top;
+            if (entries[top] > maxDistance + BoundingBox.TOLERANCE) {
+                continue;
+            }
+            int node = nodes[top];
+            int count = links[2 * node + 1];
+            while (count == 0) {
+                int first = node + 1;
+                int second = links[2 * node];
+                double firstEntry = entryDistance(first, x, y, z, invX, invY, invZ, maxDistance);
+                double secondEntry = entryDistance(second, x, y, z, invX, invY, invZ, maxDistance);
+                if (secondEntry < firstEntry) {
+                    int tmp = first;
+                    first = second;
+                    second = tmp;
+                    double tmpEntry = firstEntry;
+                    firstEntry = secondEntry;
+                    secondEntry = tmpEntry;
+                }
+                if (secondEntry != Double.POSITIVE_INFINITY) {
+                    nodes[top] = second;
+                    entries[top++] = secondEntry;
+                }
+                if (firstEntry == Double.POSITIVE_INFINITY) {
+                    break;
+                }
+                node = first;
+                count = links[2 * node + 1];
+            }
+            if (count > 0) {
+                int first = links[2 * node];
+                for (int i = first; i < first + count; i++) {
+                    if (findClosestHit(statistics, primitives[i], ray, maxDistance, hit)) {
+                        found = true;
+                        maxDistance = hit.t;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minTransparency,
+                             IntersectionStatistics statistics) {
+        for (Intersectable geometry : unbounded) {
+            ktr = findTransparency(statistics, geometry, ray, maxDistance, ktr, minTransparency);
+            if (ktr == Double3.ZERO) {
+                return ktr;
+            }
+        }
+        if (box == null) {
+            return ktr;
+        }
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        // the traversal stops as soon as the ray is blocked
+        int[] stack = layout.stack().nodes;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entryDistance(node, x, y, z, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int count = links[2 * node + 1];
+            if (count > 0) {
+                int first = links[2 * node];
+                for (int i = first; i < first + count; i++) {
+                    ktr = findTransparency(statistics, primitives[i], ray, maxDistance, ktr, minTransparency);
+                    if (ktr == Double3.ZERO) {
+                        return ktr;
+                    }
+                }
+            } else {
+                // the left child is visited first
+                stack[top++] = links[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return ktr;
+    }
+}
@@ -0,0 +1,122 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+/**
+ * Keeps the members of a {@link Geometries} collection in a list together with their bounding boxes,
+ * so a ray is tested by the cheap slab test before every bounded geometry
+ * and skips the exact intersection calculation of the geometries whose box it misses.
+ * Unlike {@link BoundingVolumeHierarchy} every ray still visits every geometry,
+ * but there is nothing to build besides the boxes.
+ */
+class BoundsCulling extends AccelerationStructure {
+    private final Intersectable[] geometries;
+    /**
+     * The boxes of the geometries, 6 coordinates per geometry (min x,y,z and max x,y,z),
+     * or NaN for the unbounded ones.
+     */
+    private final double[] bounds;
+    private final BoundingBox box;
+
+    /**
+     * Calculates the boxes of the given geometries.
+     *
+     * @param geometries the geometries.
+     */
+    BoundsCulling(List<Intersectable> geometries) {
+        this.geometries = geometries.toArray(new Intersectable[0]);
+        bounds = new double[6 * this.geometries.length];
+        BoundingBox all = null;
+        boolean unbounded = false;
+        for (int i = 0; i < this.geometries.length; i++) {
+            BoundingBox b = this.geometries[i].getBoundingBox();
+            if (b == null) {
+                unbounded = true;
+                bounds[6 * i] = Double.NaN;
+                continue;
+            }
+            all = all == null ? b : all.union(b);
+            bounds[6 * i] = b.minX;
+            bounds[6 * i + 1] = b.minY;
+            bounds[6 * i + 2] = b.minZ;
+            bounds[6 * i + 3] = b.maxX;
+            bounds[6 * i + 4] = b.maxY;
+            bounds[6 * i + 5] = b.maxZ;
+        }
+        box = unbounded ? null : all;
+    }
+
+    @Override
+    BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, IntersectionStatistics statistics) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        List<GeoPoint> result = null;
+        for (int i = 0; i < geometries.length; i++) {
+            int b = 6 * i;
+            if (Double.isNaN(bounds[b]) || BoundingBox.intersects(
+                    bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+                    x, y, z, invX, invY, invZ, maxDistance)) {
+                result = addAll(result, findGeoIntersections(statistics, geometries[i], ray, maxDistance));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    boolean findClosestHit(Ray ray, double maxDistance, Hit hit, IntersectionStatistics statistics) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        boolean found = false;
+        for (int i = 0; i < geometries.length; i++) {
+            int b = 6 * i;
+            if ((Double.isNaN(bounds[b]) || BoundingBox.intersects(
+                    bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+                    x, y, z, invX, invY, invZ, maxDistance))
+                    && findClosestHit(statistics, geometries[i], ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minTransparency,
+                             IntersectionStatistics statistics) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        for (int i = 0; i < geometries.length; i++) {
+            int b = 6 * i;
+            if (Double.isNaN(bounds[b]) || BoundingBox.intersects(
+                    bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+                    x, y, z, invX, invY, invZ, maxDistance)) {
+                ktr = findTransparency(statistics, geometries[i], ray, maxDistance, ktr, minTransparency);
+                if (ktr == Double3.ZERO) {
+                    return ktr;
+                }
+            }
+        }
+        return ktr;
+    }
+}
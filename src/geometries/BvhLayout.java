@@ -0,0 +1,552 @@
+package geometries;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The layout of a bounding volume hierarchy (BVH) over a set of boxes, which is shared by the hierarchies of
+ * different kinds of items (the members of a {@link Geometries} collection, the triangles of a {@link TriangleMesh}).
+ * The tree is built with the binned surface area heuristic (SAH), so a ray visits only the branches whose box
+ * it enters, and then it is flattened into arrays in depth-first order, so the traversal reads consecutive memory
+ * instead of chasing references: the box of every node is kept in one array of coordinates and its links
+ * in one array of indices. The leaves hold consecutive ranges of the reordered items.
+ * <p>
+ * The two parts of a split range are independent (every part reorders only its own indices), so the subtrees
+ * of big ranges are built in parallel by fork/join tasks. The split decisions don't depend on the scheduling,
+ * so the parallel build makes exactly the same layout as the sequential one.
+ */
+final class BvhLayout {
+    /**
+     * The amount of bins the centroids are sorted into when a split is evaluated.
+     */
+    private static final int BINS = 16;
+    /**
+     * The cost of visiting a node relatively to the cost of intersecting an item.
+     */
+    private static final double TRAVERSAL_COST = 0.25;
+    /**
+     * The biggest amount of items a leaf may hold.
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * The smallest amount of items whose subtrees are built in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * A subtree that is laid out in flat arrays in depth-first order, as the final arrays
+     * (the indices of the right children are relative to the root of the subtree).
+     */
+    private static final class Subtree {
+        final double[] bounds;
+        final int[] links;
+        /**
+         * The amount of nodes in the subtree.
+         */
+        int size;
+        /**
+         * The depth of the deepest leaf of the subtree (1 if the root is a leaf).
+         */
+        int depth;
+
+        /**
+         * Constructs an empty subtree for a range of items - a tree whose leaves hold at least one item each
+         * has less than twice as many nodes as items.
+         *
+         * @param count the amount of items.
+         */
+        Subtree(int count) {
+            bounds = new double[6 * (2 * count - 1)];
+            links = new int[2 * (2 * count - 1)];
+        }
+    }
+
+    /**
+     * A node of the upper levels of the tree while it is built in parallel: an inner node with two children,
+     * or a subtree of a range that was built by a single task.
+     */
+    private static final class Node {
+        final double[] box;
+        final Node left;
+        final Node right;
+        final Subtree subtree;
+        /**
+         * The amount of nodes in the subtree.
+         */
+        final int size;
+
+        Node(double[] box, Node left, Node right) {
+            this.box = box;
+            this.left = left;
+            this.right = right;
+            this.subtree = null;
+            size = 1 + left.size + right.size;
+        }
+
+        Node(Subtree subtree) {
+            this.box = null;
+            this.left = null;
+            this.right = null;
+            this.subtree = subtree;
+            size = subtree.size;
+        }
+    }
+
+    /**
+     * The working arrays of the split evaluation, which a build task reuses for all the nodes it builds
+     * (they are used only before the recursion into the children).
+     */
+    private static final class Bins {
+        final double[] centroidMin = new double[3];
+        final double[] centroidMax = new double[3];
+        final double[] extent = new double[3];
+        final int[] count = new int[3 * BINS];
+        final double[] boxes = new double[6 * 3 * BINS];
+        final double[] rightArea = new double[BINS];
+        final int[] rightCount = new int[BINS];
+        final double[] acc = new double[6];
+    }
+
+    /**
+     * Builds a subtree as a fork/join task: a big range is split and its parts are built by separate tasks,
+     * and a smaller range is built by the task itself (see {@link #build}).
+     */
+    private static final class BuildTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] bounds;
+        private final int[] order;
+        private final int start;
+        private final int end;
+
+        BuildTask(double[] bounds, int[] order, int start, int end) {
+            this.bounds = bounds;
+            this.order = order;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Node compute() {
+            Bins bins = new Bins();
+            int count = end - start;
+            double[] box = new double[6];
+            int mid = count < PARALLEL_THRESHOLD ? -1 : split(bounds, start, end, order, bins, box, 0);
+            if (mid < 0) {
+                Subtree subtree = new Subtree(count);
+                build(bounds, order, start, end, bins, subtree, 1);
+                return new Node(subtree);
+            }
+            BuildTask left = new BuildTask(bounds, order, start, mid);
+            left.fork();
+            Node right = new BuildTask(bounds, order, mid, end).compute();
+            return new Node(box, left.join(), right);
+        }
+    }
+
+    /**
+     * The traversal stack of a thread: the indices of the nodes that are still to be visited,
+     * and (for the closest intersection search) the distances at which the ray enters them.
+     */
+    static final class Stack {
+        final int[] nodes;
+        final double[] entries;
+
+        Stack(int size) {
+            nodes = new int[size];
+            entries = new double[size];
+        }
+    }
+
+    /**
+     * The boxes of the nodes in depth-first order, 6 coordinates per node (min x,y,z and max x,y,z).
+     * The left child of an inner node always follows it.
+     */
+    final double[] bounds;
+    /**
+     * The links of the nodes, 2 per node: for an inner node the index of its right child and 0,
+     * and for a leaf the index of its first item (in {@link #order}) and the (positive) amount of its items.
+     */
+    final int[] links;
+    /**
+     * The indices of the items in the order of the leaves.
+     */
+    final int[] order;
+    /**
+     * The depth of the deepest leaf (1 if the root is a leaf, 0 if there are no items).
+     */
+    final int depth;
+    /**
+     * The traversal stacks of the rendering threads, big enough for the depth of the tree.
+     */
+    private final ThreadLocal<Stack> stacks;
+
+    /**
+     * Builds the hierarchy over the boxes of the items.
+     *
+     * @param itemBounds the boxes of the items, 6 coordinates per item (min x,y,z and max x,y,z).
+     *                   The array is reordered by the build.
+     * @param parallel   whether big subtrees are built by fork/join tasks in the common pool.
+     */
+    BvhLayout(double[] itemBounds, boolean parallel) {
+        int count = itemBounds.length / 6;
+        order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        if (count == 0) {
+            bounds = new double[0];
+            links = new int[0];
+            depth = 0;
+        } else if (parallel && count >= PARALLEL_THRESHOLD) {
+            Node root = new BuildTask(itemBounds, order, 0, count).invoke();
+            bounds = new double[6 * root.size];
+            links = new int[2 * root.size];
+            depth = flatten(root, 0, 1);
+        } else {
+            Subtree tree = new Subtree(count);
+            build(itemBounds, order, 0, count, new Bins(), tree, 1);
+            bounds = Arrays.copyOf(tree.bounds, 6 * tree.size);
+            links = Arrays.copyOf(tree.links, 2 * tree.size);
+            depth = tree.depth;
+        }
+        // a visit pushes at most two children in place of the visited node
+        int stackSize = depth + 1;
+        stacks = ThreadLocal.withInitial(() -> new Stack(stackSize));
+    }
+
+    /**
+     * Restores a hierarchy from the arrays of a layout that was built before (see {@link #bounds}, {@link #links}
+     * and {@link #order}), without building it again. The arrays are checked to describe a tree over all the items,
+     * so a damaged layout can't make the traversal run out of its arrays, and the depth is calculated from them.
+     *
+     * @param bounds the boxes of the nodes in depth-first order.
+     * @param links  the links of the nodes.
+     * @param order  the indices of the items in the order of the leaves.
+     * @throws IllegalArgumentException if the arrays don't describe a valid hierarchy.
+     */
+    BvhLayout(double[] bounds, int[] links, int[] order) {
+        int nodes = links.length / 2;
+        if (links.length % 2 != 0 || bounds.length != 6 * nodes || (nodes == 0) != (order.length == 0))
+            throw new IllegalArgumentException("The arrays of the hierarchy have inconsistent lengths");
+        // every node must be reached exactly once, and every item must be in exactly one leaf
+        int[] depths = new int[nodes];
+        boolean[] used = new boolean[order.length];
+        int items = 0;
+        int maxDepth = 0;
+        if (nodes > 0) {
+            depths[0] = 1;
+        }
+        for (int k = 0; k < nodes; k++) {
+            if (depths[k] == 0)
+                throw new IllegalArgumentException("The node " + k + " of the hierarchy isn't reachable");
+            int first = links[2 * k], count = links[2 * k + 1];
+            if (count > 0) {
+                if (first < 0 || first > order.length - count)
+                    throw new IllegalArgumentException("The leaf " + k + " is out of the items");
+                for (int i = first; i < first + count; i++) {
+                    int item = order[i];
+                    if (item < 0 || item >= order.length || used[item])
+                        throw new IllegalArgumentException("The items of the hierarchy aren't a permutation");
+                    used[item] = true;
+                }
+                items += count;
+                maxDepth = Math.max(maxDepth, depths[k]);
+            } else {
+                if (count < 0 || k + 1 >= nodes || first <= k + 1 || first >= nodes
+                        || depths[k + 1] != 0 || depths[first] != 0)
+                    throw new IllegalArgumentException("The node " + k + " has invalid children");
+                depths[k + 1] = depths[first] = depths[k] + 1;
+            }
+        }
+        if (items != order.length)
+            throw new IllegalArgumentException("The leaves of the hierarchy don't hold all the items");
+        this.bounds = bounds;
+        this.links = links;
+        this.order = order;
+        depth = maxDepth;
+        int stackSize = depth + 1;
+        stacks = ThreadLocal.withInitial(() -> new Stack(stackSize));
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the traversal stack of the current thread.
+     */
+    Stack stack() {
+        return stacks.get();
+    }
+
+    /**
+     * Writes a subtree of the parallel build into the arrays in depth-first order.
+     *
+     * @param node  the root of the subtree.
+     * @param index the index of the node in the arrays.
+     * @param depth the depth of the node (1 for the root).
+     * @return the depth of the deepest leaf of the subtree.
+     */
+    private int flatten(Node node, int index, int depth) {
+        if (node.subtree != null) {
+            Subtree subtree = node.subtree;
+            System.arraycopy(subtree.bounds, 0, bounds, 6 * index, 6 * subtree.size);
+            for (int k = 0; k < subtree.size; k++) {
+                int count = subtree.links[2 * k + 1];
+                // the first items of the leaves are absolute, the right children are moved with the subtree
+                links[2 * (index + k)] = count > 0 ? subtree.links[2 * k] : subtree.links[2 * k] + index;
+                links[2 * (index + k) + 1] = count;
+            }
+            return depth - 1 + subtree.depth;
+        }
+        System.arraycopy(node.box, 0, bounds, 6 * index, 6);
+        int right = index + 1 + node.left.size;
+        links[2 * index] = right;
+        return Math.max(flatten(node.left, index + 1, depth + 1), flatten(node.right, right, depth + 1));
+    }
+
+    /**
+     * The entry distance of a ray into the box of a node (see {@link BoundingBox#entryDistance}).
+     */
+    double entryDistance(int node, double x, double y, double z, double invX, double invY, double invZ,
+                         double maxDistance) {
+        int b = 6 * node;
+        return BoundingBox.entryDistance(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4],
+                bounds[b + 5], x, y, z, invX, invY, invZ, maxDistance);
+    }
+
+    /**
+     * Checks whether a point is in the box of a node, up to {@link BoundingBox#TOLERANCE}.
+     */
+    boolean contains(int node, double x, double y, double z) {
+        int b = 6 * node;
+        return x >= bounds[b] - BoundingBox.TOLERANCE && x <= bounds[b + 3] + BoundingBox.TOLERANCE
+                && y >= bounds[b + 1] - BoundingBox.TOLERANCE && y <= bounds[b + 4] + BoundingBox.TOLERANCE
+                && z >= bounds[b + 2] - BoundingBox.TOLERANCE && z <= bounds[b + 5] + BoundingBox.TOLERANCE;
+    }
+
+    /**
+     * Builds the subtree of the items order[start..end) by a single task, into flat arrays.
+     *
+     * @param bounds the boxes of the items in the order of {@code order}, reordered in place together with it.
+     * @param order  the indices of the items, reordered in place so every node holds a range.
+     * @param start  the beginning of the range (included).
+     * @param end    the end of the range (excluded).
+     * @param bins   the working arrays of the task.
+     * @param tree   the subtree the nodes are added to.
+     * @param depth  the depth of the node in the subtree (1 for its root).
+     * @return the index of the node in the subtree.
+     */
+    private static int build(double[] bounds, int[] order, int start, int end, Bins bins, Subtree tree, int depth) {
+        int index = tree.size++;
+        int mid = split(bounds, start, end, order, bins, tree.bounds, 6 * index);
+        if (mid < 0) {
+            tree.links[2 * index] = start;
+            tree.links[2 * index + 1] = end - start;
+            tree.depth = Math.max(tree.depth, depth);
+            return index;
+        }
+        build(bounds, order, start, mid, bins, tree, depth + 1);
+        tree.links[2 * index] = build(bounds, order, mid, end, bins, tree, depth + 1);
+        tree.links[2 * index + 1] = 0;
+        return index;
+    }
+
+    /**
+     * Calculates the box of the items order[start..end) and decides whether the range is split.
+     * The best split of the range is chosen by the binned surface area heuristic: the centroids are sorted
+     * into bins along every axis and the cost of splitting between every two neighbour bins is estimated
+     * by the areas of the boxes of the two parts multiplied by the amount of items in them.
+     * The boxes are reordered together with the indices, so every pass over a range reads consecutive memory.
+     *
+     * @param bounds    the boxes of the items in the order of {@code order} (6 coordinates per item:
+     *                  min x,y,z and max x,y,z), reordered in place together with it.
+     * @param start     the beginning of the range (included).
+     * @param end       the end of the range (excluded).
+     * @param order     the indices of the items, reordered in place so the two parts are consecutive.
+     * @param bins      the working arrays of the current task.
+     * @param box       the array the box of the range is written to.
+     * @param boxOffset the position of the box in the array.
+     * @return the beginning of the second part, or -1 if the range should be a leaf.
+     */
+    private static int split(double[] bounds, int start, int end, int[] order, Bins bins,
+                             double[] box, int boxOffset) {
+        int count = end - start;
+        // the box of the range and the bounds of the centroids (which decide the bins) in one pass
+        double[] centroidMin = bins.centroidMin;
+        double[] centroidMax = bins.centroidMax;
+        for (int axis = 0; axis < 3; axis++) {
+            box[boxOffset + axis] = Double.POSITIVE_INFINITY;
+            box[boxOffset + axis + 3] = Double.NEGATIVE_INFINITY;
+            centroidMin[axis] = Double.POSITIVE_INFINITY;
+            centroidMax[axis] = Double.NEGATIVE_INFINITY;
+        }
+        for (int i = start; i < end; i++) {
+            int offset = 6 * i;
+            for (int axis = 0; axis < 3; axis++) {
+                double min = bounds[offset + axis], max = bounds[offset + axis + 3];
+                box[boxOffset + axis] = Math.min(box[boxOffset + axis], min);
+                box[boxOffset + axis + 3] = Math.max(box[boxOffset + axis + 3], max);
+                double c = (min + max) / 2;
+                centroidMin[axis] = Math.min(centroidMin[axis], c);
+                centroidMax[axis] = Math.max(centroidMax[axis], c);
+            }
+        }
+        if (count == 1) {
+            return -1;
+        }
+
+        // the items are sorted into the bins of all the axes in one pass
+        double[] extent = bins.extent;
+        for (int axis = 0; axis < 3; axis++) {
+            extent[axis] = centroidMax[axis] - centroidMin[axis];
+        }
+        int[] binCount = bins.count;
+        double[] binBox = bins.boxes;
+        Arrays.fill(binCount, 0);
+        for (int i = start; i < end; i++) {
+            int offset = 6 * i;
+            for (int axis = 0; axis < 3; axis++) {
+                if (extent[axis] <= 0) {
+                    continue;
+                }
+                int b = axis * BINS + bin(centroid(bounds, i, axis), centroidMin[axis], extent[axis]);
+                int binOffset = 6 * b;
+                // the box of an empty bin is not cleared, the first item replaces it
+                if (binCount[b]++ == 0) {
+                    System.arraycopy(bounds, offset, binBox, binOffset, 6);
+                    continue;
+                }
+                for (int k = 0; k < 3; k++) {
+                    binBox[binOffset + k] = Math.min(binBox[binOffset + k], bounds[offset + k]);
+                    binBox[binOffset + k + 3] = Math.max(binBox[binOffset + k + 3], bounds[offset + k + 3]);
+                }
+            }
+        }
+
+        double area = surfaceArea(box, boxOffset / 6);
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        int bestBin = 0;
+        double[] acc = bins.acc;
+        double[] rightArea = bins.rightArea;
+        int[] rightCount = bins.rightCount;
+        for (int axis = 0; axis < 3; axis++) {
+            if (extent[axis] <= 0) {
+                continue;
+            }
+            int first = axis * BINS;
+            // areas and counts of the right parts, for a split before each bin (the empty bins change nothing)
+            empty(acc);
+            int accCount = 0;
+            double accArea = 0;
+            for (int bin = BINS - 1; bin > 0; bin--) {
+                if (binCount[first + bin] > 0) {
+                    accCount += binCount[first + bin];
+                    include(acc, binBox, first + bin);
+                    accArea = surfaceArea(acc, 0);
+                }
+                rightArea[bin] = accArea;
+                rightCount[bin] = accCount;
+            }
+            empty(acc);
+            accCount = 0;
+            for (int bin = 1; bin < BINS; bin++) {
+                if (binCount[first + bin - 1] > 0) {
+                    accCount += binCount[first + bin - 1];
+                    include(acc, binBox, first + bin - 1);
+                    accArea = surfaceArea(acc, 0);
+                }
+                if (accCount == 0 || rightCount[bin] == 0) {
+                    continue;
+                }
+                double cost = TRAVERSAL_COST + (accArea * accCount + rightArea[bin] * rightCount[bin]) / area;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = bin;
+                }
+            }
+        }
+
+        if (bestAxis == -1) {
+            // all the centroids are in the same place - no split can separate them
+            return count <= MAX_LEAF_SIZE ? -1 : start + count / 2;
+        }
+        if (bestCost >= count && count <= MAX_LEAF_SIZE) {
+            return -1;
+        }
+        return partition(bounds, order, start, end, bestAxis, bestBin, centroidMin[bestAxis], extent[bestAxis]);
+    }
+
+    /**
+     * Moves the items whose centroid falls in a bin before the split bin to the beginning of the range.
+     *
+     * @return the index of the first item of the second part.
+     */
+    private static int partition(double[] bounds, int[] order, int start, int end,
+                                 int axis, int splitBin, double min, double extent) {
+        int i = start;
+        int j = end - 1;
+        while (i <= j) {
+            if (bin(centroid(bounds, i, axis), min, extent) < splitBin) {
+                i++;
+            } else {
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+                for (int k = 0; k < 6; k++) {
+                    double coordinate = bounds[6 * i + k];
+                    bounds[6 * i + k] = bounds[6 * j + k];
+                    bounds[6 * j + k] = coordinate;
+                }
+                j--;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Calculates the bin of a centroid.
+     */
+    private static int bin(double centroid, double min, double extent) {
+        int bin = (int) ((centroid - min) * BINS / extent);
+        return Math.min(bin, BINS - 1);
+    }
+
+    /**
+     * Calculates the centroid coordinate of a box on an axis.
+     */
+    private static double centroid(double[] bounds, int index, int axis) {
+        return (bounds[6 * index + axis] + bounds[6 * index + 3 + axis]) / 2;
+    }
+
+    /**
+     * Sets a box to the empty box (which contains nothing).
+     */
+    private static void empty(double[] box) {
+        for (int axis = 0; axis < 3; axis++) {
+            box[axis] = Double.POSITIVE_INFINITY;
+            box[axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Grows a box so it contains a box of an array of boxes.
+     */
+    private static void include(double[] box, double[] boxes, int index) {
+        for (int axis = 0; axis < 3; axis++) {
+            box[axis] = Math.min(box[axis], boxes[6 * index + axis]);
+            box[axis + 3] = Math.max(box[axis + 3], boxes[6 * index + axis + 3]);
+        }
+    }
+
+    /**
+     * Calculates the surface area of a box of an array of boxes.
+     */
+    private static double surfaceArea(double[] boxes, int index) {
+        double dx = boxes[6 * index + 3] - boxes[6 * index];
+        double dy = boxes[6 * index + 4] - boxes[6 * index + 1];
+        double dz = boxes[6 * index + 5] - boxes[6 * index + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
@@ -67,6 +67,24 @@ public class Cylinder extends Tube {
         return point.subtract(o).normalize();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        Point base = axisRay.getP0();
+        Point top = axisRay.getPoint(height);
+        Vector v = axisRay.getDir();
+        // the extent of a base disk along an axis is radius * sin(angle between the axis and the disk's normal)
+        double dx = radius * Math.sqrt(Math.max(0, 1 - v.getX() * v.getX()));
+        double dy = radius * Math.sqrt(Math.max(0, 1 - v.getY() * v.getY()));
+        double dz = radius * Math.sqrt(Math.max(0, 1 - v.getZ() * v.getZ()));
+        return new BoundingBox(
+                Math.min(base.getX(), top.getX()) - dx,
+                Math.min(base.getY(), top.getY()) - dy,
+                Math.min(base.getZ(), top.getZ()) - dz,
+                Math.max(base.getX(), top.getX()) + dx,
+                Math.max(base.getY(), top.getY()) + dy,
+                Math.max(base.getZ(), top.getZ()) + dz);
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
         List<GeoPoint> res = new LinkedList<>();
@@ -96,7 +114,7 @@ public class Cylinder extends Tube {
         Plane basePlane2 = new Plane(basePoint2, v);
 
         // Find intersections with the first base
-        lst = basePlane1.findGeoIntersectionsHelper(ray,3000);
+        lst = basePlane1.findGeoIntersectionsHelper(ray, maxDistance);
         lstPoint = lst == null ? null : lst.stream().map(gp -> gp.point).toList();
         if (lstPoint != null) {
             for (Point point : lstPoint) {
@@ -108,7 +126,7 @@ public class Cylinder extends Tube {
         }
 
         // Find intersections with the second base
-        lst = basePlane2.findGeoIntersectionsHelper(ray,3000);
+        lst = basePlane2.findGeoIntersectionsHelper(ray, maxDistance);
         lstPoint = lst == null ? null : lst.stream().map(gp -> gp.point).toList();
         if (lstPoint != null) {
             for (Point point : lstPoint) {
@@ -1,6 +1,6 @@
 package geometries;
 
-import primitives.Point;
+import primitives.Double3;
 import primitives.Ray;
 
 import java.util.*;
@@ -12,8 +12,48 @@ import java.util.*;
  */
 public class Geometries extends Intersectable {
 
+    /**
+     * The ways the geometries can be organized for the intersections search.
+     */
+    public enum Acceleration {
+        /**
+         * Every ray is tested against every geometry.
+         */
+        NONE,
+        /**
+         * Every ray is still tested against every geometry, but first by the cheap slab test against the
+         * geometry's bounding box, and the exact intersections are calculated only if the box is hit.
+         */
+        BOUNDS,
+        /**
+         * The geometries are organized in a bounding volume hierarchy, so a ray is tested only against
+         * the geometries whose boxes it enters (and against the unbounded ones).
+         */
+        BVH,
+        /**
+         * Like {@link #BOUNDS}, but the geometries are kept in separate arrays by their concrete type and every
+         * type is tested in its own loop, so the JIT compiler can inline the intersection calculation of the type
+         * into the loop. It suits flat scenes of a few dozen geometries of mixed types, which a hierarchy
+         * hardly prunes.
+         */
+        TYPED
+    }
+
     private List<Intersectable> GeometryList;
 
+    private Acceleration acceleration = Acceleration.BVH;
+
+    /**
+     * The structure of the geometries for the chosen acceleration,
+     * built on the first intersections search after a change.
+     */
+    private volatile AccelerationStructure structure;
+
+    /**
+     * The counters of the intersection tests of the members, or null if they aren't counted.
+     */
+    private IntersectionStatistics statistics;
+
     /**
      * Constructs an empty Geometries object.
      * Initializes the list of geometries as an empty LinkedList.
@@ -32,6 +72,17 @@ public class Geometries extends Intersectable {
         this.add(geometries);
     }
 
+    /**
+     * Constructs a collection over a list of members.
+     *
+     * @param members      the members (the list is kept, not copied).
+     * @param acceleration the way the members are organized for the intersections search.
+     */
+    private Geometries(List<Intersectable> members, Acceleration acceleration) {
+        GeometryList = members;
+        this.acceleration = acceleration;
+    }
+
     /**
      * Adds the given geometries to the list of geometries.
      *
@@ -39,14 +90,185 @@ public class Geometries extends Intersectable {
      */
     public void add(Intersectable... geometries) {
         Collections.addAll(GeometryList, geometries);
+        structure = null;
+    }
+
+    /**
+     * Setter.
+     *
+     * @param acceleration the way the geometries are organized for the intersections search
+     *                     ({@link Acceleration#BVH} by default).
+     * @return the Geometries object with the updated acceleration.
+     */
+    public Geometries setAcceleration(Acceleration acceleration) {
+        this.acceleration = acceleration;
+        structure = null;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the way the geometries are organized for the intersections search.
+     */
+    public Acceleration getAcceleration() {
+        return acceleration;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return a read-only view of the geometries of the collection.
+     */
+    public List<Intersectable> getGeometries() {
+        return Collections.unmodifiableList(GeometryList);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the list of the geometries (not a copy, so it shouldn't be changed).
+     */
+    List<Intersectable> getMembers() {
+        return GeometryList;
+    }
+
+    /**
+     * Builds a flat copy of the geometries: the members of the nested collections (at any depth) are members
+     * of the copy themselves, in the order of a depth-first walk, so a single structure organizes all of them
+     * by the acceleration of this collection. The copy isn't changed by later changes of this collection.
+     * If there are no nested collections, the copy shares the hierarchy of this collection instead of
+     * building another one.
+     *
+     * @return the flat copy, with its acceleration structure built.
+     */
+    public Geometries flatten() {
+        List<Intersectable> members = new ArrayList<>(GeometryList.size());
+        boolean nested = collectMembers(members);
+        Geometries flat = new Geometries(members, acceleration);
+        if (!nested && acceleration == Acceleration.BVH) {
+            flat.setLayout(getLayout());
+        }
+        flat.getStructure();
+        return flat;
+    }
+
+    /**
+     * Adds the members of the geometries, and the members of the nested collections instead of the collections.
+     *
+     * @param members the list the members are added to.
+     * @return whether there were nested collections.
+     */
+    private boolean collectMembers(List<Intersectable> members) {
+        boolean nested = false;
+        for (var item : GeometryList) {
+            if (item instanceof Geometries collection) {
+                collection.collectMembers(members);
+                nested = true;
+            } else {
+                members.add(item);
+            }
+        }
+        return nested;
+    }
+
+    /**
+     * Returns the layout of the bounding volume hierarchy of the geometries, building it if needed.
+     *
+     * @return the layout, or null if the geometries aren't organized in a hierarchy.
+     */
+    BvhLayout getLayout() {
+        return getStructure() instanceof BoundingVolumeHierarchy hierarchy ? hierarchy.layout : null;
+    }
+
+    /**
+     * Sets the bounding volume hierarchy of the geometries from a layout that was built before
+     * over the same geometries, so it isn't built again (see {@link #getLayout()}).
+     *
+     * @param layout the layout of the hierarchy.
+     * @throws IllegalArgumentException if the geometries aren't organized in a hierarchy,
+     *                                  or the layout isn't of the amount of the bounded geometries.
+     */
+    synchronized void setLayout(BvhLayout layout) {
+        if (acceleration != Acceleration.BVH)
+            throw new IllegalArgumentException("Only the geometries of a hierarchy have a layout");
+        structure = new BoundingVolumeHierarchy(GeometryList, layout);
     }
 
+    /**
+     * Sets the counters of the intersection tests of the geometries (and of the geometries of the
+     * nested collections). It should be set before the rendering threads start.
+     *
+     * @param statistics the counters, or null for not counting the tests (default).
+     * @return the Geometries object with the updated counters.
+     */
+    public Geometries setStatistics(IntersectionStatistics statistics) {
+        this.statistics = statistics;
+        for (var item : GeometryList) {
+            if (item instanceof Geometries nested) {
+                nested.setStatistics(statistics);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the structure of the geometries, building it if the geometries were changed since the last build.
+     * The structure may be requested concurrently by several rendering threads, so it is built under a lock
+     * (a big hierarchy is built in parallel by the common fork/join pool anyway).
+     *
+     * @return the structure, or null if the geometries aren't accelerated.
+     */
+    private AccelerationStructure getStructure() {
+        if (acceleration == Acceleration.NONE) {
+            return null;
+        }
+        AccelerationStructure result = structure;
+        if (result == null) {
+            synchronized (this) {
+                result = structure;
+                if (result == null) {
+                    long start = System.nanoTime();
+                    structure = result = switch (acceleration) {
+                        case BOUNDS -> new BoundsCulling(GeometryList);
+                        case TYPED -> new TypeGrouping(GeometryList);
+                        default -> new BoundingVolumeHierarchy(GeometryList);
+                    };
+                    if (statistics != null) {
+                        statistics.addBuildTime(System.nanoTime() - start);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        AccelerationStructure accelerated = getStructure();
+        if (accelerated != null) {
+            return accelerated.getBoundingBox();
+        }
+        BoundingBox result = null;
+        for (var item : GeometryList) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null) {
+                return null;
+            }
+            result = result == null ? box : result.union(box);
+        }
+        return result;
+    }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        AccelerationStructure accelerated = getStructure();
+        if (accelerated != null) {
+            return accelerated.findGeoIntersections(ray, maxDistance, statistics);
+        }
         List<GeoPoint> result = null;
         for (var item : GeometryList) {
-            List<GeoPoint> itemList = item.findGeoIntersectionsHelper(ray, maxDistance);
+            List<GeoPoint> itemList = AccelerationStructure.findGeoIntersections(statistics, item, ray, maxDistance);
             if (itemList != null) {
                 if (result == null) {
                     result = new LinkedList<>(itemList);
@@ -57,4 +279,83 @@ public class Geometries extends Intersectable {
         }
         return result;
     }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        return findClosestHit(ray, maxDistance, hit, statistics);
+    }
+
+    /**
+     * Finds the closest intersection like {@link #findClosestHit(Ray, double, Hit)}, but counts the intersection
+     * tests of the members in the given counters instead of the counters of the collection (the nested collections
+     * still count by their own counters). A collection that is shared by renders that run at once is searched this
+     * way, so every render counts its own tests without changing the collection.
+     *
+     * @param ray         the ray.
+     * @param maxDistance the maximal distance of an intersection from the ray's head.
+     * @param hit         the record the closest intersection is written to (untouched if there are none).
+     * @param statistics  the counters of the tests, or null for not counting them.
+     * @return true if an intersection was found, false otherwise.
+     */
+    public boolean findClosestHit(Ray ray, double maxDistance, Hit hit, IntersectionStatistics statistics) {
+        AccelerationStructure accelerated = getStructure();
+        if (accelerated != null) {
+            return accelerated.findClosestHit(ray, maxDistance, hit, statistics);
+        }
+        boolean found = false;
+        for (var item : GeometryList) {
+            if (AccelerationStructure.findClosestHit(statistics, item, ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minTransparency) {
+        return accumulateTransparency(ray, maxDistance, ktr, minTransparency, statistics);
+    }
+
+    /**
+     * Calculates the transparency along a ray like {@link #findTransparency(Ray, double, double)}, but counts
+     * the intersection tests of the members in the given counters instead of the counters of the collection
+     * (see {@link #findClosestHit(Ray, double, Hit, IntersectionStatistics)}).
+     *
+     * @param ray             the ray.
+     * @param maxDistance     the maximal distance of an intersection from the ray's head.
+     * @param minTransparency the transparency below which the ray is considered fully blocked.
+     * @param statistics      the counters of the tests, or null for not counting them.
+     * @return the transparency along the ray, or {@link Double3#ZERO} if the ray is blocked.
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance, double minTransparency,
+                                    IntersectionStatistics statistics) {
+        return accumulateTransparency(ray, maxDistance, Double3.ONE, minTransparency, statistics);
+    }
+
+    /**
+     * Multiplies the transparency that was accumulated so far by the transparency of the geometries along a ray.
+     *
+     * @param ray             the ray.
+     * @param maxDistance     the maximal distance of an intersection from the ray's head.
+     * @param ktr             the transparency that was accumulated so far.
+     * @param minTransparency the transparency below which the ray is considered fully blocked.
+     * @param statistics      the counters of the tests of the members (may be null).
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the ray is blocked.
+     */
+    private Double3 accumulateTransparency(Ray ray, double maxDistance, Double3 ktr, double minTransparency,
+                                           IntersectionStatistics statistics) {
+        AccelerationStructure accelerated = getStructure();
+        if (accelerated != null) {
+            return accelerated.findTransparency(ray, maxDistance, ktr, minTransparency, statistics);
+        }
+        for (var item : GeometryList) {
+            ktr = AccelerationStructure.findTransparency(statistics, item, ray, maxDistance,
+                    ktr, minTransparency);
+            if (ktr == Double3.ZERO) {
+                return ktr;
+            }
+        }
+        return ktr;
+    }
 }
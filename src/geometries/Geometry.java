@@ -2,10 +2,14 @@
 package geometries;
 
 import primitives.Color;
+import primitives.Double3;
 import primitives.Material;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 /**
  * The Geometry interface represents a geometric shape in a three-dimensional space.
  * It provides methods for getting the normal vector of the shape at a specific point.
@@ -64,4 +68,51 @@ public abstract class Geometry extends Intersectable {
         this.material = material;
         return this;
     }
+
+    /****************************** Intersections *********************************************/
+
+    /**
+     * Calculates the distance from the ray's head to the closest intersection of the ray with the shape.
+     * Shapes override it with a calculation on plain numbers that creates no points and no lists;
+     * the default implementation picks the closest of the intersections list.
+     *
+     * @param ray         the ray to intersect with the shape.
+     * @param maxDistance the maximum allowed distance for an intersection point to be considered.
+     * @return the distance of the closest intersection, or positive infinity if there are no intersections.
+     */
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        Point p0 = ray.getP0();
+        double closest = Double.POSITIVE_INFINITY;
+        for (GeoPoint geo : intersections) {
+            closest = Math.min(closest, p0.distanceSquared(geo.point));
+        }
+        return Math.sqrt(closest);
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        double t = findClosestDistance(ray, maxDistance);
+        if (t == Double.POSITIVE_INFINITY) {
+            return false;
+        }
+        hit.t = t;
+        hit.geometry = this;
+        return true;
+    }
+
+    /**
+     * A geometry whose transparency is below the minimal one blocks the ray at any intersection,
+     * so only the existence of an intersection is checked for it.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minTransparency) {
+        if (getMaterial().getKt().lowerThan(minTransparency)) {
+            return findClosestDistance(ray, maxDistance) == Double.POSITIVE_INFINITY ? ktr : Double3.ZERO;
+        }
+        return super.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+    }
 }
@@ -0,0 +1,356 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a collection of geometries in a compact binary form and reads it back, for caching a prepared scene.
+ * The shapes are written by their defining numbers, the materials are written once in a table (equal materials
+ * are shared after reading), and the bounding volume hierarchies of the collections and of the triangle meshes
+ * are written as their flat arrays (see {@link BvhLayout}), so reading them back doesn't build them again.
+ * The shapes are built again by their constructors, which normalize the directions of the planes and the axes
+ * again, so their intersections may differ from the written ones in the last bits.
+ * <p>
+ * The numbers are written in big endian order, as {@link DataOutputStream} writes them and as a
+ * {@link ByteBuffer} (like a memory mapping of the file) reads them by default. The big arrays are read by
+ * bulk copies from the buffer.
+ */
+public final class GeometryCodec {
+    /**
+     * The kinds of the written geometries.
+     */
+    private static final byte GEOMETRIES = 0;
+    private static final byte SPHERE = 1;
+    private static final byte PLANE = 2;
+    private static final byte TRIANGLE = 3;
+    private static final byte POLYGON = 4;
+    private static final byte TUBE = 5;
+    private static final byte CYLINDER = 6;
+    private static final byte MESH = 7;
+    /**
+     * The amount of array elements that are converted to bytes at once.
+     */
+    private static final int CHUNK = 1 << 13;
+
+    private GeometryCodec() {
+    }
+
+    /**
+     * Writes a collection of geometries. The hierarchies of the collections are built if they weren't yet.
+     *
+     * @param geometries the collection.
+     * @param out        the stream to write to.
+     * @throws IllegalArgumentException if the collection has a kind of geometry that can't be written.
+     * @throws IOException              if the stream can't be written.
+     */
+    public static void write(Geometries geometries, DataOutputStream out) throws IOException {
+        Map<List<Object>, Integer> materials = new HashMap<>();
+        List<Material> table = new ArrayList<>();
+        collectMaterials(geometries, materials, table);
+        out.writeInt(table.size());
+        for (Material material : table) {
+            writeDouble3(out, material.getKd());
+            writeDouble3(out, material.getKs());
+            writeDouble3(out, material.getKt());
+            writeDouble3(out, material.getKr());
+            out.writeInt(material.getShininess());
+        }
+        writeIntersectable(out, geometries, materials);
+    }
+
+    /**
+     * Reads a collection of geometries that was written by {@link #write(Geometries, DataOutputStream)}.
+     *
+     * @param in the buffer to read from, at the position of the collection.
+     *           The position is moved to the end of the collection.
+     * @return the collection, with its hierarchies ready.
+     * @throws IOException if the content of the buffer isn't a valid collection.
+     */
+    public static Geometries read(ByteBuffer in) throws IOException {
+        try {
+            int count = readLength(in, 1);
+            Material[] materials = new Material[count];
+            for (int i = 0; i < count; i++) {
+                materials[i] = new Material().setKd(readDouble3(in)).setKs(readDouble3(in))
+                        .setKt(readDouble3(in)).setKr(readDouble3(in)).setShininess(in.getInt());
+            }
+            if (in.get() != GEOMETRIES)
+                throw new IOException("The written geometries don't begin with a collection");
+            return readGeometries(in, materials);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of the written geometries");
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid written geometries: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The key of a material in the table - its numbers (as boxed doubles, which are equal only if they are
+     * exactly the same).
+     */
+    private static List<Object> key(Material material) {
+        Double3 kd = material.getKd(), ks = material.getKs(), kt = material.getKt(), kr = material.getKr();
+        return List.of(kd.getD1(), kd.getD2(), kd.getD3(), ks.getD1(), ks.getD2(), ks.getD3(),
+                kt.getD1(), kt.getD2(), kt.getD3(), kr.getD1(), kr.getD2(), kr.getD3(), material.getShininess());
+    }
+
+    /**
+     * Gives an index to every distinct material of the geometries of a collection (and of the nested collections).
+     */
+    private static void collectMaterials(Geometries geometries, Map<List<Object>, Integer> materials,
+                                         List<Material> table) {
+        for (Intersectable item : geometries.getMembers()) {
+            if (item instanceof Geometries nested) {
+                collectMaterials(nested, materials, table);
+            } else if (item instanceof Geometry geometry) {
+                Material material = geometry.getMaterial();
+                if (materials.putIfAbsent(key(material), table.size()) == null) {
+                    table.add(material);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a member of a collection (or the collection itself): its kind, then for a collection its acceleration,
+     * its members and its hierarchy, and for a geometry its emission, the index of its material and its shape.
+     */
+    private static void writeIntersectable(DataOutputStream out, Intersectable item,
+                                           Map<List<Object>, Integer> materials) throws IOException {
+        if (item instanceof Geometries geometries) {
+            out.writeByte(GEOMETRIES);
+            out.writeByte(geometries.getAcceleration().ordinal());
+            List<Intersectable> members = geometries.getMembers();
+            out.writeInt(members.size());
+            for (Intersectable member : members) {
+                writeIntersectable(out, member, materials);
+            }
+            if (geometries.getAcceleration() == Geometries.Acceleration.BVH) {
+                writeLayout(out, geometries.getLayout());
+            }
+            return;
+        }
+        Class<?> type = item.getClass();
+        byte kind = type == Sphere.class ? SPHERE
+                : type == Plane.class ? PLANE
+                : type == Triangle.class ? TRIANGLE
+                : type == Polygon.class ? POLYGON
+                : type == Tube.class ? TUBE
+                : type == Cylinder.class ? CYLINDER
+                : type == TriangleMesh.class ? MESH
+                : -1;
+        if (kind < 0)
+            throw new IllegalArgumentException("Can't write a geometry of the type " + type.getName());
+        Geometry geometry = (Geometry) item;
+        out.writeByte(kind);
+        writeDouble3(out, geometry.getEmission().getRgb());
+        out.writeInt(materials.get(key(geometry.getMaterial())));
+        switch (kind) {
+            case SPHERE -> {
+                Sphere sphere = (Sphere) geometry;
+                out.writeDouble(sphere.radius);
+                writePoint(out, sphere.center);
+            }
+            case PLANE -> {
+                Plane plane = (Plane) geometry;
+                writePoint(out, plane.getP0());
+                writePoint(out, plane.getNormal());
+            }
+            case TRIANGLE, POLYGON -> {
+                List<Point> vertices = ((Polygon) geometry).vertices;
+                out.writeInt(vertices.size());
+                for (Point vertex : vertices) {
+                    writePoint(out, vertex);
+                }
+            }
+            case TUBE, CYLINDER -> {
+                Tube tube = (Tube) geometry;
+                out.writeDouble(tube.radius);
+                writePoint(out, tube.axisRay.getP0());
+                writePoint(out, tube.axisRay.getDir());
+                if (kind == CYLINDER) {
+                    out.writeDouble(((Cylinder) tube).getHeight());
+                }
+            }
+            default -> {
+                TriangleMesh mesh = (TriangleMesh) geometry;
+                writeDoubles(out, mesh.x);
+                writeDoubles(out, mesh.y);
+                writeDoubles(out, mesh.z);
+                writeInts(out, mesh.indices);
+                writeInts(out, mesh.faces);
+                writeLayout(out, mesh.layout);
+            }
+        }
+    }
+
+    /**
+     * Reads a collection, after its kind.
+     */
+    private static Geometries readGeometries(ByteBuffer in, Material[] materials) throws IOException {
+        Geometries.Acceleration[] accelerations = Geometries.Acceleration.values();
+        int acceleration = in.get();
+        if (acceleration < 0 || acceleration >= accelerations.length)
+            throw new IOException("Invalid acceleration of written geometries: " + acceleration);
+        int count = readLength(in, 1);
+        Intersectable[] members = new Intersectable[count];
+        for (int i = 0; i < count; i++) {
+            members[i] = readIntersectable(in, materials);
+        }
+        Geometries geometries = new Geometries(members).setAcceleration(accelerations[acceleration]);
+        if (geometries.getAcceleration() == Geometries.Acceleration.BVH) {
+            geometries.setLayout(readLayout(in));
+        }
+        return geometries;
+    }
+
+    /**
+     * Reads a member of a collection.
+     */
+    private static Intersectable readIntersectable(ByteBuffer in, Material[] materials) throws IOException {
+        byte kind = in.get();
+        if (kind == GEOMETRIES) {
+            return readGeometries(in, materials);
+        }
+        Double3 emission = readDouble3(in);
+        int material = in.getInt();
+        if (material < 0 || material >= materials.length)
+            throw new IOException("Invalid material of a written geometry: " + material);
+        Geometry geometry = switch (kind) {
+            case SPHERE -> {
+                double radius = in.getDouble();
+                yield new Sphere(radius, readPoint(in));
+            }
+            case PLANE -> new Plane(readPoint(in), readVector(in));
+            case TRIANGLE, POLYGON -> {
+                Point[] vertices = new Point[readLength(in, 24)];
+                for (int i = 0; i < vertices.length; i++) {
+                    vertices[i] = readPoint(in);
+                }
+                yield kind == TRIANGLE ? new Triangle(vertices) : new Polygon(vertices);
+            }
+            case TUBE, CYLINDER -> {
+                double radius = in.getDouble();
+                Ray axisRay = new Ray(readPoint(in), readVector(in));
+                yield kind == TUBE ? new Tube(radius, axisRay) : new Cylinder(radius, axisRay, in.getDouble());
+            }
+            case MESH -> new TriangleMesh(readDoubles(in), readDoubles(in), readDoubles(in), readInts(in),
+                    readInts(in), readLayout(in));
+            default -> throw new IOException("Invalid kind of a written geometry: " + kind);
+        };
+        return geometry.setEmission(new Color(emission.getD1(), emission.getD2(), emission.getD3()))
+                .setMaterial(materials[material]);
+    }
+
+    /**
+     * Writes the arrays of the layout of a hierarchy (its depth is calculated again when it is read).
+     */
+    private static void writeLayout(DataOutputStream out, BvhLayout layout) throws IOException {
+        writeDoubles(out, layout.bounds);
+        writeInts(out, layout.links);
+        writeInts(out, layout.order);
+    }
+
+    /**
+     * Reads the layout of a hierarchy.
+     */
+    private static BvhLayout readLayout(ByteBuffer in) {
+        return new BvhLayout(readDoubles(in), readInts(in), readInts(in));
+    }
+
+    private static void writeDouble3(DataOutputStream out, Double3 value) throws IOException {
+        out.writeDouble(value.getD1());
+        out.writeDouble(value.getD2());
+        out.writeDouble(value.getD3());
+    }
+
+    private static Double3 readDouble3(ByteBuffer in) {
+        return new Double3(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    private static void writePoint(DataOutputStream out, Point point) throws IOException {
+        out.writeDouble(point.getX());
+        out.writeDouble(point.getY());
+        out.writeDouble(point.getZ());
+    }
+
+    private static Point readPoint(ByteBuffer in) {
+        return new Point(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    private static Vector readVector(ByteBuffer in) {
+        return new Vector(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Writes an array with its length, converting a chunk of it to bytes at once.
+     */
+    private static void writeDoubles(DataOutputStream out, double[] array) throws IOException {
+        out.writeInt(array.length);
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK * Double.BYTES);
+        for (int offset = 0; offset < array.length; offset += CHUNK) {
+            int length = Math.min(CHUNK, array.length - offset);
+            chunk.asDoubleBuffer().put(array, offset, length);
+            out.write(chunk.array(), 0, length * Double.BYTES);
+        }
+    }
+
+    /**
+     * Writes an array with its length, converting a chunk of it to bytes at once.
+     */
+    private static void writeInts(DataOutputStream out, int[] array) throws IOException {
+        out.writeInt(array.length);
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK * Integer.BYTES);
+        for (int offset = 0; offset < array.length; offset += CHUNK) {
+            int length = Math.min(CHUNK, array.length - offset);
+            chunk.asIntBuffer().put(array, offset, length);
+            out.write(chunk.array(), 0, length * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Reads an array that was written with its length, by a bulk copy from the buffer.
+     */
+    private static double[] readDoubles(ByteBuffer in) {
+        double[] array = new double[readLength(in, Double.BYTES)];
+        in.asDoubleBuffer().get(array);
+        in.position(in.position() + array.length * Double.BYTES);
+        return array;
+    }
+
+    /**
+     * Reads an array that was written with its length, by a bulk copy from the buffer.
+     */
+    private static int[] readInts(ByteBuffer in) {
+        int[] array = new int[readLength(in, Integer.BYTES)];
+        in.asIntBuffer().get(array);
+        in.position(in.position() + array.length * Integer.BYTES);
+        return array;
+    }
+
+    /**
+     * Reads the length of an array, and checks that the rest of the buffer may hold it (so a damaged length
+     * doesn't allocate a huge array).
+     *
+     * @param size the smallest amount of bytes of an element.
+     */
+    private static int readLength(ByteBuffer in, int size) {
+        int length = in.getInt();
+        if (length < 0 || (long) length * size > in.remaining())
+            throw new BufferUnderflowException();
+        return length;
+    }
+}
@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
@@ -56,6 +57,164 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * Finds the intersection of a ray with the shape that is the closest to the ray's head.
+     *
+     * @param ray the ray to intersect with the shape.
+     * @return the closest intersection, or null if there are no intersections.
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the intersection of a ray with the shape that is the closest to the ray's head,
+     * up to a specified maximum distance.
+     *
+     * @param ray         the ray to intersect with the shape.
+     * @param maxDistance the maximum allowed distance for an intersection point to be considered.
+     * @return the closest intersection, or null if there are no intersections.
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        Hit hit = new Hit();
+        return findClosestHitHelper(ray, maxDistance, hit) ? hit.toGeoPoint(ray) : null;
+    }
+
+    /**
+     * Finds the intersection of a ray with the shape that is the closest to the ray's head,
+     * and writes its distance and geometry to a hit record that is owned (and may be reused) by the caller.
+     * No point is calculated, so a caller that needs the point builds it for the final hit only.
+     *
+     * @param ray         the ray to intersect with the shape.
+     * @param maxDistance the maximum allowed distance for an intersection point to be considered.
+     * @param hit         the record the closest intersection is written to (untouched if there are none).
+     * @return true if an intersection was found, false otherwise.
+     */
+    public final boolean findClosestHit(Ray ray, double maxDistance, Hit hit) {
+        return findClosestHitHelper(ray, maxDistance, hit);
+    }
+
+    /**
+     * Helper method for the closest intersection search. Collections override it to pass the distance of the
+     * closest hit that was found so far to the next members as their maximum distance, so farther members
+     * are rejected early. The default implementation picks the closest of the intersections list.
+     *
+     * @param ray         the ray to intersect with the shape.
+     * @param maxDistance the maximum allowed distance for an intersection point to be considered.
+     * @param hit         the record the closest intersection is written to (untouched if there are none).
+     * @return true if an intersection was found, false otherwise.
+     */
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) {
+            return false;
+        }
+        Point p0 = ray.getP0();
+        GeoPoint closest = null;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (GeoPoint geo : intersections) {
+            double distance = p0.distanceSquared(geo.point);
+            if (distance < closestDistance) {
+                closest = geo;
+                closestDistance = distance;
+            }
+        }
+        hit.t = Math.sqrt(closestDistance);
+        hit.geometry = closest.geometry;
+        return true;
+    }
+
+    /**
+     * Calculates the part of the light that passes along a ray up to a specified maximum distance
+     * (the occlusion query of shadow rays). The transparency coefficients (Kt) of the intersected geometries
+     * are multiplied as the intersections are found, and the search stops as soon as the product is lower
+     * than the minimal transparency - so a ray that hits an opaque geometry stops at the first hit.
+     *
+     * @param ray             the ray to intersect with the shape.
+     * @param maxDistance     the maximum allowed distance for an intersection point to be considered.
+     * @param minTransparency the transparency below which the ray is considered fully blocked.
+     * @return the transparency along the ray, or {@link Double3#ZERO} if the ray is blocked.
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, double minTransparency) {
+        return findTransparencyHelper(ray, maxDistance, Double3.ONE, minTransparency);
+    }
+
+    /**
+     * Helper method for the occlusion query - multiplies the transparency that was accumulated so far
+     * by the transparency coefficients of the shape's intersections with the ray.
+     * Collections override it to stop at the first member that blocks the ray.
+     *
+     * @param ray             the ray to intersect with the shape.
+     * @param maxDistance     the maximum allowed distance for an intersection point to be considered.
+     * @param ktr             the transparency that was accumulated so far.
+     * @param minTransparency the transparency below which the ray is considered fully blocked.
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the ray is blocked.
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minTransparency) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) {
+            return ktr;
+        }
+        for (GeoPoint geo : intersections) {
+            ktr = ktr.product(geo.geometry.getMaterial().getKt());
+            if (ktr.lowerThan(minTransparency)) {
+                return Double3.ZERO;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Returns the axis aligned box that contains the shape, so rays that miss the box
+     * can be rejected without calculating the exact intersections.
+     * Every shape must answer explicitly - infinite shapes (like planes and tubes) return null.
+     *
+     * @return the bounding box of the shape, or null if the shape is unbounded.
+     */
+    public abstract BoundingBox getBoundingBox();
+
+    /**
+     * Checks whether the shape is finite, i.e. it has a bounding box.
+     *
+     * @return true if the shape is bounded, false otherwise.
+     */
+    public boolean isBounded() {
+        return getBoundingBox() != null;
+    }
+
+    /**
+     * A mutable record of the closest intersection of a ray: its distance from the ray's head and the
+     * intersected geometry. The record is owned by the caller of the search and may be reused for many rays.
+     */
+    public static final class Hit {
+        /**
+         * The distance of the intersection from the ray's head (the ray's parameter t).
+         */
+        public double t;
+        /**
+         * The intersected geometry.
+         */
+        public Geometry geometry;
+
+        /**
+         * Builds the intersection point of the hit.
+         *
+         * @param ray the ray that was intersected.
+         * @return the intersection as a GeoPoint.
+         */
+        public GeoPoint toGeoPoint(Ray ray) {
+            return new GeoPoint(geometry, ray.getPoint(t));
+        }
+
+        @Override
+        public String toString() {
+            return "Hit{" +
+                    "t=" + t +
+                    ", geometry=" + geometry +
+                    '}';
+        }
+    }
+
     /**
      * Represents a geometric point on the shape.
      * Contains information about the intersected geometry and the intersection point.
@@ -0,0 +1,128 @@
+package geometries;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the intersection tests that are done during a render, per type of geometry.
+ * A test is a call of a single geometry's intersection calculation (the tests that a bounding box
+ * rejected aren't counted), and it is a hit if the geometry was intersected.
+ * The time of building the acceleration structures of the collections is counted as well.
+ * The counters are {@link LongAdder}s, so all the rendering threads may count at once without contention.
+ */
+public class IntersectionStatistics {
+    /**
+     * The counters of one type of geometry.
+     */
+    private static final class Counters {
+        final LongAdder tests = new LongAdder();
+        final LongAdder hits = new LongAdder();
+    }
+
+    private final Map<Class<?>, Counters> counters = new ConcurrentHashMap<>();
+    private final LongAdder buildTime = new LongAdder();
+
+    /**
+     * Fast lookup of the counters of a type, without hashing on every test.
+     */
+    private final ClassValue<Counters> byType = new ClassValue<>() {
+        @Override
+        protected Counters computeValue(Class<?> type) {
+            return counters.computeIfAbsent(type, t -> new Counters());
+        }
+    };
+
+    /**
+     * Counts an intersection test. The tests of a {@link Geometries} collection aren't counted,
+     * since they are counted by its members.
+     *
+     * @param geometry the tested geometry.
+     * @param hit      whether the geometry was intersected.
+     */
+    void count(Intersectable geometry, boolean hit) {
+        if (geometry instanceof Geometries) {
+            return;
+        }
+        Counters c = byType.get(geometry.getClass());
+        c.tests.increment();
+        if (hit) {
+            c.hits.increment();
+        }
+    }
+
+    /**
+     * Adds the time of building an acceleration structure.
+     *
+     * @param nanos the time in nanoseconds.
+     */
+    public void addBuildTime(long nanos) {
+        buildTime.add(nanos);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the time that was spent in building acceleration structures, in nanoseconds.
+     */
+    public long getBuildTime() {
+        return buildTime.sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the types of the geometries that were tested, sorted by their names.
+     */
+    public List<Class<?>> getTypes() {
+        return counters.keySet().stream().sorted(Comparator.comparing(Class::getSimpleName)).toList();
+    }
+
+    /**
+     * Getter.
+     *
+     * @param type the type of the geometries.
+     * @return the amount of intersection tests of geometries of the type.
+     */
+    public long getTests(Class<?> type) {
+        Counters c = counters.get(type);
+        return c == null ? 0 : c.tests.sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @param type the type of the geometries.
+     * @return the amount of intersection tests of geometries of the type that hit the geometry.
+     */
+    public long getHits(Class<?> type) {
+        Counters c = counters.get(type);
+        return c == null ? 0 : c.hits.sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of intersection tests of all the types.
+     */
+    public long getTests() {
+        long sum = 0;
+        for (Counters c : counters.values()) {
+            sum += c.tests.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Sets all the counters to zero (it shouldn't be called while geometries are counted).
+     */
+    public void reset() {
+        buildTime.reset();
+        for (Counters c : counters.values()) {
+            c.tests.reset();
+            c.hits.reset();
+        }
+    }
+}
@@ -78,6 +78,16 @@ public class Plane extends Geometry {
         return normal;
     }
 
+    /**
+     * A plane is infinite, so it has no bounding box.
+     *
+     * @return null
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         Point rayP0 = ray.getP0();
@@ -125,6 +135,32 @@ public class Plane extends Geometry {
 
         return null;
     }
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        // The same calculation as above, on the coordinates
+        Point rayP0 = ray.getP0();
+        Vector v = ray.getDir();
+        double dx = p0.getX() - rayP0.getX();
+        double dy = p0.getY() - rayP0.getY();
+        double dz = p0.getZ() - rayP0.getZ();
+
+        // check if the ray starts on the plane
+        if (isZero(dx) && isZero(dy) && isZero(dz)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double nP0Q0 = alignZero(dx * nx + dy * ny + dz * nz);
+        if (isZero(nP0Q0)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double nv = alignZero(v.getX() * nx + v.getY() * ny + v.getZ() * nz);
+        if (isZero(nv)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double t = alignZero(nP0Q0 / nv);
+        return t > 0 && alignZero(t - maxDistance) <= 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
     /**
      * retruns two normalized orthogonal vectors in the plane
      *
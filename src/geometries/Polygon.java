@@ -94,6 +94,11 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.of(vertices.toArray(new Point[0]));
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
         // Find the intersections between the Ray and the plane of the Polygon
@@ -134,4 +139,35 @@ public class Polygon extends Geometry {
         // Return the list of intersections between the Ray and the Polygon
         return List.of(new GeoPoint(this,result.get(0).point));
     }
-}
\ No newline at end of file
+
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        // The same calculation as above, on the coordinates
+        double t = plane.findClosestDistance(ray, maxDistance);
+        if (t == Double.POSITIVE_INFINITY) {
+            return t;
+        }
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+
+        // The edges are checked from the last one (last vertex to the first vertex),
+        // all the dot products must have the same sign
+        Point last = vertices.get(size - 1);
+        double ax = last.getX() - x, ay = last.getY() - y, az = last.getZ() - z;
+        double sign = 0;
+        for (Point vertex : vertices) {
+            double bx = vertex.getX() - x, by = vertex.getY() - y, bz = vertex.getZ() - z;
+            double s = alignZero(vx * (ay * bz - az * by) + vy * (az * bx - ax * bz) + vz * (ax * by - ay * bx));
+            if (s == 0 || s * sign < 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            sign = s;
+            ax = bx;
+            ay = by;
+            az = bz;
+        }
+        return t;
+    }
+}
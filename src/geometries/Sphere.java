@@ -53,6 +53,13 @@ public class Sphere extends RadialGeometry {
         return point.subtract(center).normalize();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(
+                center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance)
     {
@@ -117,6 +124,36 @@ public class Sphere extends RadialGeometry {
         return null;
     }
 
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        // The same calculation as above, on the coordinates
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double ux = center.getX() - p0.getX();
+        double uy = center.getY() - p0.getY();
+        double uz = center.getZ() - p0.getZ();
+
+        // The ray starts at the center of the sphere
+        if (isZero(ux) && isZero(uy) && isZero(uz)) {
+            return alignZero(radius - maxDistance) <= 0 ? radius : Double.POSITIVE_INFINITY;
+        }
+
+        double tm = alignZero(ux * v.getX() + uy * v.getY() + uz * v.getZ());
+        double dSquared = alignZero(ux * ux + uy * uy + uz * uz - tm * tm);
+        double thSquared = alignZero(radius * radius - dSquared);
+        if (thSquared <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double th = Math.sqrt(thSquared);
+        // The nearer point is the closest one if it is in front of the ray's head
+        double t2 = alignZero(tm - th);
+        if (t2 > 0) {
+            return alignZero(t2 - maxDistance) <= 0 ? t2 : Double.POSITIVE_INFINITY;
+        }
+        double t1 = alignZero(tm + th);
+        return t1 > 0 && alignZero(t1 - maxDistance) <= 0 ? t1 : Double.POSITIVE_INFINITY;
+    }
+
     /**
      * checks if point is in sphere
      * @param p the point
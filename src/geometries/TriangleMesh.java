@@ -0,0 +1,622 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * A mesh of triangles that share their vertices, for models with many triangles.
+ * The vertices are kept in flat arrays of coordinates (one array per axis) and the triangles in one array of
+ * vertex indices, 3 per triangle, so a triangle costs a few numbers instead of the points, the plane and the list
+ * of a {@link Triangle} object. For the intersections every triangle keeps a precomputed Möller–Trumbore kernel
+ * (its first vertex and its two edges), and the triangles are organized in an internal bounding volume hierarchy
+ * (see {@link BvhLayout}), so the mesh is a single member of a {@link Geometries} collection and of its
+ * acceleration structure.
+ * <p>
+ * All the triangles of the mesh have the emission and the material of the mesh. An intersection with the mesh
+ * is reported on a {@link Face} - a light view of a single triangle that knows its own normal. The normal of the
+ * mesh itself at a point is the normal of the triangle that the point is on.
+ * Like a {@link Triangle}, a triangle isn't intersected on its edges and vertices.
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * The amount of numbers in the kernel of a triangle: its first vertex and its two edges from that vertex.
+     */
+    private static final int KERNEL = 9;
+
+    final double[] x;
+    final double[] y;
+    final double[] z;
+    final int[] indices;
+    /**
+     * The kernels of the triangles in the order of the leaves of the hierarchy.
+     */
+    private final double[] kernels;
+    /**
+     * The index of every triangle of {@link #kernels} in {@link #indices} (divided by 3).
+     */
+    final int[] faces;
+    final BvhLayout layout;
+    private final BoundingBox box;
+
+    /**
+     * Constructs a mesh from the coordinates of its vertices and the vertex indices of its triangles.
+     * The arrays are kept by the mesh (they aren't copied), so they shouldn't be changed afterwards.
+     * Degenerate triangles (whose vertices are on one line) can't be intersected, so they are left out.
+     *
+     * @param x       the x coordinates of the vertices.
+     * @param y       the y coordinates of the vertices.
+     * @param z       the z coordinates of the vertices.
+     * @param indices the indices of the vertices of the triangles, 3 per triangle.
+     * @throws IllegalArgumentException if the coordinate arrays have different lengths, if the amount of indices
+     *                                  isn't a multiple of 3, if an index isn't the index of a vertex,
+     *                                  or if there are no (non-degenerate) triangles.
+     */
+    public TriangleMesh(double[] x, double[] y, double[] z, int[] indices) {
+        checkArrays(x, y, z, indices);
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.indices = indices;
+
+        // the boxes of the non-degenerate triangles
+        int triangles = indices.length / 3;
+        int[] valid = new int[triangles];
+        int count = 0;
+        for (int i = 0; i < triangles; i++) {
+            if (!isDegenerate(i)) {
+                valid[count++] = i;
+            }
+        }
+        if (count == 0)
+            throw new IllegalArgumentException("A mesh must have at least one non-degenerate triangle");
+        double[] bounds = new double[6 * count];
+        for (int i = 0; i < count; i++) {
+            int a = indices[3 * valid[i]], b = indices[3 * valid[i] + 1], c = indices[3 * valid[i] + 2];
+            bounds[6 * i] = Math.min(x[a], Math.min(x[b], x[c]));
+            bounds[6 * i + 1] = Math.min(y[a], Math.min(y[b], y[c]));
+            bounds[6 * i + 2] = Math.min(z[a], Math.min(z[b], z[c]));
+            bounds[6 * i + 3] = Math.max(x[a], Math.max(x[b], x[c]));
+            bounds[6 * i + 4] = Math.max(y[a], Math.max(y[b], y[c]));
+            bounds[6 * i + 5] = Math.max(z[a], Math.max(z[b], z[c]));
+        }
+        layout = new BvhLayout(bounds, true);
+        faces = new int[count];
+        for (int k = 0; k < count; k++) {
+            faces[k] = valid[layout.order[k]];
+        }
+        kernels = buildKernels();
+        double[] root = layout.bounds;
+        box = new BoundingBox(root[0], root[1], root[2], root[3], root[4], root[5]);
+    }
+
+    /**
+     * Restores a mesh with the hierarchy of its triangles that was built before (see {@link #faces}
+     * and {@link #layout}), without building it again.
+     *
+     * @param x       the x coordinates of the vertices.
+     * @param y       the y coordinates of the vertices.
+     * @param z       the z coordinates of the vertices.
+     * @param indices the indices of the vertices of the triangles, 3 per triangle.
+     * @param faces   the index of the triangle of every item of the hierarchy.
+     * @param layout  the layout of the hierarchy over the (non-degenerate) triangles.
+     * @throws IllegalArgumentException if the arrays aren't valid, or if the layout isn't of the faces.
+     */
+    TriangleMesh(double[] x, double[] y, double[] z, int[] indices, int[] faces, BvhLayout layout) {
+        checkArrays(x, y, z, indices);
+        if (faces.length == 0 || layout.order.length != faces.length)
+            throw new IllegalArgumentException("The layout isn't of the faces of the mesh");
+        for (int face : faces) {
+            if (face < 0 || face >= indices.length / 3)
+                throw new IllegalArgumentException("The face " + face + " is out of the mesh");
+        }
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.indices = indices;
+        this.faces = faces;
+        this.layout = layout;
+        kernels = buildKernels();
+        double[] root = layout.bounds;
+        box = new BoundingBox(root[0], root[1], root[2], root[3], root[4], root[5]);
+    }
+
+    /**
+     * Checks the arrays of a mesh (see {@link #TriangleMesh(double[], double[], double[], int[])}).
+     */
+    private static void checkArrays(double[] x, double[] y, double[] z, int[] indices) {
+        if (x.length != y.length || x.length != z.length)
+            throw new IllegalArgumentException("All the coordinate arrays of a mesh must have the same length");
+        if (indices.length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have 3 vertex indices per triangle");
+        for (int index : indices) {
+            if (index < 0 || index >= x.length)
+                throw new IllegalArgumentException("The vertex index " + index + " is out of the mesh");
+        }
+    }
+
+    /**
+     * Builds the kernels of the triangles in the order of the leaves, so a leaf reads consecutive numbers.
+     *
+     * @return the kernels.
+     */
+    private double[] buildKernels() {
+        double[] result = new double[KERNEL * faces.length];
+        for (int k = 0; k < faces.length; k++) {
+            int face = faces[k];
+            int a = indices[3 * face], b = indices[3 * face + 1], c = indices[3 * face + 2];
+            int i = KERNEL * k;
+            result[i] = x[a];
+            result[i + 1] = y[a];
+            result[i + 2] = z[a];
+            result[i + 3] = x[b] - x[a];
+            result[i + 4] = y[b] - y[a];
+            result[i + 5] = z[b] - z[a];
+            result[i + 6] = x[c] - x[a];
+            result[i + 7] = y[c] - y[a];
+            result[i + 8] = z[c] - z[a];
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the vertices of a triangle are on one line (as a {@link Triangle} of them couldn't be built).
+     *
+     * @param face the index of the triangle.
+     * @return true if the triangle has no area, false otherwise.
+     */
+    private boolean isDegenerate(int face) {
+        int a = indices[3 * face], b = indices[3 * face + 1], c = indices[3 * face + 2];
+        double e1x = x[b] - x[a], e1y = y[b] - y[a], e1z = z[b] - z[a];
+        double e2x = x[c] - x[a], e2y = y[c] - y[a], e2z = z[c] - z[a];
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return nx == 0 && ny == 0 && nz == 0;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of vertices of the mesh.
+     */
+    public int getVertexCount() {
+        return x.length;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of (non-degenerate) triangles of the mesh.
+     */
+    public int getTriangleCount() {
+        return faces.length;
+    }
+
+    /**
+     * Getter.
+     *
+     * @param index the index of the vertex.
+     * @return the vertex as a point.
+     */
+    public Point getVertex(int index) {
+        return new Point(x[index], y[index], z[index]);
+    }
+
+    /**
+     * Returns the normal of the triangle that the point is on (see {@link Face#getNormal(Point)}).
+     * The triangle is found through the hierarchy of the triangles, so only the triangles whose boxes
+     * contain the point are checked. The faces that the intersections are reported on know their triangle,
+     * so their normals are cheaper.
+     *
+     * @throws IllegalArgumentException if the point isn't on a triangle of the mesh.
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        int k = findFace(point);
+        if (k < 0)
+            throw new IllegalArgumentException("The point " + point + " isn't on the mesh");
+        return new Face(k).getNormal(point);
+    }
+
+    /**
+     * Finds the triangle that a point is on, up to {@link BoundingBox#TOLERANCE}. A point on an edge or a vertex
+     * is on several triangles, and the triangle whose plane is the closest to it is chosen.
+     *
+     * @param point the point.
+     * @return the index of the triangle in the kernels, or -1 if the point isn't on the mesh.
+     */
+    private int findFace(Point point) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        int[] links = layout.links;
+
+        int found = -1;
+        double closest = BoundingBox.TOLERANCE;
+        int[] stack = layout.stack().nodes;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!layout.contains(node, px, py, pz)) {
+                continue;
+            }
+            int count = links[2 * node + 1];
+            if (count > 0) {
+                int first = links[2 * node];
+                for (int k = first; k < first + count; k++) {
+                    double distance = distance(k, px, py, pz);
+                    if (distance <= closest) {
+                        closest = distance;
+                        found = k;
+                    }
+                }
+            } else {
+                stack[top++] = links[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Calculates the distance of a point from the plane of a triangle, if its projection on the plane is
+     * in the triangle (up to {@link BoundingBox#TOLERANCE} in barycentric coordinates).
+     *
+     * @param k the index of the triangle in the kernels.
+     * @return the distance, or positive infinity if the projection of the point is out of the triangle.
+     */
+    private double distance(int k, double px, double py, double pz) {
+        int i = KERNEL * k;
+        double e1x = kernels[i + 3], e1y = kernels[i + 4], e1z = kernels[i + 5];
+        double e2x = kernels[i + 6], e2y = kernels[i + 7], e2z = kernels[i + 8];
+        double wx = px - kernels[i], wy = py - kernels[i + 1], wz = pz - kernels[i + 2];
+        double d11 = e1x * e1x + e1y * e1y + e1z * e1z;
+        double d12 = e1x * e2x + e1y * e2y + e1z * e2z;
+        double d22 = e2x * e2x + e2y * e2y + e2z * e2z;
+        double dw1 = wx * e1x + wy * e1y + wz * e1z;
+        double dw2 = wx * e2x + wy * e2y + wz * e2z;
+        double denominator = d11 * d22 - d12 * d12;
+        double u = (d22 * dw1 - d12 * dw2) / denominator;
+        double v = (d11 * dw2 - d12 * dw1) / denominator;
+        if (u < -BoundingBox.TOLERANCE || v < -BoundingBox.TOLERANCE || u + v > 1 + BoundingBox.TOLERANCE) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return Math.abs(wx * nx + wy * ny + wz * nz) / Math.sqrt(nx * nx + ny * ny + nz * nz);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * Calculates the distance of the intersection of a ray with a triangle by the Möller–Trumbore algorithm,
+     * with the ray given by the coordinates of its head and of its direction.
+     *
+     * @param k the index of the triangle in the kernels.
+     * @return the distance, or positive infinity if the ray doesn't intersect the triangle up to maxDistance.
+     */
+    private double intersect(int k, double px, double py, double pz, double vx, double vy, double vz,
+                             double maxDistance) {
+        int i = KERNEL * k;
+        double e1x = kernels[i + 3], e1y = kernels[i + 4], e1z = kernels[i + 5];
+        double e2x = kernels[i + 6], e2y = kernels[i + 7], e2z = kernels[i + 8];
+        // the ray is parallel to the triangle if its direction is orthogonal to the normal
+        double hx = vy * e2z - vz * e2y, hy = vz * e2x - vx * e2z, hz = vx * e2y - vy * e2x;
+        double det = e1x * hx + e1y * hy + e1z * hz;
+        if (isZero(det)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double inverse = 1 / det;
+        // the barycentric coordinates of the intersection must be strictly inside the triangle
+        double sx = px - kernels[i], sy = py - kernels[i + 1], sz = pz - kernels[i + 2];
+        double u = (sx * hx + sy * hy + sz * hz) * inverse;
+        if (alignZero(u) <= 0 || alignZero(u - 1) >= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (vx * qx + vy * qy + vz * qz) * inverse;
+        if (alignZero(v) <= 0 || alignZero(u + v - 1) >= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        return t > 0 && alignZero(t - maxDistance) <= 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double px = p0.getX(), py = p0.getY(), pz = p0.getZ();
+        double vx = dir.getX(), vy = dir.getY(), vz = dir.getZ();
+        double invX = 1 / vx, invY = 1 / vy, invZ = 1 / vz;
+        int[] links = layout.links;
+
+        List<GeoPoint> result = null;
+        int[] stack = layout.stack().nodes;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (layout.entryDistance(node, px, py, pz, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int count = links[2 * node + 1];
+            if (count > 0) {
+                int first = links[2 * node];
+                for (int k = first; k < first + count; k++) {
+                    double t = intersect(k, px, py, pz, vx, vy, vz, maxDistance);
+                    if (t != Double.POSITIVE_INFINITY) {
+                        if (result == null) {
+                            result = new LinkedList<>();
+                        }
+                        result.add(new GeoPoint(new Face(k), ray.getPoint(t)));
+                    }
+                }
+            } else {
+                stack[top++] = links[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the closest intersected triangle, visiting the child box that the ray enters first before
+     * the other one (the same traversal as of {@link BoundingVolumeHierarchy}).
+     *
+     * @param hit a record the closest triangle is written to, or null if only the distance is needed.
+     * @return the distance of the closest intersection, or positive infinity if there are no intersections.
+     */
+    private double findClosest(Ray ray, double maxDistance, Hit hit) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double px = p0.getX(), py = p0.getY(), pz = p0.getZ();
+        double vx = dir.getX(), vy = dir.getY(), vz = dir.getZ();
+        double invX = 1 / vx, invY = 1 / vy, invZ = 1 / vz;
+        if (layout.entryDistance(0, px, py, pz, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int[] links = layout.links;
+
+        double closest = Double.POSITIVE_INFINITY;
+        int closestFace = -1;
+        BvhLayout.Stack stack = layout.stack();
+        int[] nodes = stack.nodes;
+        double[] entries = stack.entries;
+        int top = 0;
+        nodes[top] = 0;
+        entries[top++] = 0;
+        while (top > 0) {
+            --top;
+            if (entries[top] > maxDistance + BoundingBox.TOLERANCE) {
+                continue;
+            }
+            int node = nodes[top];
+            int count = links[2 * node + 1];
+            while (count == 0) {
+                int first = node + 1;
+                int second = links[2 * node];
+                double firstEntry = layout.entryDistance(first, px, py, pz, invX, invY, invZ, maxDistance);
+                double secondEntry = layout.entryDistance(second, px, py, pz, invX, invY, invZ, maxDistance);
+                if (secondEntry < firstEntry) {
+                    int tmp = first;
+                    first = second;
+                    second = tmp;
+                    double tmpEntry = firstEntry;
+                    firstEntry = secondEntry;
+                    secondEntry = tmpEntry;
+                }
+                if (secondEntry != Double.POSITIVE_INFINITY) {
+                    nodes[top] = second;
+                    entries[top++] = secondEntry;
+                }
+                if (firstEntry == Double.POSITIVE_INFINITY) {
+                    break;
+                }
+                node = first;
+                count = links[2 * node + 1];
+            }
+            if (count > 0) {
+                int first = links[2 * node];
+                for (int k = first; k < first + count; k++) {
+                    double t = intersect(k, px, py, pz, vx, vy, vz, maxDistance);
+                    if (t < closest) {
+                        closest = t;
+                        closestFace = k;
+                        maxDistance = t;
+                    }
+                }
+            }
+        }
+        if (hit != null && closestFace >= 0) {
+            hit.t = closest;
+            hit.geometry = new Face(closestFace);
+        }
+        return closest;
+    }
+
+    /**
+     * Checks whether a ray intersects any triangle - the traversal stops at the first intersection.
+     *
+     * @return true if an intersection was found up to maxDistance, false otherwise.
+     */
+    private boolean intersectsAny(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double px = p0.getX(), py = p0.getY(), pz = p0.getZ();
+        double vx = dir.getX(), vy = dir.getY(), vz = dir.getZ();
+        double invX = 1 / vx, invY = 1 / vy, invZ = 1 / vz;
+        int[] links = layout.links;
+
+        int[] stack = layout.stack().nodes;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (layout.entryDistance(node, px, py, pz, invX, invY, invZ, maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int count = links[2 * node + 1];
+            if (count > 0) {
+                int first = links[2 * node];
+                for (int k = first; k < first + count; k++) {
+                    if (intersect(k, px, py, pz, vx, vy, vz, maxDistance) != Double.POSITIVE_INFINITY) {
+                        return true;
+                    }
+                }
+            } else {
+                stack[top++] = links[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        return findClosest(ray, maxDistance, null);
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, Hit hit) {
+        return findClosest(ray, maxDistance, hit) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * An opaque mesh blocks the ray at any intersection, so the search stops at the first intersected triangle.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minTransparency) {
+        if (getMaterial().getKt().lowerThan(minTransparency)) {
+            return intersectsAny(ray, maxDistance) ? Double3.ZERO : ktr;
+        }
+        return super.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+    }
+
+    /**
+     * A single triangle of the mesh, as the geometry of an intersection.
+     * A face is a light view that is created for every intersection: it has the emission and the material
+     * of the mesh (setting them on a face sets them on the whole mesh) and the normal of its triangle.
+     * Two faces are equal if they are the same triangle of the same mesh.
+     */
+    public final class Face extends Geometry {
+        /**
+         * The index of the triangle in the kernels.
+         */
+        private final int k;
+
+        private Face(int k) {
+            this.k = k;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return the mesh of the face.
+         */
+        public TriangleMesh getMesh() {
+            return TriangleMesh.this;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return the index of the triangle in the vertex indices of the mesh (divided by 3).
+         */
+        public int getIndex() {
+            return faces[k];
+        }
+
+        @Override
+        public Color getEmission() {
+            return TriangleMesh.this.getEmission();
+        }
+
+        @Override
+        public Material getMaterial() {
+            return TriangleMesh.this.getMaterial();
+        }
+
+        /**
+         * Sets the emission of the mesh of the face, since all the triangles of a mesh share it.
+         *
+         * @param emission the emission color of the mesh.
+         * @return the face.
+         */
+        @Override
+        public Face setEmission(Color emission) {
+            TriangleMesh.this.setEmission(emission);
+            return this;
+        }
+
+        /**
+         * Sets the material of the mesh of the face, since all the triangles of a mesh share it.
+         *
+         * @param material the material of the mesh.
+         * @return the face.
+         */
+        @Override
+        public Face setMaterial(Material material) {
+            TriangleMesh.this.setMaterial(material);
+            return this;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            int i = KERNEL * k;
+            double e1x = kernels[i + 3], e1y = kernels[i + 4], e1z = kernels[i + 5];
+            double e2x = kernels[i + 6], e2y = kernels[i + 7], e2z = kernels[i + 8];
+            return new Vector(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).normalize();
+        }
+
+        @Override
+        public BoundingBox getBoundingBox() {
+            int i = KERNEL * k;
+            double ax = kernels[i], ay = kernels[i + 1], az = kernels[i + 2];
+            double bx = ax + kernels[i + 3], by = ay + kernels[i + 4], bz = az + kernels[i + 5];
+            double cx = ax + kernels[i + 6], cy = ay + kernels[i + 7], cz = az + kernels[i + 8];
+            return new BoundingBox(Math.min(ax, Math.min(bx, cx)), Math.min(ay, Math.min(by, cy)),
+                    Math.min(az, Math.min(bz, cz)), Math.max(ax, Math.max(bx, cx)), Math.max(ay, Math.max(by, cy)),
+                    Math.max(az, Math.max(bz, cz)));
+        }
+
+        @Override
+        protected double findClosestDistance(Ray ray, double maxDistance) {
+            Point p0 = ray.getP0();
+            Vector dir = ray.getDir();
+            return intersect(k, p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), maxDistance);
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            double t = findClosestDistance(ray, maxDistance);
+            return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            return o instanceof Face face && face.getMesh() == getMesh() && face.k == k;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getMesh(), k);
+        }
+
+        @Override
+        public String toString() {
+            return "Face{" + getIndex() + "}";
+        }
+    }
+}
@@ -64,6 +64,16 @@ public class Tube extends RadialGeometry {
         return n;
     }
 
+    /**
+     * A tube is infinite along its axis, so it has no bounding box.
+     *
+     * @return null
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
         Vector dir = ray.getDir();
@@ -0,0 +1,389 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the members of a {@link Geometries} collection in separate arrays by their concrete type
+ * (spheres, triangles, polygons, planes, tubes and cylinders), and tests a ray against every group in its own loop.
+ * Like with {@link BoundsCulling} every ray visits every geometry and is tested by the slab test before every
+ * bounded one, but the call of the intersection calculation in each loop always sees a single type, so the JIT
+ * compiler can inline the calculation of that type into the loop instead of dispatching a virtual call that sees
+ * all the types of a mixed scene at a single call site.
+ * The loops are written out one by one on purpose - a shared (generic) loop would be a single call site again.
+ * <p>
+ * A geometry is grouped only by its exact class (a cylinder isn't a tube here, and a triangle isn't a polygon);
+ * the geometries of other types (meshes, nested collections, subclasses) are kept in a group of their own.
+ */
+class TypeGrouping extends AccelerationStructure {
+    private final Sphere[] spheres;
+    private final Triangle[] triangles;
+    private final Polygon[] polygons;
+    private final Plane[] planes;
+    private final Tube[] tubes;
+    private final Cylinder[] cylinders;
+    private final Intersectable[] others;
+    /**
+     * The boxes of the spheres, the triangles, the polygons, the cylinders and the other geometries in this order,
+     * 6 coordinates per geometry (min x,y,z and max x,y,z), or NaN for the unbounded ones.
+     * Planes and tubes are infinite, so they have no boxes.
+     */
+    private final double[] bounds;
+    private final BoundingBox box;
+
+    /**
+     * Groups the given geometries by their types and calculates their boxes.
+     *
+     * @param geometries the geometries.
+     */
+    TypeGrouping(List<Intersectable> geometries) {
+        List<Sphere> sphereList = new ArrayList<>();
+        List<Triangle> triangleList = new ArrayList<>();
+        List<Polygon> polygonList = new ArrayList<>();
+        List<Plane> planeList = new ArrayList<>();
+        List<Tube> tubeList = new ArrayList<>();
+        List<Cylinder> cylinderList = new ArrayList<>();
+        List<Intersectable> otherList = new ArrayList<>();
+        BoundingBox all = null;
+        boolean unbounded = false;
+        for (Intersectable geometry : geometries) {
+            Class<?> type = geometry.getClass();
+            if (type == Sphere.class) {
+                sphereList.add((Sphere) geometry);
+            } else if (type == Triangle.class) {
+                triangleList.add((Triangle) geometry);
+            } else if (type == Polygon.class) {
+                polygonList.add((Polygon) geometry);
+            } else if (type == Plane.class) {
+                planeList.add((Plane) geometry);
+            } else if (type == Tube.class) {
+                tubeList.add((Tube) geometry);
+            } else if (type == Cylinder.class) {
+                cylinderList.add((Cylinder) geometry);
+            } else {
+                otherList.add(geometry);
+            }
+            BoundingBox b = geometry.getBoundingBox();
+            if (b == null) {
+                unbounded = true;
+            } else {
+                all = all == null ? b : all.union(b);
+            }
+        }
+        spheres = sphereList.toArray(new Sphere[0]);
+        triangles = triangleList.toArray(new Triangle[0]);
+        polygons = polygonList.toArray(new Polygon[0]);
+        planes = planeList.toArray(new Plane[0]);
+        tubes = tubeList.toArray(new Tube[0]);
+        cylinders = cylinderList.toArray(new Cylinder[0]);
+        others = otherList.toArray(new Intersectable[0]);
+        box = unbounded ? null : all;
+
+        List<Intersectable> bounded = new ArrayList<>(sphereList);
+        bounded.addAll(triangleList);
+        bounded.addAll(polygonList);
+        bounded.addAll(cylinderList);
+        bounded.addAll(otherList);
+        bounds = new double[6 * bounded.size()];
+        for (int i = 0; i < bounded.size(); i++) {
+            BoundingBox b = bounded.get(i).getBoundingBox();
+            if (b == null) {
+                bounds[6 * i] = Double.NaN;
+                continue;
+            }
+            bounds[6 * i] = b.minX;
+            bounds[6 * i + 1] = b.minY;
+            bounds[6 * i + 2] = b.minZ;
+            bounds[6 * i + 3] = b.maxX;
+            bounds[6 * i + 4] = b.maxY;
+            bounds[6 * i + 5] = b.maxZ;
+        }
+    }
+
+    @Override
+    BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * Checks whether a ray enters the box of a geometry before the maximal distance.
+     *
+     * @param b           the index of the first coordinate of the box in the bounds.
+     * @param x           the x coordinate of the ray's head.
+     * @param y           the y coordinate of the ray's head.
+     * @param z           the z coordinate of the ray's head.
+     * @param invX        the inverse of the x coordinate of the ray's direction.
+     * @param invY        the inverse of the y coordinate of the ray's direction.
+     * @param invZ        the inverse of the z coordinate of the ray's direction.
+     * @param maxDistance the maximal distance of an intersection from the ray's head.
+     * @return true if the ray enters the box, or if the geometry is unbounded.
+     */
+    private boolean enters(int b, double x, double y, double z, double invX, double invY, double invZ,
+                           double maxDistance) {
+        return Double.isNaN(bounds[b]) || BoundingBox.intersects(
+                bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+                x, y, z, invX, invY, invZ, maxDistance);
+    }
+
+    @Override
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, IntersectionStatistics statistics) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+        List<GeoPoint> result = null;
+        int b = 0;
+        for (Sphere sphere : spheres) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                List<GeoPoint> intersections = sphere.findGeoIntersectionsHelper(ray, maxDistance);
+                if (statistics != null) {
+                    statistics.count(sphere, intersections != null);
+                }
+                result = addAll(result, intersections);
+            }
+            b += 6;
+        }
+        for (Triangle triangle : triangles) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                List<GeoPoint> intersections = triangle.findGeoIntersectionsHelper(ray, maxDistance);
+                if (statistics != null) {
+                    statistics.count(triangle, intersections != null);
+                }
+                result = addAll(result, intersections);
+            }
+            b += 6;
+        }
+        for (Polygon polygon : polygons) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                List<GeoPoint> intersections = polygon.findGeoIntersectionsHelper(ray, maxDistance);
+                if (statistics != null) {
+                    statistics.count(polygon, intersections != null);
+                }
+                result = addAll(result, intersections);
+            }
+            b += 6;
+        }
+        for (Plane plane : planes) {
+            List<GeoPoint> intersections = plane.findGeoIntersectionsHelper(ray, maxDistance);
+            if (statistics != null) {
+                statistics.count(plane, intersections != null);
+            }
+            result = addAll(result, intersections);
+        }
+        for (Tube tube : tubes) {
+            List<GeoPoint> intersections = tube.findGeoIntersectionsHelper(ray, maxDistance);
+            if (statistics != null) {
+                statistics.count(tube, intersections != null);
+            }
+            result = addAll(result, intersections);
+        }
+        for (Cylinder cylinder : cylinders) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                List<GeoPoint> intersections = cylinder.findGeoIntersectionsHelper(ray, maxDistance);
+                if (statistics != null) {
+                    statistics.count(cylinder, intersections != null);
+                }
+                result = addAll(result, intersections);
+            }
+            b += 6;
+        }
+        for (Intersectable other : others) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                result = addAll(result, findGeoIntersections(statistics, other, ray, maxDistance));
+            }
+            b += 6;
+        }
+        return result;
+    }
+
+    @Override
+    boolean findClosestHit(Ray ray, double maxDistance, Hit hit, IntersectionStatistics statistics) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+        boolean found = false;
+        int b = 0;
+        for (Sphere sphere : spheres) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                boolean hitOne = sphere.findClosestHitHelper(ray, maxDistance, hit);
+                if (statistics != null) {
+                    statistics.count(sphere, hitOne);
+                }
+                if (hitOne) {
+                    found = true;
+                    maxDistance = hit.t;
+                }
+            }
+            b += 6;
+        }
+        for (Triangle triangle : triangles) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                boolean hitOne = triangle.findClosestHitHelper(ray, maxDistance, hit);
+                if (statistics != null) {
+                    statistics.count(triangle, hitOne);
+                }
+                if (hitOne) {
+                    found = true;
+                    maxDistance = hit.t;
+                }
+            }
+            b += 6;
+        }
+        for (Polygon polygon : polygons) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                boolean hitOne = polygon.findClosestHitHelper(ray, maxDistance, hit);
+                if (statistics != null) {
+                    statistics.count(polygon, hitOne);
+                }
+                if (hitOne) {
+                    found = true;
+                    maxDistance = hit.t;
+                }
+            }
+            b += 6;
+        }
+        for (Plane plane : planes) {
+            boolean hitOne = plane.findClosestHitHelper(ray, maxDistance, hit);
+            if (statistics != null) {
+                statistics.count(plane, hitOne);
+            }
+            if (hitOne) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        for (Tube tube : tubes) {
+            boolean hitOne = tube.findClosestHitHelper(ray, maxDistance, hit);
+            if (statistics != null) {
+                statistics.count(tube, hitOne);
+            }
+            if (hitOne) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        for (Cylinder cylinder : cylinders) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                boolean hitOne = cylinder.findClosestHitHelper(ray, maxDistance, hit);
+                if (statistics != null) {
+                    statistics.count(cylinder, hitOne);
+                }
+                if (hitOne) {
+                    found = true;
+                    maxDistance = hit.t;
+                }
+            }
+            b += 6;
+        }
+        for (Intersectable other : others) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                if (findClosestHit(statistics, other, ray, maxDistance, hit)) {
+                    found = true;
+                    maxDistance = hit.t;
+                }
+            }
+            b += 6;
+        }
+        return found;
+    }
+
+    @Override
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minTransparency,
+                             IntersectionStatistics statistics) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double x = p0.getX(), y = p0.getY(), z = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+        int b = 0;
+        for (Sphere sphere : spheres) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                Double3 result = sphere.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+                if (statistics != null) {
+                    statistics.count(sphere, result != ktr);
+                }
+                if (result == Double3.ZERO) {
+                    return result;
+                }
+                ktr = result;
+            }
+            b += 6;
+        }
+        for (Triangle triangle : triangles) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                Double3 result = triangle.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+                if (statistics != null) {
+                    statistics.count(triangle, result != ktr);
+                }
+                if (result == Double3.ZERO) {
+                    return result;
+                }
+                ktr = result;
+            }
+            b += 6;
+        }
+        for (Polygon polygon : polygons) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                Double3 result = polygon.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+                if (statistics != null) {
+                    statistics.count(polygon, result != ktr);
+                }
+                if (result == Double3.ZERO) {
+                    return result;
+                }
+                ktr = result;
+            }
+            b += 6;
+        }
+        for (Plane plane : planes) {
+            Double3 result = plane.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+            if (statistics != null) {
+                statistics.count(plane, result != ktr);
+            }
+            if (result == Double3.ZERO) {
+                return result;
+            }
+            ktr = result;
+        }
+        for (Tube tube : tubes) {
+            Double3 result = tube.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+            if (statistics != null) {
+                statistics.count(tube, result != ktr);
+            }
+            if (result == Double3.ZERO) {
+                return result;
+            }
+            ktr = result;
+        }
+        for (Cylinder cylinder : cylinders) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                Double3 result = cylinder.findTransparencyHelper(ray, maxDistance, ktr, minTransparency);
+                if (statistics != null) {
+                    statistics.count(cylinder, result != ktr);
+                }
+                if (result == Double3.ZERO) {
+                    return result;
+                }
+                ktr = result;
+            }
+            b += 6;
+        }
+        for (Intersectable other : others) {
+            if (enters(b, x, y, z, invX, invY, invZ, maxDistance)) {
+                ktr = findTransparency(statistics, other, ray, maxDistance, ktr, minTransparency);
+                if (ktr == Double3.ZERO) {
+                    return ktr;
+                }
+            }
+            b += 6;
+        }
+        return ktr;
+    }
+}
@@ -2,15 +2,6 @@ package jsonConverting;
 
 import renderer.ImageWriter;
 
-/**
- * Helper classes for JSON converting operations.
- */
-public class HelpersClasses {
-    public static ImageWriterOfJson imageWriter;
-    public static SceneOfJson sceneOfJson;
-
-}
-
 /**
  * Represents the JSON format of an ImageWriter.
  */
@@ -69,80 +60,3 @@ class ImageWriterOfJson {
         return nY;
     }
 }
-
-/**
- * Represents the JSON format of a Scene.
- */
-class SceneOfJson {
-    HelperScene scene;
-}
-
-/**
- * Represents the JSON format of a Scene with its properties.
- */
-class HelperScene {
-    String background;
-    HelperAmbientLight ambientLight;
-    HelperGeometryData geometryData;
-}
-
-/**
- * Represents the JSON format of an AmbientLight with its intensity.
- */
-class HelperAmbientLight {
-    String intensity;
-}
-
-/**
- * Represents the JSON format of GeometryData which
- * contains arrays of triangles, spheres, and planes.
- */
-class HelperGeometryData {
-    HelperTriangle[] triangles;
-    //HelperPolygon[] polygons;
-    HelperSphere[] spheres;
-    HelperPlane[] planes;
-    HelperCylinder[] cylinders;
-}
-
-/**
- * Represents the JSON format of a Triangle with its three points.
- */
-class HelperTriangle {
-    String p0;
-    String p1;
-    String p2;
-}
-
-/**
- * Represents the JSON format of a Sphere with its center and radius.
- */
-class HelperSphere {
-    String center;
-    String radius;
-}
-
-/**
- * Represents the JSON format of a Plane with its normal and a point on the plane.
- */
-class HelperPlane {
-    String normal;
-    String p0;
-}
-
-/**
- * Represents the JSON format of a Cylinder with its normal and a point on the plane.
- */
-class HelperCylinder{
-    String radius;
-    String height;
-    HelperRay axisRay;
-}
-
-/**
- * Helper class that represents a ray in cylinder.
- */
-class HelperRay{
-    String p0;
-    String dir;
-}
\ No newline at end of file
@@ -0,0 +1,859 @@
+package jsonConverting;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import geometries.Cylinder;
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import geometries.Tube;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import meshLoading.MeshLoader;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.RayTracerBasic;
+import renderer.RenderJob;
+import scene.CompiledScene;
+import scene.Scene;
+import scene.SceneCache;
+import scene.SceneMemoryCache;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a scene, or a complete render job, from a JSON file by streaming its tokens: every geometry and light
+ * is built as soon as its object is read, so no tree of the whole document is kept in memory. A reader holds
+ * only the state of one document, so scenes may be loaded concurrently by different threads.
+ * <p>
+ * The scene part is the format that {@link Convert#FromJsonToScene(String)} reads, with materials, emissions
+ * and lights added; a job adds the camera, the image and the rendering settings:
+ * <pre>
+ * {"scene": {
+ *     "name": "spheres",
+ *     "background": "75 127 190",
+ *     "ambientLight": {"intensity": "255 191 191", "ka": 0.1},
+ *     "materials": {"shiny": {"kd": 0.5, "ks": "0.5 0.4 0.3", "kt": 0, "kr": 0.2, "shininess": 60}},
+ *     "lights": {
+ *         "directional": [{"intensity": "100 100 100", "direction": "1 -1 -1"}],
+ *         "point": [{"intensity": "500 300 0", "position": "50 50 0", "kl": 0.0004, "kq": 0.00002,
+ *                    "size": 4, "samples": 100, "adaptiveShadow": true}],
+ *         "spot": [{"intensity": "500 300 0", "position": "50 50 0", "direction": "-1 -1 -2", "narrowBeam": 10}]
+ *     },
+ *     "geometryData": {
+ *         "spheres": [{"center": "0 0 -100", "radius": "50", "emission": "0 0 100", "material": "shiny"}],
+ *         "triangles": [{"p0": "-100 0 -100", "p1": "0 100 -100", "p2": "-100 100 -100",
+ *                        "material": {"kd": 0.8}}],
+ *         "polygons": [{"vertices": ["0 0 0", "1 0 0", "1 1 0", "0 1 0"]}],
+ *         "planes": [{"p0": "0 0 -200", "normal": "0 0 1"}],
+ *         "tubes": [{"radius": "5", "axisRay": {"p0": "0 0 0", "dir": "0 1 0"}}],
+ *         "cylinders": [{"radius": "5", "height": "20", "axisRay": {"p0": "0 0 0", "dir": "0 1 0"}}],
+ *         "meshes": [{"file": "models/bunny.ply", "material": "shiny"}]
+ *     }},
+ *  "camera": {"position": "0 0 1000", "to": "0 0 -1", "up": "0 1 0",
+ *             "viewPlane": {"width": 200, "height": 200, "distance": 1000}},
+ *  "image": {"name": "spheres", "nX": 500, "nY": 500},
+ *  "render": {"threads": 0, "tileSize": 16, "supersamplingDepth": 2, "supersamplingThreshold": 10, "heatmap": false}
+ * }
+ * </pre>
+ * A triad (a point, a vector or a color) is a string of 3 numbers separated by spaces, or an array of 3 numbers,
+ * and a number may be a JSON number or a string. A coefficient of a material may be a single number or a triad.
+ * A named material must be defined before the geometries that use it, and the files of the meshes are relative
+ * to the directory of the JSON file. The values that are left out have the defaults of the classes they set,
+ * and unknown names are skipped.
+ * <p>
+ * Instead of the scene object, a job may name a JSON scene file, relative to the directory of the job:
+ * {@code "scene": "scenes/room.json"}. Then jobs that render the same scene with different cameras may share it
+ * through a {@link SceneMemoryCache}, so it is loaded only once (see {@link #readJob(Path, SceneMemoryCache)}).
+ */
+public final class JsonSceneReader {
+    /**
+     * The emission and the material of a geometry, which are read with its shape.
+     */
+    private static final class Appearance {
+        Color emission;
+        Material material;
+
+        /**
+         * Sets the appearance that was read to a geometry.
+         */
+        Geometry applyTo(Geometry geometry) {
+            if (emission != null) {
+                geometry.setEmission(emission);
+            }
+            if (material != null) {
+                geometry.setMaterial(material);
+            }
+            return geometry;
+        }
+    }
+
+    private final JsonReader reader;
+    /**
+     * The directory the files of the meshes are relative to, or null for the working directory.
+     */
+    private final Path directory;
+    /**
+     * The named materials of the scene.
+     */
+    private final Map<String, Material> materials = new HashMap<>();
+    /**
+     * The cache of the scene files that jobs name, or null if they are always loaded.
+     */
+    private final SceneMemoryCache scenes;
+    private Scene scene;
+    /**
+     * The compiled scene, if the scene was taken from the cache of the scene files.
+     */
+    private CompiledScene compiledScene;
+    private Camera camera;
+    private ImageWriter imageWriter;
+    /**
+     * The rendering settings, which are set to the camera when the document ends (the camera may come after them).
+     */
+    private int threads = 1;
+    private int tileSize = 16;
+    private int supersamplingDepth = 0;
+    private double supersamplingThreshold = 10;
+    private boolean heatmap = false;
+
+    /**
+     * Constructs a reader of a document.
+     *
+     * @param in        the characters of the document (it isn't closed by the reader).
+     * @param directory the directory the files of the meshes and the scenes are relative to,
+     *                  or null for the working directory.
+     * @param scenes    the cache of the scene files, or null if they are always loaded.
+     */
+    private JsonSceneReader(Reader in, Path directory, SceneMemoryCache scenes) {
+        reader = new JsonReader(in);
+        this.directory = directory;
+        this.scenes = scenes;
+    }
+
+    /**
+     * Loads a scene from a JSON file (the rest of a job is skipped).
+     *
+     * @param path the path of the file.
+     * @param name the name of the scene, if the file doesn't name it.
+     * @return the scene.
+     * @throws IOException if the file can't be read or it isn't a valid scene.
+     */
+    public static Scene read(Path path, String name) throws IOException {
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return new JsonSceneReader(in, path.toAbsolutePath().getParent(), null).readDocument(name, false).scene;
+        }
+    }
+
+    /**
+     * Loads a scene from a JSON document (the rest of a job is skipped).
+     *
+     * @param in   the characters of the document (it isn't closed).
+     * @param name the name of the scene, if the document doesn't name it.
+     * @return the scene.
+     * @throws IOException if the document can't be read or it isn't a valid scene.
+     */
+    public static Scene read(Reader in, String name) throws IOException {
+        return new JsonSceneReader(in, null, null).readDocument(name, false).scene;
+    }
+
+    /**
+     * Loads a render job from a JSON file. The job is named by the file (without its extension).
+     *
+     * @param path the path of the file.
+     * @return the job, with a camera that is ready to render the scene.
+     * @throws IOException if the file can't be read or it isn't a valid job.
+     */
+    public static RenderJob readJob(Path path) throws IOException {
+        return readJob(path, null);
+    }
+
+    /**
+     * Loads a render job from a JSON file, taking the scene file that it names from a cache.
+     * The job is named by the file (without its extension).
+     *
+     * @param path   the path of the file.
+     * @param scenes the cache of the scene files, or null if they are always loaded.
+     * @return the job, with a camera that is ready to render the scene.
+     * @throws IOException if the file can't be read or it isn't a valid job.
+     */
+    public static RenderJob readJob(Path path, SceneMemoryCache scenes) throws IOException {
+        String name = baseName(path);
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return new JsonSceneReader(in, path.toAbsolutePath().getParent(), scenes)
+                    .readDocument(name, true).toJob(name);
+        }
+    }
+
+    /**
+     * Returns the name of a file without its extension.
+     */
+    private static String baseName(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Loads a render job from a JSON document.
+     *
+     * @param in   the characters of the document (it isn't closed).
+     * @param name the name of the job (and of the scene and the image, if the document doesn't name them).
+     * @return the job, with a camera that is ready to render the scene.
+     * @throws IOException if the document can't be read or it isn't a valid job.
+     */
+    public static RenderJob readJob(Reader in, String name) throws IOException {
+        return new JsonSceneReader(in, null, null).readDocument(name, true).toJob(name);
+    }
+
+    /**
+     * Reads the root object of the document.
+     *
+     * @param name the default name of the scene and the image.
+     * @param job  whether the document is a job, which may name a scene file instead of a scene object.
+     * @return the reader, with the parts of the document that were read.
+     */
+    private JsonSceneReader readDocument(String name, boolean job) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            try {
+                switch (reader.nextName()) {
+                    case "scene" -> {
+                        if (job && reader.peek() == JsonToken.STRING) {
+                            readSceneFile();
+                        } else {
+                            scene = readScene(name);
+                        }
+                    }
+                    case "camera" -> camera = readCamera();
+                    case "image" -> imageWriter = readImage(name);
+                    case "render" -> readRenderSettings();
+                    default -> reader.skipValue();
+                }
+            } catch (IllegalArgumentException e) {
+                // an object rejected its arguments (like the points of a triangle on one line)
+                throw error(e.getMessage());
+            } catch (IllegalStateException e) {
+                // a value of a wrong type, like a string instead of an object (the message tells the position)
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        reader.endObject();
+        if (reader.peek() != JsonToken.END_DOCUMENT)
+            throw error("Unexpected data after the root object");
+        if (scene == null)
+            throw new IOException("The JSON document has no scene");
+        return this;
+    }
+
+    /**
+     * Builds the job of the document.
+     */
+    private RenderJob toJob(String name) throws IOException {
+        if (camera == null || imageWriter == null)
+            throw new IOException("A JSON render job must have a camera and an image");
+        camera.setImageWriter(imageWriter)
+                .setRayTracer(compiledScene != null ? new RayTracerBasic(compiledScene) : new RayTracerBasic(scene))
+                .setThreads(threads)
+                .setTileSize(tileSize)
+                .setSupersamplingDepth(supersamplingDepth)
+                .setSupersamplingThreshold(supersamplingThreshold)
+                .setHeatmap(heatmap);
+        return new RenderJob(name, scene, camera);
+    }
+
+    /**
+     * Loads the scene file that a job names (compiled from the cache, if the reader has one).
+     * The scene is named by the file, if the file doesn't name it.
+     */
+    private void readSceneFile() throws IOException {
+        String file = reader.nextString();
+        Path path = directory == null ? Path.of(file) : directory.resolve(file);
+        SceneCache.Loader loader = source -> read(source, baseName(source));
+        if (scenes == null) {
+            scene = loader.load(path);
+        } else {
+            compiledScene = scenes.get(path, loader);
+            scene = compiledScene.getScene();
+        }
+    }
+
+    /**
+     * Reads the object of the scene.
+     */
+    private Scene readScene(String defaultName) throws IOException {
+        String name = defaultName;
+        Color background = null;
+        AmbientLight ambientLight = null;
+        List<LightSource> lights = new LinkedList<>();
+        Geometries geometries = new Geometries();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> name = reader.nextString();
+                case "background" -> background = readColor();
+                case "ambientLight" -> ambientLight = readAmbientLight();
+                case "materials" -> readMaterials();
+                case "lights" -> readLights(lights);
+                case "geometryData" -> readGeometryData(geometries);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        Scene.SceneBuilder builder = new Scene.SceneBuilder(name).setGeometries(geometries);
+        if (background != null) {
+            builder.setBackground(background);
+        }
+        if (ambientLight != null) {
+            builder.setAmbientLight(ambientLight);
+        }
+        return builder.build().setLights(lights);
+    }
+
+    /**
+     * Reads the object of the ambient light.
+     */
+    private AmbientLight readAmbientLight() throws IOException {
+        Color intensity = null;
+        Double3 ka = Double3.ONE;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "intensity" -> intensity = readColor();
+                case "ka" -> ka = readCoefficient();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return intensity == null ? AmbientLight.NONE : new AmbientLight(intensity, ka);
+    }
+
+    /**
+     * Reads the named materials.
+     */
+    private void readMaterials() throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            materials.put(name, readMaterialObject());
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Reads a material of a geometry: the name of a material, or a material object.
+     */
+    private Material readMaterial() throws IOException {
+        if (reader.peek() != JsonToken.STRING) {
+            return readMaterialObject();
+        }
+        String name = reader.nextString();
+        Material material = materials.get(name);
+        check(material != null, "Unknown material \"" + name + "\"");
+        return material;
+    }
+
+    private Material readMaterialObject() throws IOException {
+        Material material = new Material();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "kd" -> material.setKd(readCoefficient());
+                case "ks" -> material.setKs(readCoefficient());
+                case "kt" -> material.setKt(readCoefficient());
+                case "kr" -> material.setKr(readCoefficient());
+                case "shininess" -> material.setShininess(readInt());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return material;
+    }
+
+    /**
+     * Reads the arrays of the lights by their kinds.
+     */
+    private void readLights(List<LightSource> lights) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String kind = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                switch (kind) {
+                    case "directional" -> lights.add(readDirectionalLight());
+                    case "point" -> lights.add(readPointLight(false));
+                    case "spot" -> lights.add(readPointLight(true));
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+
+    private DirectionalLight readDirectionalLight() throws IOException {
+        Color intensity = null;
+        Vector direction = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "intensity" -> intensity = readColor();
+                case "direction" -> direction = readVector();
+                default -> reader.skipValue();
+            }
+        }
+        check(intensity != null && direction != null, "A directional light must have an intensity and a direction");
+        reader.endObject();
+        return new DirectionalLight(intensity, direction);
+    }
+
+    /**
+     * Reads a point light, or a spotlight (a point light with a direction).
+     */
+    private PointLight readPointLight(boolean spot) throws IOException {
+        Color intensity = null;
+        Point position = null;
+        Vector direction = null;
+        double kc = 1, kl = 0, kq = 0, narrowBeam = 1;
+        double size = Double.NaN;
+        int samples = 0;
+        boolean adaptiveShadow = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "intensity" -> intensity = readColor();
+                case "position" -> position = readPoint();
+                case "direction" -> direction = readVector();
+                case "kc" -> kc = readNumber();
+                case "kl" -> kl = readNumber();
+                case "kq" -> kq = readNumber();
+                case "size" -> size = readNumber();
+                case "samples" -> samples = readInt();
+                case "adaptiveShadow" -> adaptiveShadow = reader.nextBoolean();
+                case "narrowBeam" -> narrowBeam = readNumber();
+                default -> reader.skipValue();
+            }
+        }
+        check(intensity != null && position != null && (!spot || direction != null),
+                spot ? "A spotlight must have an intensity, a position and a direction"
+                        : "A point light must have an intensity and a position");
+        PointLight light = spot ? new SpotLight(intensity, position, direction).setNarrowBeam(narrowBeam)
+                : new PointLight(intensity, position);
+        light.setKc(kc).setKl(kl).setKq(kq).setAdaptiveShadow(adaptiveShadow);
+        if (!Double.isNaN(size)) {
+            light.setSize(size);
+        }
+        if (samples != 0) {
+            light.setSamples(samples);
+        }
+        reader.endObject();
+        return light;
+    }
+
+    /**
+     * Reads the arrays of the geometries by their kinds, adding every geometry as soon as it is read.
+     */
+    private void readGeometryData(Geometries geometries) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String kind = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Appearance appearance = new Appearance();
+                Geometry geometry = switch (kind) {
+                    case "spheres" -> readSphere(appearance);
+                    case "triangles" -> readTriangle(appearance);
+                    case "polygons" -> readPolygon(appearance);
+                    case "planes" -> readPlane(appearance);
+                    case "tubes" -> readTube(false, appearance);
+                    case "cylinders" -> readTube(true, appearance);
+                    case "meshes" -> readMesh(appearance);
+                    default -> {
+                        reader.skipValue();
+                        yield null;
+                    }
+                };
+                if (geometry != null) {
+                    geometries.add(appearance.applyTo(geometry));
+                }
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Reads a value of a geometry that isn't a part of its shape: its emission or its material.
+     * Other values are skipped.
+     */
+    private void readAppearance(String name, Appearance appearance) throws IOException {
+        switch (name) {
+            case "emission" -> appearance.emission = readColor();
+            case "material" -> appearance.material = readMaterial();
+            default -> reader.skipValue();
+        }
+    }
+
+    private Sphere readSphere(Appearance appearance) throws IOException {
+        Point center = null;
+        double radius = Double.NaN;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "center" -> center = readPoint();
+                case "radius" -> radius = readNumber();
+                default -> readAppearance(name, appearance);
+            }
+        }
+        check(center != null && !Double.isNaN(radius), "A sphere must have a center and a radius");
+        Sphere sphere = new Sphere(radius, center);
+        reader.endObject();
+        return sphere;
+    }
+
+    private Triangle readTriangle(Appearance appearance) throws IOException {
+        Point p0 = null, p1 = null, p2 = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "p0" -> p0 = readPoint();
+                case "p1" -> p1 = readPoint();
+                case "p2" -> p2 = readPoint();
+                default -> readAppearance(name, appearance);
+            }
+        }
+        check(p0 != null && p1 != null && p2 != null, "A triangle must have the points p0, p1 and p2");
+        Triangle triangle = new Triangle(p0, p1, p2);
+        reader.endObject();
+        return triangle;
+    }
+
+    private Polygon readPolygon(Appearance appearance) throws IOException {
+        List<Point> vertices = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("vertices")) {
+                vertices = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    vertices.add(readPoint());
+                }
+                reader.endArray();
+            } else {
+                readAppearance(name, appearance);
+            }
+        }
+        check(vertices != null, "A polygon must have vertices");
+        Polygon polygon = new Polygon(vertices.toArray(new Point[0]));
+        reader.endObject();
+        return polygon;
+    }
+
+    private Plane readPlane(Appearance appearance) throws IOException {
+        Point p0 = null;
+        Vector normal = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "p0" -> p0 = readPoint();
+                case "normal" -> normal = readVector();
+                default -> readAppearance(name, appearance);
+            }
+        }
+        check(p0 != null && normal != null, "A plane must have a point p0 and a normal");
+        Plane plane = new Plane(p0, normal);
+        reader.endObject();
+        return plane;
+    }
+
+    /**
+     * Reads a tube, or a cylinder (a tube with a height).
+     */
+    private Tube readTube(boolean cylinder, Appearance appearance) throws IOException {
+        double radius = Double.NaN, height = Double.NaN;
+        Ray axisRay = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "radius" -> radius = readNumber();
+                case "height" -> height = readNumber();
+                case "axisRay" -> axisRay = readRay();
+                default -> readAppearance(name, appearance);
+            }
+        }
+        check(!Double.isNaN(radius) && axisRay != null && (!cylinder || !Double.isNaN(height)),
+                cylinder ? "A cylinder must have a radius, an axis ray and a height"
+                        : "A tube must have a radius and an axis ray");
+        Tube tube = cylinder ? new Cylinder(radius, axisRay, height) : new Tube(radius, axisRay);
+        reader.endObject();
+        return tube;
+    }
+
+    /**
+     * Reads a mesh, which is loaded from its model file (see {@link MeshLoader#load(Path)}).
+     */
+    private Geometry readMesh(Appearance appearance) throws IOException {
+        String file = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("file")) {
+                file = reader.nextString();
+            } else {
+                readAppearance(name, appearance);
+            }
+        }
+        check(file != null, "A mesh must have a file");
+        Geometry mesh = MeshLoader.load(directory == null ? Path.of(file) : directory.resolve(file));
+        reader.endObject();
+        return mesh;
+    }
+
+    private Ray readRay() throws IOException {
+        Point p0 = null;
+        Vector dir = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "p0" -> p0 = readPoint();
+                case "dir" -> dir = readVector();
+                default -> reader.skipValue();
+            }
+        }
+        check(p0 != null && dir != null, "A ray must have a point p0 and a direction dir");
+        reader.endObject();
+        return new Ray(p0, dir);
+    }
+
+    /**
+     * Reads the position, the orientation and the view plane of the camera.
+     */
+    private Camera readCamera() throws IOException {
+        Point position = null;
+        Vector to = null, up = null;
+        double width = Double.NaN, height = Double.NaN, distance = Double.NaN;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "position" -> position = readPoint();
+                case "to" -> to = readVector();
+                case "up" -> up = readVector();
+                case "viewPlane" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "width" -> width = readNumber();
+                            case "height" -> height = readNumber();
+                            case "distance" -> distance = readNumber();
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        check(position != null && to != null && up != null, "A camera must have a position and to and up vectors");
+        check(width > 0 && height > 0 && distance > 0,
+                "A camera must have a view plane with a positive width, height and distance");
+        Camera result = new Camera(position, to, up).setVPSize(width, height).setVPDistance(distance);
+        reader.endObject();
+        return result;
+    }
+
+    /**
+     * Reads the name and the resolution of the image.
+     */
+    private ImageWriter readImage(String defaultName) throws IOException {
+        String name = defaultName;
+        int nX = 0, nY = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> name = reader.nextString();
+                case "nX" -> nX = readInt();
+                case "nY" -> nY = readInt();
+                default -> reader.skipValue();
+            }
+        }
+        check(nX > 0 && nY > 0, "An image must have a positive resolution nX and nY");
+        reader.endObject();
+        return new ImageWriter(name, nX, nY);
+    }
+
+    /**
+     * Reads the rendering settings (see the setters of {@link Camera}).
+     */
+    private void readRenderSettings() throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "threads" -> threads = readInt();
+                case "tileSize" -> tileSize = readInt();
+                case "supersamplingDepth" -> supersamplingDepth = readInt();
+                case "supersamplingThreshold" -> supersamplingThreshold = readNumber();
+                case "heatmap" -> heatmap = reader.nextBoolean();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private Point readPoint() throws IOException {
+        double[] triad = readTriad();
+        return new Point(triad[0], triad[1], triad[2]);
+    }
+
+    private Vector readVector() throws IOException {
+        double[] triad = readTriad();
+        check(triad[0] != 0 || triad[1] != 0 || triad[2] != 0, "A vector can't be zero");
+        return new Vector(triad[0], triad[1], triad[2]);
+    }
+
+    private Color readColor() throws IOException {
+        double[] triad = readTriad();
+        check(triad[0] >= 0 && triad[1] >= 0 && triad[2] >= 0, "A color can't be negative");
+        return new Color(triad[0], triad[1], triad[2]);
+    }
+
+    /**
+     * Reads a coefficient of a material: a single number for all the components, or a triad.
+     */
+    private Double3 readCoefficient() throws IOException {
+        double[] values = new double[3];
+        int count;
+        if (reader.peek() == JsonToken.STRING) {
+            count = scanNumbers(reader.nextString(), values);
+            check(count == 1 || count == 3, "A coefficient must be a number or a triad");
+        } else if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            values = readTriad();
+            count = 3;
+        } else {
+            values[0] = readNumber();
+            count = 1;
+        }
+        return count == 1 ? new Double3(values[0]) : new Double3(values[0], values[1], values[2]);
+    }
+
+    /**
+     * Reads a number, which may be written as a JSON number or as a string.
+     */
+    private double readNumber() throws IOException {
+        try {
+            return reader.nextDouble();
+        } catch (NumberFormatException e) {
+            throw error("Invalid number");
+        }
+    }
+
+    /**
+     * Reads an integer, which may be written as a JSON number or as a string.
+     */
+    private int readInt() throws IOException {
+        try {
+            return reader.nextInt();
+        } catch (NumberFormatException e) {
+            throw error("Invalid integer");
+        }
+    }
+
+    /**
+     * Reads 3 numbers: an array of 3 numbers, or a string of 3 numbers separated by white space.
+     */
+    private double[] readTriad() throws IOException {
+        double[] triad = new double[3];
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            for (int i = 0; i < 3; i++) {
+                check(reader.hasNext(), "A triad must have 3 numbers");
+                triad[i] = readNumber();
+            }
+            check(!reader.hasNext(), "A triad must have 3 numbers");
+            reader.endArray();
+            return triad;
+        }
+        check(scanNumbers(reader.nextString(), triad) == 3, "A triad must have 3 numbers");
+        return triad;
+    }
+
+    /**
+     * Scans a string of numbers separated by white space directly (it isn't split by a regular expression).
+     *
+     * @param text   the string.
+     * @param values the array the numbers are written to.
+     * @return the amount of numbers (more numbers than the array holds is a format error).
+     */
+    private int scanNumbers(String text, double[] values) throws IOException {
+        int length = text.length();
+        int count = 0;
+        int i = 0;
+        while (true) {
+            while (i < length && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                return count;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            check(count < values.length, "Too many numbers in \"" + text + "\"");
+            try {
+                values[count] = Double.parseDouble(text.substring(start, i));
+            } catch (NumberFormatException e) {
+                throw error("Invalid number in \"" + text + "\"");
+            }
+            check(Double.isFinite(values[count++]), "A number must be finite");
+        }
+    }
+
+    /**
+     * Checks a condition of the format.
+     */
+    private void check(boolean condition, String message) throws IOException {
+        if (!condition)
+            throw error(message);
+    }
+
+    /**
+     * Creates the exception of a format error at the current position of the document.
+     */
+    private IOException error(String message) {
+        return new IOException(message + " at " + reader.getPath() + " of the JSON scene");
+    }
+}
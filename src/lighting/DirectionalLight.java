@@ -24,6 +24,15 @@ public class DirectionalLight extends Light implements LightSource {
         this.direction = direction.normalize();
     }
 
+    /**
+     * Getter.
+     *
+     * @return the (normalized) direction of the light.
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
     @Override
     public Color getIntensity(Point point) {
         return getIntensity();
@@ -45,4 +45,18 @@ public interface LightSource {
      */
     public List<Vector> getLightVectors(Point p);//, int numOfPoints);
 
+    /**
+     * A few directions from the light source to a given point, from the center and from the rim of the light,
+     * that bound all the directions of {@link #getLightVectors(Point)}. If their rays agree (the point is lit
+     * from the whole light or from none of it), the point isn't in a penumbra and there is no need to trace
+     * the full beam (adaptive soft shadow).
+     *
+     * @param p the point of the geoPoint
+     * @return list of vectors, the first one from the center of the light,
+     * or null if the rays of the full beam should always be traced.
+     */
+    default List<Vector> getProbeVectors(Point p) {
+        return null;
+    }
+
     }
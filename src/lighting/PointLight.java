@@ -1,13 +1,11 @@
 package lighting;
 
-import geometries.Plane;
 import primitives.Color;
 import primitives.Point;
 import primitives.Vector;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 
 /**
@@ -16,15 +14,37 @@ import java.util.Random;
  */
 public class PointLight extends Light implements LightSource {
     /**
-     * The size of the plane that I generate vectors from (for soft shadow).
+     * The default amount of light directions in the beam of a light (for soft shadow).
      */
-    public double SIZE = 4;
-    private final Random rand = new Random();
+    private static final int DEFAULT_SAMPLES = 1000;
+    /**
+     * The amount of rays from the rim of the light that are traced before the full beam (for adaptive soft shadow).
+     */
+    private static final int RIM_PROBES = 8;
+    /**
+     * The points on the rim of the unit disk that the probe rays come from, as pairs of (x, y) coordinates.
+     */
+    private static final double[] RIM_PATTERN = circlePattern(RIM_PROBES);
+    /**
+     * The golden angle, the rotation between consecutive points of the sample pattern.
+     */
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
     private Point position;
     private double Kc = 1;
     private double Kl = 0;
     private double Kq = 0;
-    private List<Point> points = null;
+    /**
+     * The radius of the disk that the light's beam comes from (for soft shadow), 0 for a hard shadow.
+     */
+    private double size = 4;
+    /**
+     * The points of the light's beam on the unit disk, as pairs of (x, y) coordinates.
+     * The array is never changed, so it may be shared by all the rendering threads,
+     * and it is oriented towards every receiver point and scaled by the size when the beam is built.
+     */
+    private double[] samples = diskPattern(DEFAULT_SAMPLES);
+    private boolean adaptiveShadow = false;
 
     /**
      * Constructs a PointLight object with the given intensity and position.
@@ -70,6 +90,109 @@ public class PointLight extends Light implements LightSource {
         return this;
     }
 
+    /**
+     * Sets the radius of the disk that the light's beam comes from (for soft shadow).
+     *
+     * @param size the radius, 0 for a hard shadow (4 by default).
+     * @return the PointLight object.
+     * @throws IllegalArgumentException if the size is negative.
+     */
+    public PointLight setSize(double size) {
+        if (size < 0)
+            throw new IllegalArgumentException("The size of a light can't be negative");
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * Sets the amount of light directions in the beam of the light (for soft shadow).
+     *
+     * @param samples the amount of directions (1000 by default).
+     * @return the PointLight object.
+     * @throws IllegalArgumentException if the amount isn't positive.
+     */
+    public PointLight setSamples(int samples) {
+        if (samples < 1)
+            throw new IllegalArgumentException("A light must have at least one sample");
+        this.samples = diskPattern(samples);
+        return this;
+    }
+
+    /**
+     * Sets the adaptive soft shadow mode. In this mode a few rays from the center and the rim of the light
+     * are traced first, and the full beam is traced only if they disagree (in the penumbra).
+     *
+     * @param adaptiveShadow true for the adaptive soft shadow, false for tracing the full beam everywhere (default).
+     * @return the PointLight object.
+     */
+    public PointLight setAdaptiveShadow(boolean adaptiveShadow) {
+        this.adaptiveShadow = adaptiveShadow;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the position of the light.
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the constant attenuation factor of the light.
+     */
+    public double getKc() {
+        return Kc;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the linear attenuation factor of the light.
+     */
+    public double getKl() {
+        return Kl;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the quadratic attenuation factor of the light.
+     */
+    public double getKq() {
+        return Kq;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the radius of the disk that the light's beam comes from, 0 for a hard shadow.
+     */
+    public double getSize() {
+        return size;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of light directions in the beam of the light.
+     */
+    public int getSamples() {
+        return samples.length / 2;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return true if the light is in the adaptive soft shadow mode, false otherwise.
+     */
+    public boolean isAdaptiveShadow() {
+        return adaptiveShadow;
+    }
+
     @Override
     public Color getIntensity(Point point) {
         Color Ic = getIntensity();
@@ -131,45 +254,88 @@ public class PointLight extends Light implements LightSource {
         vectors.add(getL(p));
         return vectors;
     }*/
+    @Override
+    public List<Vector> getLightVectors(Point p) {
+        if (size == 0) {
+            Vector l = getL(p);
+            return l == null ? List.of() : List.of(l);
+        }
+        return beam(p, samples, false);
+    }
+
+    @Override
+    public List<Vector> getProbeVectors(Point p) {
+        if (!adaptiveShadow || size == 0) return null;
+        return beam(p, RIM_PATTERN, true);
+    }
+
     /**
-     * Get the array of points that will cast shadow rays
+     * Builds the directions from points of the light to a receiver point. The points are taken from a pattern
+     * on the unit disk, which is scaled by the size of the light and turned to face the receiver.
      *
-     * @return The array of point
+     * @param p          the receiver point.
+     * @param pattern    the points on the unit disk, as pairs of (x, y) coordinates.
+     * @param withCenter whether the direction from the center of the light is added first.
+     * @return list of vectors, empty if the receiver is at the light's position.
      */
-    public List<Point> getPoints(Point p, int numOfPoints) {
-        if (SIZE == 0) return null;
-        if (this.points != null)
-            return this.points;
-        Point[] points = new Point[numOfPoints];
-        Vector to = p.subtract(position).normalize();
+    private List<Vector> beam(Point p, double[] pattern, boolean withCenter) {
+        Vector to = getL(p);
+        if (to == null) return List.of();
         Vector vX = to.getOrthogonal().normalize();
-        Vector vY = vX.crossProduct(to).normalize();
-        double x, y, radius;
-        for (int i = 0; i < numOfPoints; i += 4) {
-            radius = rand.nextDouble(SIZE) + 0.1;
-            x = rand.nextDouble(radius) + 0.1;
-            y = radius * radius - x * x;//getCircleScale(x, radius);
-            for (int j = 0; j < 4; j++) {
-                //in this part we mirror the point we got 4 times, to each quarter of the grid
-                points[i + j]= position.add(vX.scale(j % 2 == 0 ? x : -x)).add(vY.scale((j <= 1 ? -y : y)));
-            }
+        Vector vY = vX.crossProduct(to);
+
+        // The vector from a point of the disk to the receiver is (p - position) - (a * vX + b * vY)
+        double dx = p.getX() - position.getX(), dy = p.getY() - position.getY(), dz = p.getZ() - position.getZ();
+        double xX = vX.getX() * size, xY = vX.getY() * size, xZ = vX.getZ() * size;
+        double yX = vY.getX() * size, yY = vY.getY() * size, yZ = vY.getZ() * size;
+
+        List<Vector> vectors = new ArrayList<>(pattern.length / 2 + 1);
+        if (withCenter) {
+            vectors.add(to);
         }
-        List<Point> np = new LinkedList<>();
-        for (int i = 0; i<points.length; i++){
-            np.add(points[i]);
+        for (int i = 0; i < pattern.length; i += 2) {
+            double a = pattern[i], b = pattern[i + 1];
+            double x = dx - a * xX - b * yX;
+            double y = dy - a * xY - b * yY;
+            double z = dz - a * xZ - b * yZ;
+            double length = Math.sqrt(x * x + y * y + z * z);
+            vectors.add(new Vector(x / length, y / length, z / length));
         }
-        this.points = np;
-        return np;
+        return vectors;
     }
-    @Override
-    public List<Vector> getLightVectors(Point p) {
-        List<Vector> lstVec = new LinkedList<>();
-        if(points == null){
-            getPoints(p, 1000);
+
+    /**
+     * Spreads points evenly on the unit disk (Vogel's spiral - every point is rotated by the golden angle
+     * from the previous one, and its distance from the center grows with the square root of its index).
+     * The pattern is deterministic, so renders of the same scene are identical.
+     *
+     * @param amount the amount of points.
+     * @return the points as pairs of (x, y) coordinates.
+     */
+    private static double[] diskPattern(int amount) {
+        double[] pattern = new double[2 * amount];
+        for (int i = 0; i < amount; i++) {
+            double radius = Math.sqrt((i + 0.5) / amount);
+            double angle = i * GOLDEN_ANGLE;
+            pattern[2 * i] = radius * Math.cos(angle);
+            pattern[2 * i + 1] = radius * Math.sin(angle);
         }
-        for (var po: points) {
-            lstVec.add(p.subtract(po).normalize());
+        return pattern;
+    }
+
+    /**
+     * Spreads points evenly on the unit circle.
+     *
+     * @param amount the amount of points.
+     * @return the points as pairs of (x, y) coordinates.
+     */
+    private static double[] circlePattern(int amount) {
+        double[] pattern = new double[2 * amount];
+        for (int i = 0; i < amount; i++) {
+            double angle = 2 * Math.PI * i / amount;
+            pattern[2 * i] = Math.cos(angle);
+            pattern[2 * i + 1] = Math.sin(angle);
         }
-        return lstVec;
+        return pattern;
     }
 }
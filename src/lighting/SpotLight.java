@@ -68,5 +68,23 @@ public class SpotLight extends PointLight {
         return this;
     }
 
+    /**
+     * Getter.
+     *
+     * @return the (normalized) direction of the spotlight.
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the narrow beam factor of the spotlight.
+     */
+    public double getNarrowBeam() {
+        return narrowBeam;
+    }
+
 
 }
@@ -0,0 +1,114 @@
+package meshLoading;
+
+import geometries.TriangleMesh;
+
+import java.util.Arrays;
+
+/**
+ * The growing arrays a mesh is loaded into: the coordinates of the vertices, one array per axis,
+ * and the vertex indices of the triangles. The arrays grow by half of their size when they are full,
+ * and they are trimmed once when the mesh is built.
+ */
+final class MeshBuffer {
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private int vertices;
+    private int[] indices;
+    private int indexCount;
+
+    /**
+     * Constructs an empty buffer.
+     *
+     * @param vertexCapacity   the expected amount of vertices.
+     * @param triangleCapacity the expected amount of triangles.
+     */
+    MeshBuffer(int vertexCapacity, int triangleCapacity) {
+        int capacity = Math.max(16, vertexCapacity);
+        x = new double[capacity];
+        y = new double[capacity];
+        z = new double[capacity];
+        indices = new int[3 * Math.max(16, triangleCapacity)];
+    }
+
+    /**
+     * Adds a vertex.
+     */
+    void addVertex(double vx, double vy, double vz) {
+        if (vertices == x.length) {
+            int capacity = grow(x.length);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            z = Arrays.copyOf(z, capacity);
+        }
+        x[vertices] = vx;
+        y[vertices] = vy;
+        z[vertices] = vz;
+        vertices++;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of vertices that were added.
+     */
+    int getVertexCount() {
+        return vertices;
+    }
+
+    /**
+     * Adds a triangle.
+     *
+     * @param a the index of the first vertex.
+     * @param b the index of the second vertex.
+     * @param c the index of the third vertex.
+     */
+    void addTriangle(int a, int b, int c) {
+        if (indexCount + 3 > indices.length) {
+            indices = Arrays.copyOf(indices, grow(indices.length));
+        }
+        indices[indexCount++] = a;
+        indices[indexCount++] = b;
+        indices[indexCount++] = c;
+    }
+
+    /**
+     * Adds a convex polygon as a fan of triangles around its first vertex.
+     *
+     * @param polygon the indices of the vertices of the polygon.
+     * @param size    the amount of vertices of the polygon.
+     */
+    void addPolygon(int[] polygon, int size) {
+        for (int i = 2; i < size; i++) {
+            addTriangle(polygon[0], polygon[i - 1], polygon[i]);
+        }
+    }
+
+    /**
+     * Builds the mesh of the loaded triangles.
+     *
+     * @return the mesh.
+     * @throws IllegalArgumentException if there are no (non-degenerate) triangles.
+     */
+    TriangleMesh build() {
+        return new TriangleMesh(trim(x), trim(y), trim(z),
+                indexCount == indices.length ? indices : Arrays.copyOf(indices, indexCount));
+    }
+
+    private double[] trim(double[] coordinates) {
+        return vertices == coordinates.length ? coordinates : Arrays.copyOf(coordinates, vertices);
+    }
+
+    /**
+     * Calculates the new capacity of a full array.
+     */
+    private static int grow(int capacity) {
+        int grown = capacity + (capacity >> 1);
+        if (grown < 0 || grown > Integer.MAX_VALUE - 8) {
+            if (capacity == Integer.MAX_VALUE - 8)
+                throw new OutOfMemoryError("The mesh is too big");
+            return Integer.MAX_VALUE - 8;
+        }
+        return grown;
+    }
+}
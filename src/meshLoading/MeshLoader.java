@@ -0,0 +1,77 @@
+package meshLoading;
+
+import geometries.TriangleMesh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Loads triangle meshes from model files: Wavefront OBJ files and binary PLY files.
+ * The files are streamed and the vertices and the triangles are read straight into the primitive arrays
+ * of a {@link TriangleMesh}, without a point object per vertex, so the extra memory of the loading
+ * is bounded by the size of the mesh itself.
+ */
+public class MeshLoader {
+    private MeshLoader() {
+    }
+
+    /**
+     * Loads a mesh from a file by the extension of its name ({@code .obj} or {@code .ply}).
+     *
+     * @param path the path of the file.
+     * @return the loaded mesh.
+     * @throws IllegalArgumentException if the extension isn't of a supported format,
+     *                                  or the file has no (non-degenerate) triangles.
+     * @throws IOException              if the file can't be read or its content is invalid.
+     */
+    public static TriangleMesh load(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".obj")) {
+            return loadObj(path);
+        }
+        if (name.endsWith(".ply")) {
+            return loadPly(path);
+        }
+        throw new IllegalArgumentException("Unknown mesh format: " + path);
+    }
+
+    /**
+     * Loads a mesh from a Wavefront OBJ file.
+     * Only the vertices and the faces are read, and a face with more than 3 vertices is split into triangles.
+     *
+     * @param path the path of the file.
+     * @return the loaded mesh.
+     * @throws IllegalArgumentException if the file has no (non-degenerate) triangles.
+     * @throws IOException              if the file can't be read or its content is invalid.
+     */
+    public static TriangleMesh loadObj(Path path) throws IOException {
+        // a rough estimate of the vertices by the size of the file saves most of the growing
+        long estimate = Math.min(Files.size(path) / 64, Integer.MAX_VALUE / 4);
+        MeshBuffer mesh = new MeshBuffer((int) estimate, (int) (2 * estimate));
+        try (InputStream in = Files.newInputStream(path)) {
+            new ObjReader(in).read(mesh);
+        }
+        return mesh.build();
+    }
+
+    /**
+     * Loads a mesh from a binary (little or big endian) PLY file, through a memory mapping of the file.
+     * Only the coordinates of the vertices and the vertex indices of the faces are read.
+     *
+     * @param path the path of the file.
+     * @return the loaded mesh.
+     * @throws IllegalArgumentException if the file has no (non-degenerate) triangles.
+     * @throws IOException              if the file can't be read, it is an ASCII PLY file,
+     *                                  or its content is invalid.
+     */
+    public static TriangleMesh loadPly(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new PlyReader(channel).read().build();
+        }
+    }
+}
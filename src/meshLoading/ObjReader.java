@@ -0,0 +1,267 @@
+package meshLoading;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the triangles of a Wavefront OBJ file.
+ * The file is read line after line into one reused byte buffer and the numbers are parsed from the bytes,
+ * so no strings or points are created per vertex. Only the vertices ({@code v}) and the faces ({@code f})
+ * are read - texture coordinates, normals, groups and materials are ignored. A face with more than 3 vertices
+ * is split into a fan of triangles, and negative (relative) vertex references are supported.
+ */
+final class ObjReader {
+    /**
+     * The size of the blocks the file is read in.
+     */
+    private static final int BLOCK = 1 << 16;
+    /**
+     * The powers of 10 that are exact doubles.
+     */
+    private static final double[] POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;
+    private final byte[] block = new byte[BLOCK];
+    private int blockPosition;
+    private int blockSize;
+    /**
+     * The current line (without the line break) and its length.
+     */
+    private byte[] line = new byte[256];
+    private int length;
+    /**
+     * The position of the parser in the current line.
+     */
+    private int position;
+    private long lineNumber;
+    private int[] polygon = new int[16];
+    /**
+     * The exponent that {@link #parseExponent} parsed last.
+     */
+    private int lastExponent;
+
+    /**
+     * Constructs a reader of a stream.
+     *
+     * @param in the stream of the file (it isn't closed by the reader).
+     */
+    ObjReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads all the vertices and the faces of the file into a buffer.
+     *
+     * @param mesh the buffer of the mesh.
+     * @throws IOException if the file can't be read or it isn't a valid OBJ file.
+     */
+    void read(MeshBuffer mesh) throws IOException {
+        while (nextLine()) {
+            skipSpaces();
+            if (position + 1 >= length || line[position + 1] != ' ' && line[position + 1] != '\t') {
+                continue;
+            }
+            if (line[position] == 'v') {
+                position++;
+                double x = parseDouble(), y = parseDouble(), z = parseDouble();
+                mesh.addVertex(x, y, z);
+            } else if (line[position] == 'f') {
+                position++;
+                int size = 0;
+                while (skipSpaces()) {
+                    if (size == polygon.length) {
+                        polygon = Arrays.copyOf(polygon, 2 * size);
+                    }
+                    polygon[size++] = parseVertexReference(mesh.getVertexCount());
+                }
+                if (size < 3)
+                    throw error("A face must have at least 3 vertices");
+                mesh.addPolygon(polygon, size);
+            }
+        }
+    }
+
+    /**
+     * Reads the next line of the file into the line buffer.
+     *
+     * @return false if the end of the file was reached, true otherwise.
+     */
+    private boolean nextLine() throws IOException {
+        length = 0;
+        position = 0;
+        boolean read = false;
+        while (true) {
+            if (blockPosition == blockSize) {
+                blockSize = in.read(block);
+                blockPosition = 0;
+                if (blockSize <= 0) {
+                    blockSize = 0;
+                    if (read) {
+                        lineNumber++;
+                    }
+                    return read;
+                }
+            }
+            read = true;
+            byte b = block[blockPosition++];
+            if (b == '\n') {
+                lineNumber++;
+                return true;
+            }
+            if (b != '\r') {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, 2 * length);
+                }
+                line[length++] = b;
+            }
+        }
+    }
+
+    /**
+     * Skips the spaces and tabs at the position of the parser.
+     *
+     * @return true if there are more characters in the line (besides a comment), false otherwise.
+     */
+    private boolean skipSpaces() {
+        while (position < length && (line[position] == ' ' || line[position] == '\t')) {
+            position++;
+        }
+        return position < length && line[position] != '#';
+    }
+
+    /**
+     * Finds the end of the token at the position of the parser.
+     */
+    private int tokenEnd() {
+        int end = position;
+        while (end < length && line[end] != ' ' && line[end] != '\t') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Parses a vertex reference of a face ({@code v}, {@code v/vt}, {@code v//vn} or {@code v/vt/vn}).
+     *
+     * @param vertices the amount of vertices that were read until the face.
+     * @return the (zero based) index of the vertex.
+     */
+    private int parseVertexReference(int vertices) throws IOException {
+        int end = tokenEnd();
+        boolean negative = line[position] == '-';
+        int i = negative ? position + 1 : position;
+        if (i == end || line[i] < '0' || line[i] > '9')
+            throw error("Invalid vertex reference");
+        long value = 0;
+        for (; i < end && line[i] != '/'; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9' || value > Integer.MAX_VALUE)
+                throw error("Invalid vertex reference");
+            value = 10 * value + (b - '0');
+        }
+        position = end;
+        long index = negative ? vertices - value : value - 1;
+        if (value == 0 || index < 0 || index >= vertices)
+            throw error("The vertex reference is out of the vertices");
+        return (int) index;
+    }
+
+    /**
+     * Parses the number at the position of the parser.
+     * Decimal numbers with up to 18 digits are parsed directly from the bytes: the digits make an exact
+     * integer and it is multiplied or divided once by an exact power of 10, which is correctly rounded.
+     * Other numbers are parsed by {@link Double#parseDouble(String)}.
+     */
+    private double parseDouble() throws IOException {
+        if (!skipSpaces())
+            throw error("A vertex must have 3 coordinates");
+        int start = position;
+        int end = tokenEnd();
+        position = end;
+
+        int i = start;
+        boolean negative = false;
+        if (line[i] == '-' || line[i] == '+') {
+            negative = line[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean point = false;
+        boolean any = false;
+        boolean fast = true;
+        for (; i < end && fast; i++) {
+            byte b = line[i];
+            if (b >= '0' && b <= '9') {
+                any = true;
+                if (mantissa != 0 || b != '0') {
+                    digits++;
+                }
+                mantissa = 10 * mantissa + (b - '0');
+                if (point) {
+                    exponent--;
+                }
+                fast = digits <= 18;
+            } else if (b == '.' && !point) {
+                point = true;
+            } else if ((b == 'e' || b == 'E') && any) {
+                fast = parseExponent(i + 1, end);
+                if (fast) {
+                    exponent += lastExponent;
+                }
+                break;
+            } else {
+                fast = false;
+            }
+        }
+        if (fast && any && mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+            double value = exponent < 0 ? mantissa / POWERS[-exponent] : mantissa * POWERS[exponent];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(line, start, end - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw error("Invalid number");
+        }
+    }
+
+    /**
+     * Parses the decimal exponent of a number into {@link #lastExponent}.
+     *
+     * @return false if the exponent isn't a short integer, true otherwise.
+     */
+    private boolean parseExponent(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (line[i] == '-' || line[i] == '+')) {
+            negative = line[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > 4) {
+            return false;
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9') {
+                return false;
+            }
+            value = 10 * value + (b - '0');
+        }
+        lastExponent = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * Creates the exception of a format error in the current line.
+     */
+    private IOException error(String message) {
+        return new IOException(message + " at line " + lineNumber + " of the OBJ file");
+    }
+}
@@ -0,0 +1,391 @@
+package meshLoading;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the triangles of a binary (little or big endian) PLY file.
+ * The file is read through windows of a memory mapping of its channel, so the data isn't copied
+ * into the heap and a file of any size is read with a bounded amount of mapped memory.
+ * The header tells the exact amounts of the vertices and the faces, so the mesh arrays are allocated once.
+ * Only the coordinates of the vertices and the vertex indices of the faces are read - the other properties
+ * and elements are skipped. A face with more than 3 vertices is split into a fan of triangles.
+ */
+final class PlyReader {
+    /**
+     * The size of a window of the mapping.
+     */
+    private static final long WINDOW = 1L << 26;
+    /**
+     * The longest header line.
+     */
+    private static final int MAX_LINE = 1 << 12;
+    /**
+     * The biggest amount of values in a list property.
+     */
+    private static final int MAX_LIST_SIZE = 1 << 16;
+
+    /**
+     * The types of the properties.
+     */
+    private enum Type {
+        CHAR(1), UCHAR(1), SHORT(2), USHORT(2), INT(4), UINT(4), FLOAT(4), DOUBLE(8);
+
+        final int size;
+
+        Type(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Finds a type by its name in the header, including the names with sizes (like int32).
+         */
+        static Type of(String name) throws IOException {
+            return switch (name) {
+                case "char", "int8" -> CHAR;
+                case "uchar", "uint8" -> UCHAR;
+                case "short", "int16" -> SHORT;
+                case "ushort", "uint16" -> USHORT;
+                case "int", "int32" -> INT;
+                case "uint", "uint32" -> UINT;
+                case "float", "float32" -> FLOAT;
+                case "double", "float64" -> DOUBLE;
+                default -> throw new IOException("Unknown PLY property type: " + name);
+            };
+        }
+    }
+
+    /**
+     * A property of an element: a single value, or a list of values with a count before them.
+     */
+    private record Property(String name, Type type, Type countType) {
+        boolean isList() {
+            return countType != null;
+        }
+    }
+
+    /**
+     * An element of the file (like the vertices or the faces) and its properties.
+     */
+    private record Element(String name, long count, List<Property> properties) {
+        /**
+         * The size of a row of the element, or -1 if it has lists (so its rows have different sizes).
+         */
+        long rowSize() {
+            long size = 0;
+            for (Property property : properties) {
+                if (property.isList()) {
+                    return -1;
+                }
+                size += property.type.size;
+            }
+            return size;
+        }
+    }
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private ByteOrder order;
+    private MappedByteBuffer window;
+    /**
+     * The position of the window in the file.
+     */
+    private long windowStart;
+
+    /**
+     * Constructs a reader of a file channel.
+     *
+     * @param channel the channel of the file (it isn't closed by the reader).
+     * @throws IOException if the size of the file can't be read.
+     */
+    PlyReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        fileSize = channel.size();
+    }
+
+    /**
+     * Reads all the vertices and the faces of the file into a new buffer.
+     *
+     * @return the buffer of the mesh.
+     * @throws IOException if the file can't be read or it isn't a valid binary PLY file.
+     */
+    MeshBuffer read() throws IOException {
+        map(0);
+        List<Element> elements = readHeader();
+        Element vertices = null;
+        Element faces = null;
+        for (Element element : elements) {
+            if (element.name.equals("vertex")) {
+                vertices = element;
+            } else if (element.name.equals("face")) {
+                faces = element;
+            }
+        }
+        if (vertices == null || faces == null)
+            throw new IOException("A PLY mesh must have vertex and face elements");
+        if (vertices.count > Integer.MAX_VALUE || faces.count > Integer.MAX_VALUE)
+            throw new IOException("The PLY mesh is too big");
+
+        MeshBuffer mesh = new MeshBuffer((int) vertices.count, (int) faces.count);
+        for (Element element : elements) {
+            if (element == vertices) {
+                readVertices(element, mesh);
+            } else if (element == faces) {
+                readFaces(element, mesh);
+            } else {
+                skip(element);
+            }
+        }
+        return mesh;
+    }
+
+    /**
+     * Reads the header of the file, up to the beginning of the data.
+     *
+     * @return the elements of the file in their order.
+     */
+    private List<Element> readHeader() throws IOException {
+        if (!readLine().equals("ply"))
+            throw new IOException("Not a PLY file");
+        List<Element> elements = new ArrayList<>();
+        List<Property> properties = null;
+        for (String line = readLine(); !line.equals("end_header"); line = readLine()) {
+            String[] words = line.trim().split("\\s+");
+            switch (words[0]) {
+                case "format" -> {
+                    if (words.length < 2)
+                        throw new IOException("Invalid PLY format line: " + line);
+                    order = switch (words[1]) {
+                        case "binary_little_endian" -> ByteOrder.LITTLE_ENDIAN;
+                        case "binary_big_endian" -> ByteOrder.BIG_ENDIAN;
+                        default -> throw new IOException("Unsupported PLY format: " + words[1]);
+                    };
+                }
+                case "element" -> {
+                    if (words.length != 3)
+                        throw new IOException("Invalid PLY element line: " + line);
+                    properties = new ArrayList<>();
+                    try {
+                        elements.add(new Element(words[1], Long.parseLong(words[2]), properties));
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Invalid PLY element line: " + line);
+                    }
+                }
+                case "property" -> {
+                    if (properties == null)
+                        throw new IOException("A PLY property out of an element: " + line);
+                    if (words.length == 5 && words[1].equals("list")) {
+                        properties.add(new Property(words[4], Type.of(words[3]), Type.of(words[2])));
+                    } else if (words.length == 3) {
+                        properties.add(new Property(words[2], Type.of(words[1]), null));
+                    } else {
+                        throw new IOException("Invalid PLY property line: " + line);
+                    }
+                }
+                default -> {
+                    // comments, obj_info and empty lines
+                }
+            }
+        }
+        if (order == null)
+            throw new IOException("The PLY header has no format");
+        window.order(order);
+        return elements;
+    }
+
+    /**
+     * Reads a line of the header.
+     */
+    private String readLine() throws IOException {
+        byte[] bytes = new byte[MAX_LINE];
+        int length = 0;
+        while (true) {
+            ensure(1);
+            byte b = window.get();
+            if (b == '\n') {
+                break;
+            }
+            if (length == MAX_LINE)
+                throw new IOException("The PLY header line is too long");
+            if (b != '\r') {
+                bytes[length++] = b;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads the coordinates of the vertices.
+     */
+    private void readVertices(Element element, MeshBuffer mesh) throws IOException {
+        List<Property> properties = element.properties;
+        int x = -1, y = -1, z = -1;
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            if (!property.isList()) {
+                switch (property.name) {
+                    case "x" -> x = i;
+                    case "y" -> y = i;
+                    case "z" -> z = i;
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (x < 0 || y < 0 || z < 0)
+            throw new IOException("The PLY vertices must have x, y and z properties");
+
+        long rowSize = element.rowSize();
+        Property[] row = properties.toArray(new Property[0]);
+        double[] values = new double[row.length];
+        for (long v = 0; v < element.count; v++) {
+            if (rowSize > 0) {
+                ensure((int) rowSize);
+            }
+            for (int i = 0; i < row.length; i++) {
+                if (row[i].isList()) {
+                    skipList(row[i]);
+                } else {
+                    if (rowSize < 0) {
+                        ensure(row[i].type.size);
+                    }
+                    values[i] = readValue(row[i].type);
+                }
+            }
+            mesh.addVertex(values[x], values[y], values[z]);
+        }
+    }
+
+    /**
+     * Reads the vertex indices of the faces.
+     */
+    private void readFaces(Element element, MeshBuffer mesh) throws IOException {
+        Property[] row = element.properties.toArray(new Property[0]);
+        int indices = -1;
+        for (int i = 0; i < row.length; i++) {
+            if (row[i].isList() && (row[i].name.equals("vertex_indices") || row[i].name.equals("vertex_index"))) {
+                indices = i;
+            }
+        }
+        if (indices < 0)
+            throw new IOException("The PLY faces must have a vertex_indices list");
+
+        int vertices = mesh.getVertexCount();
+        int[] polygon = new int[16];
+        for (long f = 0; f < element.count; f++) {
+            for (int i = 0; i < row.length; i++) {
+                if (i != indices) {
+                    if (row[i].isList()) {
+                        skipList(row[i]);
+                    } else {
+                        ensure(row[i].type.size);
+                        readValue(row[i].type);
+                    }
+                    continue;
+                }
+                int size = readCount(row[i]);
+                if (size < 3)
+                    throw new IOException("A PLY face must have at least 3 vertices");
+                if (size > polygon.length) {
+                    polygon = Arrays.copyOf(polygon, Math.max(size, 2 * polygon.length));
+                }
+                ensure(size * row[i].type.size);
+                for (int k = 0; k < size; k++) {
+                    double index = readValue(row[i].type);
+                    if (index < 0 || index >= vertices)
+                        throw new IOException("The PLY vertex index " + (long) index + " is out of the vertices");
+                    polygon[k] = (int) index;
+                }
+                mesh.addPolygon(polygon, size);
+            }
+        }
+    }
+
+    /**
+     * Skips the data of an element that isn't read.
+     */
+    private void skip(Element element) throws IOException {
+        long rowSize = element.rowSize();
+        if (rowSize >= 0) {
+            map(windowStart + window.position() + rowSize * element.count);
+            return;
+        }
+        for (long r = 0; r < element.count; r++) {
+            for (Property property : element.properties) {
+                if (property.isList()) {
+                    skipList(property);
+                } else {
+                    ensure(property.type.size);
+                    window.position(window.position() + property.type.size);
+                }
+            }
+        }
+    }
+
+    /**
+     * Skips a list property.
+     */
+    private void skipList(Property property) throws IOException {
+        int size = readCount(property) * property.type.size;
+        ensure(size);
+        window.position(window.position() + size);
+    }
+
+    /**
+     * Reads the amount of values of a list property.
+     */
+    private int readCount(Property property) throws IOException {
+        ensure(property.countType.size);
+        double count = readValue(property.countType);
+        if (count < 0 || count > MAX_LIST_SIZE)
+            throw new IOException("Invalid PLY list size: " + (long) count);
+        return (int) count;
+    }
+
+    /**
+     * Reads a value at the position of the window (the caller ensures that the window holds it).
+     */
+    private double readValue(Type type) {
+        return switch (type) {
+            case CHAR -> window.get();
+            case UCHAR -> window.get() & 0xFF;
+            case SHORT -> window.getShort();
+            case USHORT -> window.getShort() & 0xFFFF;
+            case INT -> window.getInt();
+            case UINT -> window.getInt() & 0xFFFFFFFFL;
+            case FLOAT -> window.getFloat();
+            case DOUBLE -> window.getDouble();
+        };
+    }
+
+    /**
+     * Makes sure that the window holds the given amount of bytes from its position, by mapping the next window
+     * of the file from that position if needed.
+     */
+    private void ensure(int bytes) throws IOException {
+        if (window.remaining() < bytes) {
+            map(windowStart + window.position());
+            if (window.remaining() < bytes)
+                throw new IOException("Unexpected end of the PLY file");
+        }
+    }
+
+    /**
+     * Maps the window of the file that starts at the given position.
+     */
+    private void map(long position) throws IOException {
+        if (position > fileSize)
+            throw new IOException("Unexpected end of the PLY file");
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, fileSize - position));
+        if (order != null) {
+            window.order(order);
+        }
+    }
+}
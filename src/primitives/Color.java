@@ -53,6 +53,10 @@ public class Color {
       return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
    }
 
+   /** RGB components getter - returns the exact components, without any limit
+    * @return triad of Red/Green/Blue components */
+   public Double3 getRgb() { return rgb; }
+
    /** Operation of adding this and one or more other colors (by component)
     * @param  colors one or more other colors to add
     * @return        new Color object which is a result of the operation */
@@ -102,6 +106,16 @@ public class Color {
       return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
    }
 
+   /** Check whether this color is close to another color - no component differs by more than a threshold
+    * @param  other     the other color
+    * @param  threshold the maximal difference of a component
+    * @return           true if the colors are close, false otherwise */
+   public boolean isCloseTo(Color other, double threshold) {
+      return Math.abs(rgb.d1 - other.rgb.d1) <= threshold
+            && Math.abs(rgb.d2 - other.rgb.d2) <= threshold
+            && Math.abs(rgb.d3 - other.rgb.d3) <= threshold;
+   }
+
    @Override
    public String toString() { return "rgb:" + rgb; }
 
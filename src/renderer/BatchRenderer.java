@@ -0,0 +1,414 @@
+package renderer;
+
+import jsonConverting.JsonSceneReader;
+import scene.SceneMemoryCache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Renders a batch of JSON render jobs (see {@link JsonSceneReader#readJob(Path)}) through one shared pool of
+ * worker threads. The tiles of all the jobs are fed to the pool in order through a bounded queue, so the tiles
+ * of the next job are already queued while the last tiles of a job are rendered, and the workers never wait
+ * at the boundary of the jobs. The images are written by a separate thread as soon as their last tile is done.
+ * The threads setting of a job is ignored, since all the jobs share the pool. The scene files that the jobs name
+ * are kept in a {@link SceneMemoryCache}, so the jobs of the same scene load it once.
+ * <p>
+ * From the command line: {@code BatchRenderer [--threads N] [--queue N] [--scenes N] job1.json job2.json ...}
+ */
+public class BatchRenderer implements AutoCloseable {
+    /**
+     * The result of a job: its wall clock time and the amount of rays that were traced,
+     * or the error that stopped it.
+     */
+    public static class Report {
+        private final String name;
+        private final long wallTime;
+        private final long rays;
+        private final Exception error;
+
+        Report(String name, long wallTime, long rays, Exception error) {
+            this.name = name;
+            this.wallTime = wallTime;
+            this.rays = rays;
+            this.error = error;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return the name of the job.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return the time from the start of the job's first tile to the end of its last tile, in nanoseconds.
+         */
+        public long getWallTime() {
+            return wallTime;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return the amount of traced rays of all the kinds.
+         */
+        public long getRays() {
+            return rays;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return the traced rays per second of the wall clock time.
+         */
+        public double getRaysPerSecond() {
+            return wallTime > 0 ? rays * 1e9 / wallTime : 0;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return the error that stopped the job, or null if it was rendered and written.
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return error != null ? String.format("%s: failed: %s", name, error)
+                    : String.format("%s: %.3f s, %d rays (%.0f rays/s)", name, wallTime / 1e9, rays,
+                    getRaysPerSecond());
+        }
+    }
+
+    /**
+     * A job whose tiles are rendered.
+     */
+    private static final class Batch {
+        final RenderJob job;
+        final RenderStatistics statistics;
+        final AtomicInteger remaining;
+        final AtomicReference<Exception> error = new AtomicReference<>();
+        final CompletableFuture<Report> report = new CompletableFuture<>();
+        final boolean write;
+        volatile long start;
+
+        Batch(RenderJob job, RenderStatistics statistics, int tiles, boolean write) {
+            this.job = job;
+            this.statistics = statistics;
+            this.write = write;
+            remaining = new AtomicInteger(tiles);
+        }
+    }
+
+    private final ThreadPoolExecutor pool;
+    /**
+     * The free places of the bounded queue of the tiles (the tiles that are rendered hold places too).
+     */
+    private final Semaphore places;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final SceneMemoryCache scenes;
+
+    /**
+     * Constructs a batch renderer that caches 8 scenes.
+     *
+     * @param threads       the amount of worker threads (0 - a thread per available processor).
+     * @param queueCapacity the maximal amount of tiles that wait for a worker.
+     * @throws IllegalArgumentException if an argument is negative, or the capacity is 0.
+     */
+    public BatchRenderer(int threads, int queueCapacity) {
+        this(threads, queueCapacity, 8);
+    }
+
+    /**
+     * Constructs a batch renderer.
+     *
+     * @param threads       the amount of worker threads (0 - a thread per available processor).
+     * @param queueCapacity the maximal amount of tiles that wait for a worker.
+     * @param sceneCapacity the maximal amount of cached scene files.
+     * @throws IllegalArgumentException if an argument is negative, or a capacity is 0.
+     */
+    public BatchRenderer(int threads, int queueCapacity, int sceneCapacity) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("The amount of threads can't be negative");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The capacity of the queue must be positive");
+        }
+        int workers = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        places = new Semaphore(queueCapacity + workers);
+        scenes = new SceneMemoryCache(sceneCapacity);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the cache of the scene files of the jobs.
+     */
+    public SceneMemoryCache getScenes() {
+        return scenes;
+    }
+
+    /**
+     * Renders job files in order and writes their images. A job that can't be loaded or rendered is reported
+     * with its error, and the other jobs are still rendered.
+     *
+     * @param files the paths of the JSON job files.
+     * @return the reports of the jobs, in the order of the files.
+     * @throws InterruptedException if the thread was interrupted while it waited for the jobs.
+     */
+    public List<Report> render(List<Path> files) throws InterruptedException {
+        return render(files, true);
+    }
+
+    /**
+     * Renders job files in order.
+     *
+     * @param files the paths of the JSON job files.
+     * @param write whether the images are written to their files, or only kept in the image writers of the jobs.
+     * @return the reports of the jobs, in the order of the files.
+     * @throws InterruptedException if the thread was interrupted while it waited for the jobs.
+     */
+    List<Report> render(List<Path> files, boolean write) throws InterruptedException {
+        List<CompletableFuture<Report>> reports = new ArrayList<>(files.size());
+        for (Path file : files) {
+            RenderJob job;
+            try {
+                job = JsonSceneReader.readJob(file, scenes);
+            } catch (IOException | RuntimeException e) {
+                reports.add(CompletableFuture.completedFuture(new Report(file.toString(), 0, 0, e)));
+                continue;
+            }
+            reports.add(submit(job, write));
+        }
+        List<Report> results = new ArrayList<>(reports.size());
+        for (CompletableFuture<Report> report : reports) {
+            results.add(report.join());
+        }
+        return results;
+    }
+
+    /**
+     * Queues all the tiles of a job, waiting while the queue is full.
+     *
+     * @param job the job.
+     * @return the report of the job, which is completed after its image is written.
+     * @throws InterruptedException if the thread was interrupted while it waited for the queue.
+     */
+    public CompletableFuture<Report> submit(RenderJob job) throws InterruptedException {
+        return submit(job, true);
+    }
+
+    /**
+     * Queues all the tiles of a job, waiting while the queue is full.
+     *
+     * @param job   the job.
+     * @param write whether the image is written to its file when it is done, or only kept in its image writer.
+     * @return the report of the job, which is completed after its frame is ended (and its image is written).
+     * If the renderer was closed, the report is completed with the error.
+     * @throws InterruptedException if the thread was interrupted while it waited for the queue (the tiles that
+     *                              were queued are still rendered, and the report is completed with the error).
+     */
+    CompletableFuture<Report> submit(RenderJob job, boolean write) throws InterruptedException {
+        Camera camera = job.getCamera();
+        RenderStatistics statistics = camera.getStatistics();
+        if (statistics == null) {
+            statistics = new RenderStatistics();
+            camera.setStatistics(statistics);
+        }
+        int tiles;
+        try {
+            tiles = camera.beginFrame();
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(new Report(job.getName(), 0, 0, e));
+        }
+        Batch batch = new Batch(job, statistics, tiles, write);
+        int tile = 0;
+        try {
+            for (; tile < tiles; tile++) {
+                places.acquire();
+                int index = tile;
+                try {
+                    pool.execute(() -> {
+                        try {
+                            renderTile(batch, index);
+                        } finally {
+                            places.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    places.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            batch.error.compareAndSet(null, e);
+            done(batch, tiles - tile);
+            throw e;
+        } catch (RejectedExecutionException e) {
+            batch.error.compareAndSet(null, e);
+            done(batch, tiles - tile);
+        }
+        return batch.report;
+    }
+
+    /**
+     * Renders a tile of a job, and hands the job to the writer if it was its last tile.
+     * The tile is counted as done even if it failed (with an error too), so the job is always reported.
+     */
+    private void renderTile(Batch batch, int tile) {
+        if (batch.start == 0) {
+            synchronized (batch) {
+                if (batch.start == 0) {
+                    batch.start = System.nanoTime();
+                }
+            }
+        }
+        try {
+            // the rest of the tiles of a failed job are skipped
+            if (batch.error.get() == null) {
+                try {
+                    batch.job.getCamera().renderTile(tile);
+                } catch (RuntimeException e) {
+                    batch.error.compareAndSet(null, e);
+                } catch (Error e) {
+                    batch.error.compareAndSet(null, failure(e));
+                    throw e;
+                }
+            }
+        } finally {
+            done(batch, 1);
+        }
+    }
+
+    /**
+     * Counts tiles of a job as done, and hands the job to the writer if they were its last tiles.
+     * If the writer was stopped already, the report is completed without ending the frame.
+     *
+     * @param batch the job.
+     * @param tiles the amount of tiles that were rendered, failed, or were never queued.
+     */
+    private void done(Batch batch, int tiles) {
+        if (batch.remaining.addAndGet(-tiles) == 0) {
+            // a job whose tiles were never queued wasn't started
+            long wallTime = batch.start == 0 ? 0 : System.nanoTime() - batch.start;
+            try {
+                writer.execute(() -> finish(batch, wallTime));
+            } catch (RejectedExecutionException e) {
+                Exception error = batch.error.get();
+                batch.report.complete(new Report(batch.job.getName(), wallTime, batch.statistics.getRays(),
+                        error == null ? e : error));
+            }
+        }
+    }
+
+    /**
+     * Ends the frame of a job whose tiles were all rendered, and writes its image if it was asked to.
+     * The report of the job is completed even if this fails (with an error too).
+     */
+    private void finish(Batch batch, long wallTime) {
+        Exception error = batch.error.get();
+        try {
+            if (error == null) {
+                batch.job.getCamera().endFrame(wallTime);
+                if (batch.write) {
+                    batch.job.getCamera().writeToImage();
+                }
+            }
+        } catch (RuntimeException e) {
+            error = e;
+        } catch (Error e) {
+            error = failure(e);
+            throw e;
+        } finally {
+            batch.report.complete(new Report(batch.job.getName(), wallTime, batch.statistics.getRays(), error));
+        }
+    }
+
+    /**
+     * Wraps an error of a job (like {@link OutOfMemoryError}) for its report, since the error itself is
+     * thrown on to the thread that rendered the job.
+     *
+     * @param error the error.
+     * @return the exception of the report.
+     */
+    private static Exception failure(Error error) {
+        return new IllegalStateException("Rendering failed: " + error, error);
+    }
+
+    /**
+     * Stops the worker threads and the writer, after the queued jobs are done. Waits for the tiles that were
+     * queued, so their jobs are handed to the writer before it is stopped. The jobs that are submitted later are
+     * reported with an error.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Renders the job files of the arguments and prints the report of every job.
+     *
+     * @param args optional {@code --threads N} (default 0 - a thread per processor), {@code --queue N}
+     *             (default 256 tiles) and {@code --scenes N} (default 8 cached scenes), followed by the paths
+     *             of the job files.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = 0;
+        int queueCapacity = 256;
+        int sceneCapacity = 8;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--queue" -> queueCapacity = Integer.parseInt(args[++i]);
+                case "--scenes" -> sceneCapacity = Integer.parseInt(args[++i]);
+                default -> files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.out.println("Usage: BatchRenderer [--threads N] [--queue N] [--scenes N] job.json...");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = false;
+        try (BatchRenderer renderer = new BatchRenderer(threads, queueCapacity, sceneCapacity)) {
+            for (Report report : renderer.render(files)) {
+                System.out.println(report);
+                failed |= report.getError() != null;
+            }
+            System.out.printf("scenes: %d loaded, %d cached%n", renderer.getScenes().getMisses(),
+                    renderer.getScenes().getHits());
+        }
+        System.out.printf("total: %.3f s%n", (System.nanoTime() - start) / 1e9);
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
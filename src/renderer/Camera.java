@@ -5,7 +5,16 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
 import static primitives.Util.isZero;
 
@@ -54,6 +63,56 @@ public class Camera {
 
     private RayTracerBase rayTracerBase;
 
+    /**
+     * The amount of threads that render the image (1 - render on the calling thread).
+     */
+    private int threads = 1;
+
+    /**
+     * The size (in pixels) of the square tiles the view plane is split into in parallel rendering.
+     */
+    private int tileSize = 16;
+
+    /**
+     * The maximal depth of the adaptive supersampling recursion (0 - a single ray through the center of a pixel).
+     */
+    private int supersamplingDepth = 0;
+
+    /**
+     * The maximal difference of a color component between the corners of a square that isn't subdivided.
+     */
+    private double supersamplingThreshold = 10;
+
+    /**
+     * The ray generator of the last rendered resolution (null if the camera was changed since it was built).
+     */
+    private volatile RayGenerator rayGenerator;
+
+    /**
+     * The counters of the rendered frame, or null if nothing is counted.
+     */
+    private RenderStatistics statistics;
+
+    /**
+     * Whether the render time of every pixel is recorded for the heatmap.
+     */
+    private boolean heatmap = false;
+
+    /**
+     * The render time of every pixel of the last frame in nanoseconds, row by row
+     * (null if the heatmap wasn't recorded).
+     */
+    private long[] pixelCosts;
+
+    /**
+     * The resolution of the frame that is rendered, and the amount of tiles in a row of it.
+     */
+    private int frameNX;
+    private int frameNY;
+    private int frameTilesX;
+
+    private Logger logger = Logger.getLogger("Camera");
+
     /**
      * Constructs a new Camera with the given position and orientation vectors.
      *
@@ -145,6 +204,7 @@ public class Camera {
     public Camera setVPSize(double width, double height) {
         this.width = width;
         this.height = height;
+        rayGenerator = null;
         return this;
     }
 
@@ -156,6 +216,7 @@ public class Camera {
      */
     public Camera setVPDistance(double distance) {
         this.distance = distance;
+        rayGenerator = null;
         return this;
     }
 
@@ -181,6 +242,124 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Setter for the amount of threads used by {@link #renderImage()}.
+     * 1 (the default) renders on the calling thread, 0 uses all the available cores.
+     *
+     * @param threads the amount of rendering threads.
+     * @return the Camera object with the updated amount of threads.
+     * @throws IllegalArgumentException if the amount is negative.
+     */
+    public Camera setThreads(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("The amount of threads can't be negative");
+        }
+        this.threads = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        return this;
+    }
+
+    /**
+     * Setter for the size of the tiles that are handed to the rendering threads.
+     *
+     * @param tileSize the width and height of a tile in pixels.
+     * @return the Camera object with the updated tile size.
+     * @throws IllegalArgumentException if the size is not positive.
+     */
+    public Camera setTileSize(int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("The tile size must be positive");
+        }
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Setter for the depth of the adaptive supersampling (anti-aliasing). When it is positive, the rays go through
+     * the corners of a pixel instead of its center, and a pixel (or a part of it) whose corner colors differ by
+     * more than the threshold is split into four squares that are sampled the same way, up to the given depth.
+     * The corners that are shared by neighboring pixels and squares of the same tile are traced only once; the
+     * corners on the border between two tiles are traced once by each of them, so the tiles stay independent.
+     *
+     * @param depth the maximal amount of times a pixel is split, 0 (the default) for a single ray per pixel.
+     * @return the Camera object with the updated depth.
+     * @throws IllegalArgumentException if the depth is negative or bigger than 8.
+     */
+    public Camera setSupersamplingDepth(int depth) {
+        if (depth < 0 || depth > 8) {
+            throw new IllegalArgumentException("The supersampling depth must be between 0 and 8");
+        }
+        this.supersamplingDepth = depth;
+        return this;
+    }
+
+    /**
+     * Setter for the color threshold of the adaptive supersampling.
+     *
+     * @param threshold the maximal difference of a color component (0-255) between the corners of a square
+     *                  that isn't split (10 by default).
+     * @return the Camera object with the updated threshold.
+     * @throws IllegalArgumentException if the threshold is negative.
+     */
+    public Camera setSupersamplingThreshold(double threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("The supersampling threshold can't be negative");
+        }
+        this.supersamplingThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Setter for the counters of the rendering. When they are set, every call of {@link #renderImage()}
+     * resets them, counts the rays, the intersection tests and the time of the frame,
+     * and logs a report of them when the frame is done.
+     *
+     * @param statistics the counters, or null for not counting anything (the default, without any overhead).
+     * @return the Camera object with the updated counters.
+     */
+    public Camera setStatistics(RenderStatistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the counters of the rendering, or null if nothing is counted.
+     */
+    public RenderStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Setter for the diagnostic heatmap of the rendering cost. When it is on, {@link #renderImage()} records
+     * the time of every pixel (including all the rays it traced: supersampling, shadows, reflections
+     * and refractions), and {@link #writeToImage()} writes it as a false color image next to the rendered image,
+     * named as the image with a "-heatmap" suffix. The colors go from blue (the cheapest pixels) through green
+     * and yellow to red (the most expensive ones) on a logarithmic scale.
+     *
+     * @param heatmap true for recording the heatmap, false (the default) for rendering the image only.
+     * @return the Camera object with the updated heatmap mode.
+     */
+    public Camera setHeatmap(boolean heatmap) {
+        this.heatmap = heatmap;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @param j the index of the pixel's column.
+     * @param i the index of the pixel's row.
+     * @return the time the pixel took in the last rendered frame in nanoseconds.
+     * @throws IllegalStateException if the heatmap wasn't recorded.
+     */
+    public long getPixelCost(int j, int i) {
+        if (pixelCosts == null) {
+            throw new IllegalStateException("The heatmap wasn't recorded");
+        }
+        return pixelCosts[i * imageWriter.getNx() + j];
+    }
+
     /**
      * This method gets properties of a pixel in the view plane and returns the ray that comes
      * out of the camera to that pixel.
@@ -192,35 +371,155 @@ public class Camera {
      * @return the ray that intersects the pixel.
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
-        //The starting point
-        Point center = p0.add(vTo.scale(distance));
-
-        //The length of each pixel (each row/column)
-        double Rx = width / nX;
-        double Ry = height / nY;
+        return getRayGenerator(nX, nY).constructRay(j, i);
+    }
 
-        Point movedPoint = center;
+    /**
+     * Returns the ray generator of the current view plane for the given resolution,
+     * building it if the camera was changed since the last one was built.
+     *
+     * @param nX the amount of columns on the view plane.
+     * @param nY the amount of rows on the view plane.
+     * @return the ray generator.
+     */
+    private RayGenerator getRayGenerator(int nX, int nY) {
+        RayGenerator generator = rayGenerator;
+        if (generator == null || generator.nX != nX || generator.nY != nY) {
+            rayGenerator = generator = new RayGenerator(nX, nY);
+        }
+        return generator;
+    }
 
-        //The distance that the movedPoint should move from the
-        //center point in order to get to the requested pixel.
-        //(locating the point at the pixel).
+    /**
+     * The primary rays of a frame. The center of the view plane and the offsets of every column and row
+     * of pixels from it are calculated once, so a ray is built by adding three numbers per coordinate.
+     * The generator is a snapshot of the camera: it copies everything it uses from the camera when it is built
+     * and isn't changed, so it may be used by many rendering threads. The camera drops it whenever the view plane
+     * or the camera's position or orientation changes.
+     */
+    private final class RayGenerator {
+        private final int nX;
+        private final int nY;
+        /**
+         * The camera's position.
+         */
+        private final Point origin;
+        /**
+         * The coordinates of the camera's position.
+         */
+        private final double px, py, pz;
+        /**
+         * The directions of the view plane to the right and upwards.
+         */
+        private final Vector right, up;
+        /**
+         * The coordinates of the center of the view plane.
+         */
+        private final double cx, cy, cz;
+        /**
+         * The offset from the center of the view plane to every column of pixels (x, y, z for each column).
+         */
+        private final double[] columns;
+        /**
+         * The offset from the center of the view plane to every row of pixels (x, y, z for each row).
+         */
+        private final double[] rows;
+
+        /**
+         * Constructs the ray generator for the given resolution.
+         *
+         * @param nX the amount of columns on the view plane.
+         * @param nY the amount of rows on the view plane.
+         */
+        RayGenerator(int nX, int nY) {
+            this.nX = nX;
+            this.nY = nY;
+            origin = p0;
+            right = vRight;
+            up = vUp;
+            px = origin.getX();
+            py = origin.getY();
+            pz = origin.getZ();
+            //The starting point
+            cx = px + vTo.getX() * distance;
+            cy = py + vTo.getY() * distance;
+            cz = pz + vTo.getZ() * distance;
+
+            //The length of each pixel (each row/column)
+            double Rx = width / nX;
+            double Ry = height / nY;
+
+            //The distance that the point should move from the
+            //center point in order to get to the requested pixel.
+            columns = new double[3 * nX];
+            for (int j = 0; j < nX; j++) {
+                offset(columns, j, right, (j - (nX - 1) / 2d) * Rx);
+            }
+            rows = new double[3 * nY];
+            for (int i = 0; i < nY; i++) {
+                offset(rows, i, up, ((nY - 1) / 2d - i) * Ry);
+            }
+        }
 
-        //Offsets for movedPoint
-        double Xj = (j - (nX - 1) / 2d) * Rx;
-        double Yi = ((nY - 1) / 2d - i) * Ry;
+        /**
+         * Writes the offset along a direction of the view plane (0 if it is too small to move the point).
+         */
+        private void offset(double[] offsets, int index, Vector direction, double length) {
+            if (!isZero(length)) {
+                offsets[3 * index] = direction.getX() * length;
+                offsets[3 * index + 1] = direction.getY() * length;
+                offsets[3 * index + 2] = direction.getZ() * length;
+            }
+        }
 
-        //Moving the movedPoint to the pixel if necessary
-        if (!isZero(Xj)) {
-            movedPoint = movedPoint.add(vRight.scale(Xj));
+        /**
+         * Constructs the ray that comes out of the camera through the center of a pixel.
+         *
+         * @param j the index of the pixel's column.
+         * @param i the index of the pixel's row.
+         * @return the ray that intersects the pixel.
+         */
+        Ray constructRay(int j, int i) {
+            return constructRay(
+                    columns[3 * j], columns[3 * j + 1], columns[3 * j + 2],
+                    rows[3 * i], rows[3 * i + 1], rows[3 * i + 2]);
         }
-        if (!isZero(Yi)) {
-            movedPoint = movedPoint.add(vUp.scale(Yi));
+
+        /**
+         * Constructs the ray that comes out of the camera to a point on the view plane.
+         *
+         * @param x the distance of the point from the center of the view plane to the right.
+         * @param y the distance of the point from the center of the view plane upwards.
+         * @return the ray that goes through the point.
+         */
+        Ray constructRay(double x, double y) {
+            if (isZero(x)) x = 0;
+            if (isZero(y)) y = 0;
+            return constructRay(
+                    right.getX() * x, right.getY() * x, right.getZ() * x,
+                    up.getX() * y, up.getY() * y, up.getZ() * y);
         }
 
-        //The vector of the requested ray is movedPoint - p0
-        Vector CameraToPixel = movedPoint.subtract(p0);
+        /**
+         * Constructs the ray from the camera to the point that is moved from the center of the view plane
+         * by the given offsets.
+         */
+        private Ray constructRay(double rightX, double rightY, double rightZ, double upX, double upY, double upZ) {
+            //The vector of the requested ray is the moved point - p0
+            return new Ray(origin, new Vector(
+                    cx + rightX + upX - px,
+                    cy + rightY + upY - py,
+                    cz + rightZ + upZ - pz));
+        }
+    }
 
-        return new Ray(p0, CameraToPixel);
+    /**
+     * Getter.
+     *
+     * @return the image writer the camera renders to, or null if it isn't set.
+     */
+    ImageWriter getImageWriter() {
+        return imageWriter;
     }
 
     /**
@@ -232,26 +531,165 @@ public class Camera {
      */
     public Camera renderImage() {
         try {
-            if (imageWriter == null) {
-                throw new MissingResourceException("missing resource", ImageWriter.class.getName(), "");
-            }
-            if (rayTracerBase == null) {
-                throw new MissingResourceException("missing resource", RayTracerBase.class.getName(), "");
-            }
-            int NX = imageWriter.getNx();
-            int NY = imageWriter.getNy();
-            for (int i = 0; i < NY; i++) {
-                for (int j = 0; j < NX; j++) {
-                    Color pixelColor = castRay(NX, NY, i, j);
-                    imageWriter.writePixel(j, i, pixelColor);
+            int tilesCount = beginFrame();
+            long start = System.nanoTime();
+            if (threads == 1 && supersamplingDepth == 0) {
+                for (int i = 0; i < frameNY; i++) {
+                    for (int j = 0; j < frameNX; j++) {
+                        Color pixelColor = renderPixel(frameNX, frameNY, i, j, null);
+                        imageWriter.writePixel(j, i, pixelColor);
+                    }
+                }
+            } else if (threads == 1) {
+                // the supersampling shares the corners of the pixels inside a tile
+                for (int tile = 0; tile < tilesCount; tile++) {
+                    renderTile(tile);
                 }
+            } else {
+                renderTiles(tilesCount);
             }
+            endFrame(System.nanoTime() - start);
         } catch (MissingResourceException ex) {
             throw new UnsupportedOperationException("Not implemented yet" + ex.getClassName());
         }
         return this;
     }
 
+    /**
+     * Prepares the rendering of a frame tile by tile, so the tiles may be rendered by any threads
+     * (like the shared pool of {@link BatchRenderer}): every tile is rendered once by {@link #renderTile(int)},
+     * and then the frame is ended by {@link #endFrame(long)}. The threads setting of the camera isn't used.
+     *
+     * @return the amount of tiles of the frame.
+     * @throws MissingResourceException if the image writer or ray tracer is not set.
+     */
+    int beginFrame() {
+        if (imageWriter == null) {
+            throw new MissingResourceException("missing resource", ImageWriter.class.getName(), "");
+        }
+        if (rayTracerBase == null) {
+            throw new MissingResourceException("missing resource", RayTracerBase.class.getName(), "");
+        }
+        frameNX = imageWriter.getNx();
+        frameNY = imageWriter.getNy();
+        frameTilesX = (frameNX + tileSize - 1) / tileSize;
+        if (statistics != null) {
+            statistics.reset();
+        }
+        rayTracerBase.setStatistics(statistics);
+        rayTracerBase.beginFrame();
+        pixelCosts = heatmap ? new long[frameNX * frameNY] : null;
+        return frameTilesX * ((frameNY + tileSize - 1) / tileSize);
+    }
+
+    /**
+     * Ends the rendering of a frame, after all its tiles were rendered.
+     *
+     * @param nanos the wall clock time of rendering the frame in nanoseconds.
+     */
+    void endFrame(long nanos) {
+        if (statistics != null) {
+            statistics.setFrameTime(nanos);
+            logger.info("Rendered " + imageWriter.getImageName() + ":\n" + statistics.report());
+        }
+    }
+
+    /**
+     * Renders the image in parallel: the view plane is split into square tiles and every worker
+     * thread repeatedly takes the next tile that wasn't rendered yet, until all the tiles are done.
+     * Every pixel is calculated exactly as in the sequential rendering, so the image is the same.
+     *
+     * @param tilesCount the amount of tiles of the frame.
+     */
+    private void renderTiles(int tilesCount) {
+        AtomicInteger nextTile = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int tile = nextTile.getAndIncrement(); tile < tilesCount; tile = nextTile.getAndIncrement()) {
+                        renderTile(tile);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rendering was interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Rendering failed", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Renders a tile of the frame that was begun by {@link #beginFrame()}.
+     *
+     * @param tile the index of the tile, row by row.
+     */
+    void renderTile(int tile) {
+        renderTile(frameNX, frameNY, (tile % frameTilesX) * tileSize, (tile / frameTilesX) * tileSize);
+    }
+
+    /**
+     * Renders a single tile of the view plane and writes it to the image writer.
+     *
+     * @param nX the amount of columns on the view plane.
+     * @param nY the amount of rows on the view plane.
+     * @param x0 the column of the tile's upper left pixel.
+     * @param y0 the row of the tile's upper left pixel.
+     */
+    private void renderTile(int nX, int nY, int x0, int y0) {
+        int x1 = Math.min(x0 + tileSize, nX);
+        int y1 = Math.min(y0 + tileSize, nY);
+        Color[] colors = new Color[(x1 - x0) * (y1 - y0)];
+        CornerSampler sampler = supersamplingDepth == 0 ? null : new CornerSampler(nX, nY, x0, y0, x1, y1);
+        int index = 0;
+        for (int i = y0; i < y1; i++) {
+            for (int j = x0; j < x1; j++) {
+                colors[index++] = renderPixel(nX, nY, i, j, sampler);
+            }
+        }
+        // the tile is written at once, so the threads hardly ever wait for each other here
+        synchronized (imageWriter) {
+            index = 0;
+            for (int i = y0; i < y1; i++) {
+                for (int j = x0; j < x1; j++) {
+                    imageWriter.writePixel(j, i, colors[index++]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the color of a pixel, recording its time if the heatmap is on.
+     * Every pixel is rendered by a single thread, so the threads never write the same cost.
+     *
+     * @param nX      the amount of columns on the view plane.
+     * @param nY      the amount of rows on the view plane.
+     * @param i       the index of the pixel's row.
+     * @param j       the index of the pixel's column.
+     * @param sampler the supersampling of the pixel's tile, or null for a single ray through the pixel's center.
+     * @return the color of the pixel.
+     */
+    private Color renderPixel(int nX, int nY, int i, int j, CornerSampler sampler) {
+        long[] costs = pixelCosts;
+        long start = costs == null ? 0 : System.nanoTime();
+        Color color = sampler == null ? castRay(nX, nY, i, j) : sampler.samplePixel(i, j);
+        if (costs != null) {
+            costs[i * nX + j] = System.nanoTime() - start;
+        }
+        return color;
+    }
+
     /**
      * Casts a ray from the camera to the specified pixel and returns the color of the intersected object.
      *
@@ -267,6 +705,108 @@ public class Camera {
         return pixelColor;
     }
 
+    /**
+     * Adaptive supersampling of a tile. The corners of the pixels and of their sub-squares are the points of a
+     * lattice on the view plane whose step is a pixel divided by 2^depth, and the color of every lattice point
+     * that was traced is kept, so a corner that is shared by neighboring pixels or squares is traced once.
+     * The lattice is kept for the tile only, so the corners on the tile's border are traced by its neighbors again.
+     */
+    private class CornerSampler {
+        private final int nX;
+        private final int nY;
+        /**
+         * The amount of lattice steps in a pixel side (2^depth).
+         */
+        private final int scale;
+        /**
+         * The lattice coordinates of the tile's upper left corner.
+         */
+        private final int gx0;
+        private final int gy0;
+        /**
+         * The amount of lattice points in a row of the tile.
+         */
+        private final int rowLength;
+        /**
+         * The colors of the lattice points of the tile (null if the point wasn't traced yet).
+         */
+        private final Color[] corners;
+
+        /**
+         * Constructs a sampler for the tile of the pixels [x0, x1) x [y0, y1).
+         *
+         * @param nX the amount of columns on the view plane.
+         * @param nY the amount of rows on the view plane.
+         * @param x0 the column of the tile's upper left pixel.
+         * @param y0 the row of the tile's upper left pixel.
+         * @param x1 the column after the tile's last pixel.
+         * @param y1 the row after the tile's last pixel.
+         */
+        CornerSampler(int nX, int nY, int x0, int y0, int x1, int y1) {
+            this.nX = nX;
+            this.nY = nY;
+            scale = 1 << supersamplingDepth;
+            gx0 = x0 * scale;
+            gy0 = y0 * scale;
+            rowLength = (x1 - x0) * scale + 1;
+            corners = new Color[rowLength * ((y1 - y0) * scale + 1)];
+        }
+
+        /**
+         * Calculates the color of a pixel of the tile.
+         *
+         * @param i the index of the pixel's row.
+         * @param j the index of the pixel's column.
+         * @return the color of the pixel.
+         */
+        Color samplePixel(int i, int j) {
+            return sampleSquare(j * scale, i * scale, scale);
+        }
+
+        /**
+         * Calculates the color of a square by its corners, or by its four quarters if the corners differ.
+         *
+         * @param gx   the lattice column of the square's upper left corner.
+         * @param gy   the lattice row of the square's upper left corner.
+         * @param size the side of the square in lattice steps.
+         * @return the average color of the square.
+         */
+        private Color sampleSquare(int gx, int gy, int size) {
+            Color c00 = corner(gx, gy);
+            Color c10 = corner(gx + size, gy);
+            Color c01 = corner(gx, gy + size);
+            Color c11 = corner(gx + size, gy + size);
+            if (size == 1 || c00.isCloseTo(c10, supersamplingThreshold) && c00.isCloseTo(c01, supersamplingThreshold)
+                    && c00.isCloseTo(c11, supersamplingThreshold) && c10.isCloseTo(c01, supersamplingThreshold)
+                    && c10.isCloseTo(c11, supersamplingThreshold) && c01.isCloseTo(c11, supersamplingThreshold)) {
+                return c00.add(c10, c01, c11).reduce(4);
+            }
+            int half = size / 2;
+            return sampleSquare(gx, gy, half).add(
+                    sampleSquare(gx + half, gy, half),
+                    sampleSquare(gx, gy + half, half),
+                    sampleSquare(gx + half, gy + half, half)).reduce(4);
+        }
+
+        /**
+         * Returns the color of a lattice point, tracing its ray if it wasn't traced yet.
+         *
+         * @param gx the lattice column of the point.
+         * @param gy the lattice row of the point.
+         * @return the color of the point.
+         */
+        private Color corner(int gx, int gy) {
+            int index = (gy - gy0) * rowLength + gx - gx0;
+            Color color = corners[index];
+            if (color == null) {
+                double x = ((double) gx / scale - nX / 2d) * (width / nX);
+                double y = (nY / 2d - (double) gy / scale) * (height / nY);
+                color = corners[index] = rayTracerBase.traceRay(getRayGenerator(nX, nY).constructRay(x, y));
+            }
+            return color;
+        }
+    }
+
     /**
      * Prints a grid on the image writer with the specified interval and color.
      *
@@ -298,9 +838,51 @@ public class Camera {
             throw new MissingResourceException("missing resource", ImageWriter.class.getName(), "");
         }
         imageWriter.writeToImage();
+        if (pixelCosts != null) {
+            writeHeatmap();
+        }
         return this;
     }
 
+    /**
+     * Writes the recorded pixel costs as a false color image, on a logarithmic scale between the cheapest and
+     * the most expensive pixels. The scale ignores the extreme percent on both sides, so a few pixels that were
+     * interrupted by the garbage collector or by the compiler don't hide the differences between the rest.
+     */
+    private void writeHeatmap() {
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        long[] sorted = pixelCosts.clone();
+        Arrays.sort(sorted);
+        int outliers = sorted.length / 100;
+        double min = Math.log(Math.max(sorted[outliers], 1));
+        double max = Math.log(Math.max(sorted[sorted.length - 1 - outliers], 1));
+        double range = max - min;
+        ImageWriter heatmapWriter = new ImageWriter(imageWriter.getImageName() + "-heatmap", nX, nY);
+        for (int i = 0; i < nY; i++) {
+            for (int j = 0; j < nX; j++) {
+                double value = Math.log(Math.max(pixelCosts[i * nX + j], 1));
+                double t = range == 0 ? 0 : Math.min(Math.max((value - min) / range, 0), 1);
+                heatmapWriter.writePixel(j, i, heatColor(t));
+            }
+        }
+        heatmapWriter.writeToImage();
+    }
+
+    /**
+     * Maps a relative cost to a color: blue, cyan, green, yellow and red for 0, 0.25, 0.5, 0.75 and 1,
+     * with linear blending between them.
+     *
+     * @param t the relative cost between 0 and 1.
+     * @return the color of the cost.
+     */
+    private static Color heatColor(double t) {
+        double r = Math.min(Math.max(4 * t - 2, 0), 1);
+        double g = t < 0.25 ? 4 * t : t < 0.75 ? 1 : 4 - 4 * t;
+        double b = Math.min(Math.max(2 - 4 * t, 0), 1);
+        return new Color(255 * r, 255 * g, 255 * b);
+    }
+
     /**
      * Turns the camera by a given angle.
      *
@@ -311,6 +893,7 @@ public class Camera {
         angle = Math.toRadians(angle);
         vUp = vUp.turn(angle, vRight);
         vRight = vRight.turn(angle, vUp.scale(-1));
+        rayGenerator = null;
         return this;
     }
 
@@ -324,6 +907,7 @@ public class Camera {
         angle = Math.toRadians(angle);
         vTo = vTo.turn(angle, vRight);
         vRight = vRight.turn(angle, vUp.scale(-1));
+        rayGenerator = null;
         return this;
     }
 
@@ -337,6 +921,7 @@ public class Camera {
         angle = Math.toRadians(angle);
         vTo = vTo.turn(angle, vUp);
         vUp = vUp.turn(angle, vTo.scale(-1));
+        rayGenerator = null;
         return this;
     }
 
@@ -348,6 +933,7 @@ public class Camera {
      */
     public Camera moveUp(double distance) {
         p0 = p0.add(vUp.scale(distance));
+        rayGenerator = null;
         return this;
     }
 
@@ -359,6 +945,7 @@ public class Camera {
      */
     public Camera moveRight(double distance) {
         p0 = p0.add(vRight.scale(distance));
+        rayGenerator = null;
         return this;
     }
 
@@ -370,6 +957,7 @@ public class Camera {
      */
     public Camera moveTo(double distance) {
         p0 = p0.add(vTo.scale(distance));
+        rayGenerator = null;
         return this;
     }
 }
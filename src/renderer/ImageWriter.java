@@ -6,6 +6,7 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -91,6 +92,16 @@ public class ImageWriter {
         }
     }
 
+    /**
+     * Encodes the image as a png file into a stream.
+     *
+     * @param out the stream (it isn't closed).
+     * @throws IOException if the stream can't be written.
+     */
+    public void writePng(OutputStream out) throws IOException {
+        ImageIO.write(image, "png", out);
+    }
+
     /**
      * The function writePixel writes a color of a specific pixel into pixel color
      * matrix
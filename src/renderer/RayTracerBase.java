@@ -10,6 +10,11 @@ import scene.Scene;
 public abstract class RayTracerBase {
     protected Scene scene;
 
+    /**
+     * The counters of the render, or null if nothing is counted.
+     */
+    protected RenderStatistics statistics;
+
     /**
      * Constructs a RayTracerBase with the given scene.
      *
@@ -19,6 +24,26 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Sets the counters of the render. The intersection tests are counted by passing the counters to every
+     * search, so the geometries of the scene aren't changed and may be rendered by other tracers at once.
+     * It should be set before the rendering threads start.
+     *
+     * @param statistics the counters, or null for not counting anything (default).
+     * @return the ray tracer object.
+     */
+    public RayTracerBase setStatistics(RenderStatistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
+    /**
+     * Prepares the tracer for rendering a frame, after its counters were set and before the rendering threads
+     * start. Does nothing by default.
+     */
+    public void beginFrame() {
+    }
+
     /**
      * Traces a ray in the scene and calculates the color.
      *
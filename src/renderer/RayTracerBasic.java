@@ -2,8 +2,10 @@ package renderer;
 
 
 import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
 import lighting.LightSource;
 import primitives.*;
+import scene.CompiledScene;
 import scene.Scene;
 
 import java.util.List;
@@ -13,6 +15,9 @@ import static primitives.Util.isZero;
 
 /**
  * The RayTracerBasic class is responsible for performing basic ray tracing operations.
+ * All the rays are traced in a compiled view of the scene (see {@link Scene#compile()}): either a view that is
+ * given to the tracer, which may be shared by several tracers, or a view of the tracer's scene that is compiled
+ * again at the beginning of every frame, so the changes of the scene between renders are seen.
  */
 
 public class RayTracerBasic extends RayTracerBase {
@@ -20,21 +25,86 @@ public class RayTracerBasic extends RayTracerBase {
     private static final double DELTA = 0.1;
     private static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double MIN_CALC_COLOR_K = 0.001;
+
+    /**
+     * The hit record of every rendering thread, reused for all the rays the thread traces
+     * (the intersection point is built from it before the next ray is traced).
+     */
+    private final ThreadLocal<Hit> hits = ThreadLocal.withInitial(Hit::new);
+
+    /**
+     * Whether the view was given to the tracer, or it is compiled from the tracer's scene for every frame.
+     */
+    private final boolean given;
+
+    /**
+     * The render-ready view of the scene that all the rays are traced in
+     * (null until the first frame of a tracer that compiles its view).
+     */
+    private volatile CompiledScene view;
+
     /**
-     * Constructs a RayTracerBasic object with the given scene.
+     * Constructs a RayTracerBasic object with the given scene. The scene is compiled when a frame begins
+     * (or when the first ray is traced), so geometries and lights may still be added after the tracer
+     * was constructed.
      *
      * @param scene the scene to trace rays in.
      */
     public RayTracerBasic(Scene scene) {
         super(scene);
+        given = false;
     }
 
+    /**
+     * Constructs a RayTracerBasic object with a scene that was compiled before (it may be shared by tracers).
+     *
+     * @param view the compiled scene to trace rays in.
+     */
+    public RayTracerBasic(CompiledScene view) {
+        super(view.getScene());
+        this.view = view;
+        given = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The view of the tracer's scene is compiled again (a view that was given to the tracer is kept),
+     * and the time of the compilation is counted as the build time of the acceleration.
+     */
     @Override
-    public Color traceRay(Ray ray) {
-        GeoPoint closestPoint = findClosestIntersection(ray);
-        return closestPoint == null ? scene.getBackground() : calcColor(closestPoint, ray);
+    public void beginFrame() {
+        if (!given) {
+            compile();
+        }
+    }
 
+    /**
+     * Compiles the view of the tracer's scene.
+     */
+    private void compile() {
+        long start = System.nanoTime();
+        CompiledScene compiled = scene.compile();
+        if (statistics != null) {
+            statistics.getIntersections().addBuildTime(System.nanoTime() - start);
+        }
+        view = compiled;
+    }
 
+    @Override
+    public Color traceRay(Ray ray) {
+        if (view == null) {
+            compile();
+        }
+        if (statistics == null) {
+            GeoPoint closestPoint = findClosestIntersection(ray);
+            return closestPoint == null ? view.getBackground() : calcColor(closestPoint, ray);
+        }
+        long start = System.nanoTime();
+        statistics.countRay(RenderStatistics.RayType.PRIMARY);
+        GeoPoint closestPoint = findClosestIntersection(ray);
+        Color color = closestPoint == null ? view.getBackground() : calcColor(closestPoint, ray);
+        statistics.addTracingTime(System.nanoTime() - start);
+        return color;
     }
 
     /**
@@ -46,7 +116,7 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Color calcColor(GeoPoint geo, Ray ray) {
         return calcColor(geo, ray, MAX_CALC_COLOR_LEVEL, Double3.ONE)
-                .add(scene.getAmbientLight().getIntensity());
+                .add(view.getAmbientIntensity());
     }
 
     /**
@@ -59,6 +129,9 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the color at the intersection point.
      */
     private Color calcColor(GeoPoint geo, Ray ray, int level, Double3 k) {
+        if (statistics != null) {
+            statistics.countDepth(MAX_CALC_COLOR_LEVEL - level + 1);
+        }
         Color color = geo.geometry.getEmission();
 
         Vector v = ray.getDir();
@@ -72,7 +145,11 @@ public class RayTracerBasic extends RayTracerBase {
         }
         Material material = geo.geometry.getMaterial();
         color = color.add(calcLocalEffects(geo,ray,k));
-        return level == 1 ? color : color.add(calcGlobalEffects(geo, material, n, v, nv, level, k));
+        int flags = view.getFlags(material);
+        if (level == 1 || (flags & (CompiledScene.REFLECTIVE | CompiledScene.REFRACTIVE)) == 0) {
+            return color;
+        }
+        return color.add(calcGlobalEffects(geo, material, flags, n, v, nv, level, k));
     }
 
     /**
@@ -94,19 +171,28 @@ public class RayTracerBasic extends RayTracerBase {
         Material material = geo.geometry.getMaterial();
         //option for soft shadows:
 
-        for (LightSource lightSource : scene.lights) {
+        for (LightSource lightSource : view.getLights()) {
+            //adaptive soft shadow: if the probe rays agree, the point isn't in the penumbra
+            //and the transparency they agree on is used for the whole beam
+            var probes = lightSource.getProbeVectors(point);
+            Double3 agreed = probes == null ? null : agreedTransparency(lightSource, probes, n, nv, geo);
+            if (agreed == Double3.ZERO || agreed != null && agreed.product(k).lowerThan(MIN_CALC_COLOR_K)) {
+                continue;
+            }
             Color rayBeam = Color.BLACK;//starting color for shade
+            Color intensity = lightSource.getIntensity(point);
             var vectors = lightSource.getLightVectors(point);
+            if (vectors.isEmpty()) {
+                continue;
+            }
+            //the shading is averaged over the whole beam, only its shadow rays are skipped when the probes agree
             for (var l : vectors) {
                 double nl = alignZero(n.dotProduct(l));
                 // check that light direction is towards shape and not behind
                 if (nl * nv > 0) { // sign(nl) == sing(nv)
-                    Double3 ktr = transparency(lightSource, l,n,geo);
+                    Double3 ktr = agreed != null ? agreed : transparency(lightSource, l,n,geo);
                     if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
-                        Double3 diff = calcDiffusive(material, nl);
-                        Double3 spec = calcSpecular(material, nl, n, l, v);
-                        Color Il = lightSource.getIntensity(geo.point).scale(diff.add(spec));
-                        rayBeam = rayBeam.add(Il.scale(ktr));
+                        rayBeam = rayBeam.add(calcLightEffect(intensity, material, n, l, nl, v, ktr));
                     }
                 }
             }
@@ -116,6 +202,59 @@ public class RayTracerBasic extends RayTracerBase {
         }
         return color;
     }
+    /**
+     * Calculates the diffuse and specular light that arrives at the intersection point along one light direction.
+     *
+     * @param intensity   the intensity of the light source at the intersection point.
+     * @param material    the material of the intersected geometry.
+     * @param n           the normal vector at the intersection point.
+     * @param l           the direction vector from the light source to the intersection point.
+     * @param nl          the dot product between the normal and light direction vectors.
+     * @param v           the direction vector of the ray.
+     * @param ktr         the transparency between the light source and the intersection point.
+     * @return the color of the light.
+     */
+    private Color calcLightEffect(Color intensity, Material material,
+                                  Vector n, Vector l, double nl, Vector v, Double3 ktr) {
+        Double3 diff = calcDiffusive(material, nl);
+        Double3 spec = calcSpecular(material, nl, n, l, v);
+        Color Il = intensity.scale(diff.add(spec));
+        return Il.scale(ktr);
+    }
+
+    /**
+     * Traces the probe rays of a light source (adaptive soft shadow) and checks whether they agree.
+     *
+     * @param lightSource the light source.
+     * @param probes      the probe directions from the light source, the first one from its center.
+     * @param n           the normal vector at the intersection point.
+     * @param nv          the dot product between the normal and view direction vectors.
+     * @param geo         the intersection point and geometry.
+     * @return the transparency that all the probes agree on ({@link Double3#ZERO} if all of them come from
+     * behind the geometry), or null if they disagree and the full beam should be traced.
+     */
+    private Double3 agreedTransparency(LightSource lightSource, List<Vector> probes, Vector n, double nv,
+                                       GeoPoint geo) {
+        Double3 agreed = null;
+        int behind = 0;
+        for (Vector l : probes) {
+            if (alignZero(n.dotProduct(l)) * nv > 0) {
+                Double3 ktr = transparency(lightSource, l, n, geo);
+                if (agreed == null) {
+                    agreed = ktr;
+                } else if (!agreed.equals(ktr)) {
+                    return null;
+                }
+            } else {
+                behind++;
+            }
+        }
+        if (behind == probes.size()) {
+            return Double3.ZERO;
+        }
+        return behind == 0 ? agreed : null;
+    }
+
     /**
      * Calculates the specular reflection component of the light on the geometry at the intersection point.
      *
@@ -150,6 +289,7 @@ public class RayTracerBasic extends RayTracerBase {
      *
      * @param geo      the intersection point and geometry.
      * @param material the material of the intersected geometry.
+     * @param flags    the flags of the material (see {@link CompiledScene#getFlags(Material)}).
      * @param n        the normal vector at the intersection point.
      * @param v        the direction vector of the ray.
      * @param nv       the dot product between the normal and view direction vectors.
@@ -157,15 +297,20 @@ public class RayTracerBasic extends RayTracerBase {
      * @param k        the accumulation factor for transparency and reflection effects.
      * @return the color resulting from the global effects.
      */
-    private Color calcGlobalEffects(GeoPoint geo, Material material, Vector n, Vector v, double nv, int level, Double3 k) {
+    private Color calcGlobalEffects(GeoPoint geo, Material material, int flags, Vector n, Vector v, double nv,
+                                    int level, Double3 k) {
         Color color = Color.BLACK;
-        Double3 kkr = material.getKr().product(k);
-        if (!kkr.lowerThan(MIN_CALC_COLOR_K))
+        Double3 kkr = (flags & CompiledScene.REFLECTIVE) == 0 ? Double3.ZERO : material.getKr().product(k);
+        if (!kkr.lowerThan(MIN_CALC_COLOR_K)) {
+            if (statistics != null) statistics.countRay(RenderStatistics.RayType.REFLECTED);
             color = color.add(calcGlobalEffect(constructReflectedRay(geo.point, v, n), level, material.getKr(), kkr));
-        Double3 kkt = material.getKt().product(k);
-        if (!kkt.lowerThan(MIN_CALC_COLOR_K))
+        }
+        Double3 kkt = (flags & CompiledScene.REFRACTIVE) == 0 ? Double3.ZERO : material.getKt().product(k);
+        if (!kkt.lowerThan(MIN_CALC_COLOR_K)) {
+            if (statistics != null) statistics.countRay(RenderStatistics.RayType.REFRACTED);
             color = color.add(
                     calcGlobalEffect(constructRefractedRay(geo.point, v, n), level, material.getKt(), kkt));
+        }
         return color;
     }
 
@@ -180,7 +325,7 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Color calcGlobalEffect(Ray ray, int level, Double3 kx, Double3 kkx) {
         GeoPoint geo = findClosestIntersection(ray);
-        return (geo == null ? scene.getBackground() : calcColor(geo, ray, level - 1, kkx)).scale(kx);
+        return (geo == null ? view.getBackground() : calcColor(geo, ray, level - 1, kkx)).scale(kx);
     }
 
     /**
@@ -220,7 +365,8 @@ public class RayTracerBasic extends RayTracerBase {
      * @param l           the direction vector from the intersection point to the light source.
      * @param n           the normal vector at the intersection point.
      * @param nv          the dot product between the normal and view direction vectors.
-     * @return true if the intersection point is unshaded, false otherwise.
+     * @return true if the intersection point is unshaded (enough light passes the geometries on the way
+     * to the light source), false otherwise.
      */
     private boolean unshaded(GeoPoint gp, LightSource lightSource, Vector l, Vector n, double nv) {
         // from point to light source
@@ -232,19 +378,7 @@ public class RayTracerBasic extends RayTracerBase {
         Ray lightRay = new Ray(pointRay, lightDirection);
 
         double maxDistance = lightSource.getDistance(gp.point);
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay, maxDistance);
-
-        if (intersections == null) {
-            return true;
-        }
-
-        for (var item : intersections) {
-            if (item.geometry.getMaterial().getKt().lowerThan(MIN_CALC_COLOR_K)) {
-                return false;
-            }
-        }
-
-        return true;
+        return !findTransparency(lightRay, maxDistance).lowerThan(MIN_CALC_COLOR_K);
     }
 
     /**
@@ -263,19 +397,26 @@ public class RayTracerBasic extends RayTracerBase {
         Ray lightRay = new Ray(point, n, lightDirection);
 
         double maxDistance = lightSource.getDistance(point);
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay, maxDistance);
-
-        Double3 ktr = Double3.ONE;
-
-        if (intersections == null)
-            return ktr;
+        return findTransparency(lightRay, maxDistance);
+    }
 
-        for (var geo : intersections) {
-            ktr = ktr.product(geo.geometry.getMaterial().getKt());
-            if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                return Double3.ZERO;
-            }
+    /**
+     * Calculates the transparency of the geometries along a shadow ray.
+     * The search stops at the first opaque geometry instead of collecting all the intersections.
+     *
+     * @param lightRay    the ray from the shaded point towards the light source.
+     * @param maxDistance the distance of the light source.
+     * @return the transparency factor.
+     */
+    private Double3 findTransparency(Ray lightRay, double maxDistance) {
+        if (statistics == null) {
+            return view.getGeometries().findTransparency(lightRay, maxDistance, MIN_CALC_COLOR_K);
         }
+        long start = System.nanoTime();
+        statistics.countRay(RenderStatistics.RayType.SHADOW);
+        Double3 ktr = view.getGeometries().findTransparency(lightRay, maxDistance, MIN_CALC_COLOR_K,
+                statistics.getIntersections());
+        statistics.addIntersectionTime(System.nanoTime() - start);
         return ktr;
     }
 
@@ -286,7 +427,15 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the closest intersection point, or null if no intersection is found.
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(ray);
-        return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+        Hit hit = hits.get();
+        if (statistics == null) {
+            return view.getGeometries().findClosestHit(ray, Double.POSITIVE_INFINITY, hit) ? hit.toGeoPoint(ray) : null;
+        }
+        long start = System.nanoTime();
+        boolean found = view.getGeometries().findClosestHit(ray, Double.POSITIVE_INFINITY, hit,
+                statistics.getIntersections());
+        statistics.addIntersectionTime(System.nanoTime() - start);
+        statistics.countHit(found);
+        return found ? hit.toGeoPoint(ray) : null;
     }
-}
\ No newline at end of file
+}
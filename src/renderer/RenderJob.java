@@ -0,0 +1,63 @@
+package renderer;
+
+import scene.Scene;
+
+/**
+ * A complete description of a rendering: a scene and a camera that is ready to render it
+ * (with its image writer, its ray tracer and its rendering settings), as a job file describes it.
+ */
+public class RenderJob {
+    private final String name;
+    private final Scene scene;
+    private final Camera camera;
+
+    /**
+     * Constructs a job.
+     *
+     * @param name   the name of the job.
+     * @param scene  the scene.
+     * @param camera the camera, with its image writer and its ray tracer of the scene.
+     */
+    public RenderJob(String name, Scene scene, Camera camera) {
+        this.name = name;
+        this.scene = scene;
+        this.camera = camera;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the name of the job.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the scene of the job.
+     */
+    public Scene getScene() {
+        return scene;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the camera of the job.
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Renders the image of the job and writes it.
+     *
+     * @return the RenderJob object.
+     */
+    public RenderJob render() {
+        camera.renderImage().writeToImage();
+        return this;
+    }
+}
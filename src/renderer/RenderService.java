@@ -0,0 +1,325 @@
+package renderer;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jsonConverting.JsonSceneReader;
+import scene.SceneCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An HTTP render service on the loopback address, so local tools may render images without starting a JVM
+ * for every image. A request {@code POST /render} has a JSON render job as its body (see
+ * {@link JsonSceneReader#readJob(java.io.Reader, String)}), and its response is the rendered png image.
+ * All the requests are rendered on one shared pool (see {@link BatchRenderer}).
+ * <p>
+ * The images are kept in a cache of a limited size, which drops the least recently used images first. The key
+ * of an image is the hash of the scene, the camera, the resolution and the supersampling settings of its job,
+ * so a repeated request (even with other names, threads or formatting) is answered without tracing it again.
+ * If the job names a scene file, the content of the file is a part of the key instead of its name, so a changed
+ * file is rendered again; the files of the meshes of a scene aren't a part of the key.
+ * A request for an image that is being rendered waits for it instead of rendering it again. The {@code X-Cache}
+ * header of a response tells whether its image was rendered for it ({@code MISS}) or not ({@code HIT}),
+ * and {@code GET /stats} returns the counters of the cache.
+ */
+public class RenderService implements AutoCloseable {
+    /**
+     * The settings of the "render" section of a job that change the image.
+     */
+    private static final List<String> QUALITY_SETTINGS = List.of("supersamplingDepth", "supersamplingThreshold");
+
+    private final HttpServer server;
+    private final BatchRenderer renderer;
+    /**
+     * The threads of the requests, which wait for the renderer.
+     */
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    /**
+     * The cached images by their keys, from the least recently used.
+     */
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final long cacheCapacity;
+    private long cacheSize = 0;
+    /**
+     * The images that are being rendered, by their keys.
+     */
+    private final Map<String, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Starts a render service on the loopback address.
+     *
+     * @param port          the port (0 - any free port, see {@link #getPort()}).
+     * @param threads       the amount of rendering threads (0 - a thread per available processor).
+     * @param cacheCapacity the maximal total size of the cached images in bytes.
+     * @throws IOException              if the server can't be started on the port.
+     * @throws IllegalArgumentException if the amount of threads or the capacity is negative.
+     */
+    public RenderService(int port, int threads, long cacheCapacity) throws IOException {
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("The capacity of the cache can't be negative");
+        }
+        this.cacheCapacity = cacheCapacity;
+        renderer = new BatchRenderer(threads, 256);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/render", this::handleRender);
+        server.createContext("/stats", this::handleStats);
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the port the service listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of images that were served without rendering them.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of images that were rendered.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Answers a request of an image.
+     */
+    private void handleRender(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendText(exchange, 405, "Use POST with a JSON render job");
+                return;
+            }
+            String job = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String key;
+            try {
+                key = key(job);
+            } catch (JsonParseException | IllegalStateException e) {
+                sendText(exchange, 400, "Invalid JSON: " + e.getMessage());
+                return;
+            } catch (IOException e) {
+                sendText(exchange, 400, "Invalid render job: " + e.getMessage());
+                return;
+            }
+            byte[] png = cached(key);
+            boolean rendered = png == null;
+            try {
+                if (rendered) {
+                    CompletableFuture<byte[]> image = new CompletableFuture<>();
+                    CompletableFuture<byte[]> running = pending.putIfAbsent(key, image);
+                    if (running != null) {
+                        png = running.join();
+                        rendered = false;
+                    } else {
+                        png = render(key, job, image);
+                    }
+                }
+            } catch (IOException e) {
+                sendText(exchange, 400, "Invalid render job: " + e.getMessage());
+                return;
+            } catch (CompletionException e) {
+                sendText(exchange, e.getCause() instanceof IOException ? 400 : 500,
+                        "Rendering failed: " + e.getCause().getMessage());
+                return;
+            } catch (RuntimeException e) {
+                sendText(exchange, 500, "Rendering failed: " + e);
+                return;
+            }
+            (rendered ? misses : hits).incrementAndGet();
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            exchange.getResponseHeaders().set("X-Cache", rendered ? "MISS" : "HIT");
+            exchange.sendResponseHeaders(200, png.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(png);
+            }
+        }
+    }
+
+    /**
+     * Renders the image of a job and caches it, completing the pending image of the key for the requests
+     * that wait for it.
+     *
+     * @param key   the key of the image.
+     * @param job   the JSON render job.
+     * @param image the pending image of the key.
+     * @return the png image.
+     */
+    private byte[] render(String key, String job, CompletableFuture<byte[]> image) throws IOException {
+        try {
+            // the image may have been cached after it was looked for, and before it was pending
+            byte[] png = cached(key);
+            if (png == null) {
+                RenderJob renderJob = JsonSceneReader.readJob(new StringReader(job), "render");
+                BatchRenderer.Report report;
+                try {
+                    report = renderer.submit(renderJob, false).join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Rendering was interrupted", e);
+                }
+                if (report.getError() instanceof RuntimeException error) {
+                    throw error;
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                renderJob.getCamera().getImageWriter().writePng(out);
+                png = out.toByteArray();
+                cache(key, png);
+            }
+            image.complete(png);
+            return png;
+        } catch (IOException | RuntimeException e) {
+            image.completeExceptionally(e);
+            throw e;
+        } finally {
+            pending.remove(key);
+        }
+    }
+
+    /**
+     * Calculates the key of the image of a job: the hash of the parts of the job that change the image,
+     * in the compact form of the JSON parser. A scene file that the job names is a part of the key by the hash
+     * of its content.
+     *
+     * @throws IOException if the scene file that the job names can't be read.
+     */
+    private static String key(String job) throws IOException {
+        JsonObject root = JsonParser.parseString(job).getAsJsonObject();
+        JsonObject key = new JsonObject();
+        if (root.get("scene") instanceof JsonPrimitive file && file.isString()) {
+            // the file is relative to the working directory, like in JsonSceneReader#readJob(Reader, String)
+            key.addProperty("sceneFile", SceneCache.hash(Path.of(file.getAsString())));
+        } else {
+            key.add("scene", root.get("scene"));
+        }
+        key.add("camera", root.get("camera"));
+        if (root.get("image") instanceof JsonObject image) {
+            key.add("nX", image.get("nX"));
+            key.add("nY", image.get("nY"));
+        }
+        if (root.get("render") instanceof JsonObject render) {
+            for (String setting : QUALITY_SETTINGS) {
+                key.add(setting, render.get(setting));
+            }
+        }
+        return SceneCache.hash(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Looks for a cached image, making it the most recently used.
+     *
+     * @return the png image, or null if it isn't cached.
+     */
+    private synchronized byte[] cached(String key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Caches an image, dropping the least recently used images while the cache is over its capacity.
+     * An image that is bigger than the whole cache isn't cached.
+     */
+    private synchronized void cache(String key, byte[] png) {
+        if (png.length > cacheCapacity) {
+            return;
+        }
+        byte[] old = cache.put(key, png);
+        cacheSize += png.length - (old == null ? 0 : old.length);
+        Iterator<byte[]> eldest = cache.values().iterator();
+        while (cacheSize > cacheCapacity) {
+            cacheSize -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Answers a request of the counters of the cache.
+     */
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int images;
+            long size;
+            synchronized (this) {
+                images = cache.size();
+                size = cacheSize;
+            }
+            sendText(exchange, 200, String.format("hits: %d%nmisses: %d%nimages: %d%nbytes: %d%n",
+                    hits.get(), misses.get(), images, size));
+        }
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Stops the service, the rendering threads and the threads of the requests.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        renderer.close();
+        handlers.shutdown();
+    }
+
+    /**
+     * Starts a render service until the process is stopped.
+     *
+     * @param args optional {@code --port N} (default 8080), {@code --threads N} (default 0 - a thread per
+     *             processor) and {@code --cache MB} (default 256).
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int threads = 0;
+        long cacheMegabytes = 256;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--cache" -> cacheMegabytes = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        RenderService service = new RenderService(port, threads, cacheMegabytes << 20);
+        System.out.println("Rendering on http://localhost:" + service.getPort() + "/render");
+    }
+}
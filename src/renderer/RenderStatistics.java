@@ -0,0 +1,259 @@
+package renderer;
+
+import geometries.IntersectionStatistics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the work that is done while a frame is rendered: the traced rays of every kind, how many of them hit
+ * a geometry, the deepest recursion of the color calculation, the intersection tests per type of geometry,
+ * the time that was spent in the intersections search and in the shading, and the time of building
+ * the acceleration structures of the geometries.
+ * All the counters are {@link LongAdder}s (or a {@link LongAccumulator}), so all the rendering threads
+ * may count at once without contention. The statistics are collected only if they are given to the camera
+ * (see {@link Camera#setStatistics(RenderStatistics)}), otherwise the renderer doesn't count anything.
+ */
+public class RenderStatistics {
+    /**
+     * The kinds of the traced rays.
+     */
+    public enum RayType {
+        /**
+         * A ray from the camera through the view plane.
+         */
+        PRIMARY,
+        /**
+         * A ray that is reflected from a geometry.
+         */
+        REFLECTED,
+        /**
+         * A ray that passes through a transparent geometry.
+         */
+        REFRACTED,
+        /**
+         * A ray from a shaded point towards a light source.
+         */
+        SHADOW
+    }
+
+    private final LongAdder[] rays = new LongAdder[RayType.values().length];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder intersectionTime = new LongAdder();
+    private final LongAdder tracingTime = new LongAdder();
+    private final IntersectionStatistics intersections = new IntersectionStatistics();
+    private volatile long frameTime;
+
+    /**
+     * Constructs statistics with all the counters at zero.
+     */
+    public RenderStatistics() {
+        for (int i = 0; i < rays.length; i++) {
+            rays[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Counts a traced ray.
+     *
+     * @param type the kind of the ray.
+     */
+    void countRay(RayType type) {
+        rays[type.ordinal()].increment();
+    }
+
+    /**
+     * Counts the result of a closest intersection search.
+     *
+     * @param hit whether a geometry was found.
+     */
+    void countHit(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    /**
+     * Records the recursion level of a color calculation.
+     *
+     * @param depth the level, 1 for the point that a primary ray hits.
+     */
+    void countDepth(int depth) {
+        maxDepth.accumulate(depth);
+    }
+
+    /**
+     * Adds time that was spent in the intersections search (for the closest intersections and for the shadows).
+     *
+     * @param nanos the time in nanoseconds.
+     */
+    void addIntersectionTime(long nanos) {
+        intersectionTime.add(nanos);
+    }
+
+    /**
+     * Adds time that was spent in tracing a primary ray, including its intersections search.
+     *
+     * @param nanos the time in nanoseconds.
+     */
+    void addTracingTime(long nanos) {
+        tracingTime.add(nanos);
+    }
+
+    /**
+     * Setter.
+     *
+     * @param nanos the wall clock time of rendering the frame in nanoseconds.
+     */
+    void setFrameTime(long nanos) {
+        frameTime = nanos;
+    }
+
+    /**
+     * Getter.
+     *
+     * @param type the kind of the rays.
+     * @return the amount of traced rays of the kind.
+     */
+    public long getRays(RayType type) {
+        return rays[type.ordinal()].sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of traced rays of all the kinds.
+     */
+    public long getRays() {
+        long sum = 0;
+        for (LongAdder adder : rays) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of primary, reflected and refracted rays that hit a geometry.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of primary, reflected and refracted rays that didn't hit any geometry.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the deepest recursion level of the color calculation that was reached.
+     */
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the time that all the threads spent in the intersections search, in nanoseconds.
+     */
+    public long getIntersectionTime() {
+        return intersectionTime.sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the time that all the threads spent in the shading (the tracing time besides the intersections
+     * search), in nanoseconds.
+     */
+    public long getShadingTime() {
+        return Math.max(0, tracingTime.sum() - intersectionTime.sum());
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the time that was spent in building the acceleration structures of the geometries during the frame
+     * (0 if they were built before it), in nanoseconds.
+     */
+    public long getBuildTime() {
+        return intersections.getBuildTime();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the wall clock time of rendering the last frame, in nanoseconds.
+     */
+    public long getFrameTime() {
+        return frameTime;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the counters of the intersection tests per type of geometry.
+     */
+    public IntersectionStatistics getIntersections() {
+        return intersections;
+    }
+
+    /**
+     * Sets all the counters to zero (it shouldn't be called during a render).
+     */
+    public void reset() {
+        for (LongAdder adder : rays) {
+            adder.reset();
+        }
+        hits.reset();
+        misses.reset();
+        maxDepth.reset();
+        intersectionTime.reset();
+        tracingTime.reset();
+        intersections.reset();
+        frameTime = 0;
+    }
+
+    /**
+     * Builds a readable report of the counters.
+     *
+     * @return the report, one counter per line.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        double seconds = frameTime / 1e9;
+        long total = getRays();
+        report.append(String.format("frame time: %.3f s%n", seconds));
+        report.append(String.format("rays: %d (%.0f rays/s)%n", total, seconds > 0 ? total / seconds : 0));
+        for (RayType type : RayType.values()) {
+            report.append(String.format("  %s: %d%n", type.name().toLowerCase(), getRays(type)));
+        }
+        report.append(String.format("hits: %d, misses: %d%n", getHits(), getMisses()));
+        report.append(String.format("max depth: %d%n", getMaxDepth()));
+        long intersection = getIntersectionTime();
+        long shading = getShadingTime();
+        double traced = Math.max(1, intersection + shading);
+        report.append(String.format("intersection: %.3f s (%.1f%%), shading: %.3f s (%.1f%%)%n",
+                intersection / 1e9, 100 * intersection / traced, shading / 1e9, 100 * shading / traced));
+        report.append(String.format("acceleration build: %.3f s%n", getBuildTime() / 1e9));
+        report.append(String.format("intersection tests: %d", intersections.getTests()));
+        for (Class<?> type : intersections.getTypes()) {
+            report.append(String.format("%n  %s: %d (%d hits)", type.getSimpleName(),
+                    intersections.getTests(type), intersections.getHits(type)));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+}
@@ -0,0 +1,151 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.Intersectable;
+import lighting.LightSource;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A render-ready view of a scene (see {@link Scene#compile()}): a snapshot that later changes of the fields of
+ * the scene don't change. The nested collections of geometries are flattened into a single collection whose
+ * acceleration structure is already built, the lights and the geometries are kept in arrays, and the flags of
+ * the materials of the geometries are calculated once instead of for every shaded point.
+ * <p>
+ * The geometries, the lights and the materials themselves aren't copied, so they shouldn't be changed
+ * while the view is used. The view isn't changed by rendering either, so it may be shared by renders that run
+ * at once; every render counts its intersection tests by passing its own counters to the searches
+ * (see {@link Geometries#findClosestHit(primitives.Ray, double, geometries.Intersectable.Hit,
+ * geometries.IntersectionStatistics)}).
+ */
+public final class CompiledScene {
+    /**
+     * The flag of a material that reflects light (its reflection coefficient isn't zero).
+     */
+    public static final int REFLECTIVE = 1;
+    /**
+     * The flag of a material that refracts light (its transparency isn't zero). A material without it is opaque.
+     */
+    public static final int REFRACTIVE = 2;
+
+    private final Scene scene;
+    private final Color background;
+    private final Color ambientIntensity;
+    private final LightSource[] lights;
+    private final List<LightSource> lightList;
+    private final Intersectable[] members;
+    private final Geometries geometries;
+    /**
+     * The flags of the materials of the geometries, by identity.
+     */
+    private final Map<Material, Integer> materialFlags = new IdentityHashMap<>();
+
+    /**
+     * Compiles a scene.
+     *
+     * @param scene the scene.
+     */
+    CompiledScene(Scene scene) {
+        this.scene = scene;
+        background = scene.background;
+        ambientIntensity = scene.ambientLight.getIntensity();
+        lights = scene.lights.toArray(new LightSource[0]);
+        lightList = Collections.unmodifiableList(Arrays.asList(lights));
+        geometries = scene.geometries.flatten();
+        members = geometries.getGeometries().toArray(new Intersectable[0]);
+        for (Intersectable member : members) {
+            if (member instanceof Geometry geometry) {
+                materialFlags.computeIfAbsent(geometry.getMaterial(), CompiledScene::calculateFlags);
+            }
+        }
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the scene the view was compiled from.
+     */
+    public Scene getScene() {
+        return scene;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the background color of the scene.
+     */
+    public Color getBackground() {
+        return background;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the intensity of the ambient light of the scene.
+     */
+    public Color getAmbientIntensity() {
+        return ambientIntensity;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return a read-only list of the lights, which is backed by their array.
+     */
+    public List<LightSource> getLights() {
+        return lightList;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of geometries after the nested collections were flattened.
+     */
+    public int getGeometriesCount() {
+        return members.length;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the flat collection of the geometries, whose acceleration structure is built
+     * (it shouldn't be changed).
+     */
+    public Geometries getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * Returns the flags of a material, which are calculated once for the materials of the geometries of the
+     * scene (and for every call for other materials).
+     *
+     * @param material the material.
+     * @return the flags {@link #REFLECTIVE} and {@link #REFRACTIVE} that apply to the material.
+     */
+    public int getFlags(Material material) {
+        Integer flags = materialFlags.get(material);
+        return flags != null ? flags : calculateFlags(material);
+    }
+
+    /**
+     * Calculates the flags of a material.
+     *
+     * @param material the material.
+     * @return the flags {@link #REFLECTIVE} and {@link #REFRACTIVE} that apply to the material.
+     */
+    private static int calculateFlags(Material material) {
+        int flags = material.getKt().equals(Double3.ZERO) ? 0 : REFRACTIVE;
+        if (!material.getKr().equals(Double3.ZERO)) {
+            flags |= REFLECTIVE;
+        }
+        return flags;
+    }
+}
@@ -88,6 +88,17 @@ public class Scene {
         return this;
     }
 
+    /**
+     * Compiles the scene into a render-ready view (see {@link CompiledScene}): the geometries are flattened
+     * and their acceleration structure is built. The view is a snapshot, so the scene should be complete
+     * before it is compiled.
+     *
+     * @return the view of the scene.
+     */
+    public CompiledScene compile() {
+        return new CompiledScene(this);
+    }
+
     /**
      * A builder class for constructing Scene objects.
      * (for builder pattern)
@@ -0,0 +1,307 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.GeometryCodec;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Vector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A cache of prepared scenes in binary files, so a big scene is parsed and its hierarchies are built only once.
+ * The file holds the hash of the source file the scene was loaded from, the background, the lights and the
+ * geometries with their hierarchies (see {@link GeometryCodec}). It is read through a memory mapping,
+ * so the big arrays are copied straight from the page cache, and it is used only while the hash of the source
+ * file is the same - any change of the source makes the scene be loaded and cached again.
+ */
+public final class SceneCache {
+    /**
+     * Loads a scene from a source file.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Loads a scene.
+         *
+         * @param source the path of the source file.
+         * @return the scene.
+         * @throws IOException if the file can't be read or its content is invalid.
+         */
+        Scene load(Path source) throws IOException;
+    }
+
+    /**
+     * The beginning of a cache file ("RTSC").
+     */
+    private static final int MAGIC = 0x52545343;
+    /**
+     * The version of the format, which changes whenever the format does, so old files are ignored.
+     */
+    private static final int VERSION = 1;
+
+    private static final byte DIRECTIONAL_LIGHT = 0;
+    private static final byte POINT_LIGHT = 1;
+    private static final byte SPOT_LIGHT = 2;
+
+    private SceneCache() {
+    }
+
+    /**
+     * Loads a scene through its cache file: if the cache file was made from the current content of the source file
+     * it is read, otherwise the scene is loaded from the source file by the loader and the cache file is written.
+     *
+     * @param source the path of the source file of the scene.
+     * @param cache  the path of the cache file.
+     * @param loader the loader of the source file.
+     * @return the scene.
+     * @throws IllegalArgumentException if the loaded scene has a kind of geometry or light that can't be cached.
+     * @throws IOException              if the source file can't be read, or the cache file can't be written.
+     */
+    public static Scene load(Path source, Path cache, Loader loader) throws IOException {
+        String hash = hash(source);
+        if (Files.isRegularFile(cache)) {
+            try {
+                Scene scene = read(cache, hash);
+                if (scene != null) {
+                    return scene;
+                }
+            } catch (IOException e) {
+                // a damaged cache file is written again
+            }
+        }
+        Scene scene = loader.load(source);
+        write(scene, hash, cache);
+        return scene;
+    }
+
+    /**
+     * Calculates the hash of the content of a file.
+     *
+     * @param file the path of the file.
+     * @return the SHA-256 hash as a hexadecimal string.
+     * @throws IOException if the file can't be read.
+     */
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] block = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(block); read > 0; read = in.read(block)) {
+                digest.update(block, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Calculates the hash of content in memory.
+     *
+     * @param data the content.
+     * @return the SHA-256 hash as a hexadecimal string.
+     */
+    public static String hash(byte[] data) {
+        return HexFormat.of().formatHex(newDigest().digest(data));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 isn't supported", e);
+        }
+    }
+
+    /**
+     * Writes a scene to a cache file. The file is written under a temporary name and then renamed,
+     * so a reader never sees a partial file. The hierarchies of the geometries are built if they weren't yet.
+     *
+     * @param scene the scene.
+     * @param hash  the hash of the source file of the scene (see {@link #hash(Path)}).
+     * @param cache the path of the cache file.
+     * @throws IllegalArgumentException if the scene has a kind of geometry or light that can't be cached.
+     * @throws IOException              if the file can't be written.
+     */
+    public static void write(Scene scene, String hash, Path cache) throws IOException {
+        Path directory = cache.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, cache.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(hash);
+                out.writeUTF(scene.name);
+                writeColor(out, scene.background);
+                writeColor(out, scene.ambientLight.getIntensity());
+                out.writeInt(scene.lights.size());
+                for (LightSource light : scene.lights) {
+                    writeLight(out, light);
+                }
+                GeometryCodec.write(scene.geometries, out);
+            }
+            Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads a scene from a cache file, whatever source it was made from.
+     *
+     * @param cache the path of the cache file.
+     * @return the scene.
+     * @throws IOException if the file can't be read or it isn't a valid cache file.
+     */
+    public static Scene read(Path cache) throws IOException {
+        return read(cache, null);
+    }
+
+    /**
+     * Reads a scene from a cache file if it was made from a source with the given hash.
+     *
+     * @param cache the path of the cache file.
+     * @param hash  the expected hash of the source, or null for any source.
+     * @return the scene, or null if the file was made from a different source.
+     * @throws IOException if the file can't be read or it isn't a valid cache file.
+     */
+    private static Scene read(Path cache, String hash) throws IOException {
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("The scene cache file is too big to be mapped: " + cache);
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION)
+                throw new IOException("Not a scene cache file of the current version: " + cache);
+            String source = readString(in);
+            if (hash != null && !hash.equals(source)) {
+                return null;
+            }
+            Scene.SceneBuilder builder = new Scene.SceneBuilder(readString(in))
+                    .setBackground(readColor(in))
+                    .setAmbientLight(new AmbientLight(readColor(in), Double3.ONE));
+            int count = in.getInt();
+            if (count < 0)
+                throw new IOException("Invalid amount of lights in the scene cache file");
+            List<LightSource> lights = new LinkedList<>();
+            for (int i = 0; i < count; i++) {
+                lights.add(readLight(in));
+            }
+            Geometries geometries = GeometryCodec.read(in);
+            if (in.hasRemaining())
+                throw new IOException("Unexpected data after the scene in the cache file");
+            return builder.setGeometries(geometries).build().setLights(lights);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of the scene cache file: " + cache);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid scene cache file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a light: its kind, its intensity and the parameters of its kind.
+     */
+    private static void writeLight(DataOutputStream out, LightSource light) throws IOException {
+        Class<?> type = light.getClass();
+        if (type == DirectionalLight.class) {
+            DirectionalLight directional = (DirectionalLight) light;
+            out.writeByte(DIRECTIONAL_LIGHT);
+            writeColor(out, directional.getIntensity());
+            writePoint(out, directional.getDirection());
+            return;
+        }
+        if (type != PointLight.class && type != SpotLight.class)
+            throw new IllegalArgumentException("Can't write a light of the type " + type.getName());
+        PointLight point = (PointLight) light;
+        out.writeByte(type == SpotLight.class ? SPOT_LIGHT : POINT_LIGHT);
+        writeColor(out, point.getIntensity());
+        writePoint(out, point.getPosition());
+        out.writeDouble(point.getKc());
+        out.writeDouble(point.getKl());
+        out.writeDouble(point.getKq());
+        out.writeDouble(point.getSize());
+        out.writeInt(point.getSamples());
+        out.writeBoolean(point.isAdaptiveShadow());
+        if (light instanceof SpotLight spot) {
+            writePoint(out, spot.getDirection());
+            out.writeDouble(spot.getNarrowBeam());
+        }
+    }
+
+    /**
+     * Reads a light.
+     */
+    private static LightSource readLight(ByteBuffer in) throws IOException {
+        byte kind = in.get();
+        if (kind == DIRECTIONAL_LIGHT) {
+            return new DirectionalLight(readColor(in), readVector(in));
+        }
+        if (kind != POINT_LIGHT && kind != SPOT_LIGHT)
+            throw new IOException("Invalid kind of a light in the scene cache file: " + kind);
+        Color intensity = readColor(in);
+        Point position = readPoint(in);
+        double kc = in.getDouble(), kl = in.getDouble(), kq = in.getDouble(), size = in.getDouble();
+        int samples = in.getInt();
+        boolean adaptiveShadow = in.get() != 0;
+        PointLight light = kind == POINT_LIGHT ? new PointLight(intensity, position)
+                : new SpotLight(intensity, position, readVector(in)).setNarrowBeam(in.getDouble());
+        return light.setKc(kc).setKl(kl).setKq(kq).setSize(size).setSamples(samples)
+                .setAdaptiveShadow(adaptiveShadow);
+    }
+
+    private static void writeColor(DataOutputStream out, Color color) throws IOException {
+        Double3 rgb = color.getRgb();
+        out.writeDouble(rgb.getD1());
+        out.writeDouble(rgb.getD2());
+        out.writeDouble(rgb.getD3());
+    }
+
+    private static Color readColor(ByteBuffer in) {
+        return new Color(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    private static void writePoint(DataOutputStream out, Point point) throws IOException {
+        out.writeDouble(point.getX());
+        out.writeDouble(point.getY());
+        out.writeDouble(point.getZ());
+    }
+
+    private static Point readPoint(ByteBuffer in) {
+        return new Point(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    private static Vector readVector(ByteBuffer in) {
+        return new Vector(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a string that was written by {@link DataOutputStream#writeUTF(String)}
+     * (the strings of the cache are plain text, so their modified UTF-8 is the standard one).
+     */
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
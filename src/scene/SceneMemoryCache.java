@@ -0,0 +1,99 @@
+package scene;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of compiled scenes in memory (see {@link Scene#compile()}), so consecutive jobs that render the same
+ * scene from different cameras don't load it and build its acceleration structure again. A scene is kept by the
+ * hash of the content of its source file (see {@link SceneCache#hash(Path)}), so a changed file is loaded again,
+ * and the cache keeps a limited amount of scenes, dropping the least recently used scene first.
+ * <p>
+ * The cached scenes are shared by all their users, so they shouldn't be changed; the jobs that render a shared
+ * scene at once count their intersection tests apart (see {@link CompiledScene}).
+ * The cache may be used by several threads; if a scene is requested again while it is loaded, it is loaded twice.
+ */
+public class SceneMemoryCache {
+    /**
+     * The cached scenes by the hashes of their sources, from the least recently used.
+     */
+    private final LinkedHashMap<String, CompiledScene> scenes = new LinkedHashMap<>(16, 0.75f, true);
+    private final int capacity;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity the maximal amount of cached scenes.
+     * @throws IllegalArgumentException if the capacity isn't positive.
+     */
+    public SceneMemoryCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the cache must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the compiled scene of a source file: the cached scene of its content, or the scene that the loader
+     * loads from it (which is compiled and cached).
+     *
+     * @param source the path of the source file.
+     * @param loader the loader of the source.
+     * @return the compiled scene.
+     * @throws IOException if the source can't be read or loaded.
+     */
+    public CompiledScene get(Path source, SceneCache.Loader loader) throws IOException {
+        String hash = SceneCache.hash(source);
+        CompiledScene scene;
+        synchronized (this) {
+            scene = scenes.get(hash);
+        }
+        if (scene != null) {
+            hits.incrementAndGet();
+            return scene;
+        }
+        misses.incrementAndGet();
+        scene = loader.load(source).compile();
+        synchronized (this) {
+            scenes.put(hash, scene);
+            Iterator<CompiledScene> eldest = scenes.values().iterator();
+            while (scenes.size() > capacity) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return scene;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of requested scenes that were found in the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of requested scenes that were loaded.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the amount of cached scenes.
+     */
+    public synchronized int size() {
+        return scenes.size();
+    }
+}
@@ -0,0 +1,92 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing BoundingBox class and the bounding boxes of the shapes.
+ */
+class BoundingBoxTest {
+
+    /**
+     * Test method for {@link Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Sphere
+        BoundingBox box = new Sphere(2, new Point(1, 2, 3)).getBoundingBox();
+        assertEquals(new Point(-1, 0, 1), box.getMin(), "TC01: Wrong sphere box");
+        assertEquals(new Point(3, 4, 5), box.getMax(), "TC01: Wrong sphere box");
+
+        // TC02: Triangle
+        box = new Triangle(new Point(0, 0, 1), new Point(2, 0, 0), new Point(0, 3, 0)).getBoundingBox();
+        assertEquals(new Point(0, 0, 0), box.getMin(), "TC02: Wrong triangle box");
+        assertEquals(new Point(2, 3, 1), box.getMax(), "TC02: Wrong triangle box");
+
+        // TC03: Polygon
+        box = new Polygon(new Point(0, 0, 1), new Point(1, 0, 1), new Point(1, 1, 1), new Point(0, 1, 1))
+                .getBoundingBox();
+        assertEquals(new Point(0, 0, 1), box.getMin(), "TC03: Wrong polygon box");
+        assertEquals(new Point(1, 1, 1), box.getMax(), "TC03: Wrong polygon box");
+
+        // TC04: Cylinder along the y axis
+        box = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 1, 0)), 5).getBoundingBox();
+        assertEquals(new Point(-1, 0, -1), box.getMin(), "TC04: Wrong cylinder box");
+        assertEquals(new Point(1, 5, 1), box.getMax(), "TC04: Wrong cylinder box");
+
+        // TC05: Plane and tube are unbounded
+        assertNull(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).getBoundingBox(), "TC05: Plane is bounded");
+        assertNull(new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox(),
+                "TC05: Tube is bounded");
+
+        // TC06: Geometries with a plane is unbounded, without it - the union of the boxes
+        Geometries geometries = new Geometries(new Sphere(1, new Point(0, 0, 0)), new Sphere(1, new Point(5, 0, 0)));
+        box = geometries.getBoundingBox();
+        assertEquals(new Point(-1, -1, -1), box.getMin(), "TC06: Wrong geometries box");
+        assertEquals(new Point(6, 1, 1), box.getMax(), "TC06: Wrong geometries box");
+        geometries.add(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)));
+        assertFalse(geometries.isBounded(), "TC06: Geometries with a plane is bounded");
+    }
+
+    /**
+     * Test method for {@link BoundingBox#intersects(Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        BoundingBox box = new BoundingBox(-1, -1, -1, 1, 1, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-5, 0.5, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC01: The ray should cross the box");
+        // TC02: The ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-5, 3, 0), new Vector(1, 0.1, 0)), Double.POSITIVE_INFINITY),
+                "TC02: The ray should miss the box");
+        // TC03: The box is behind the ray
+        assertFalse(box.intersects(new Ray(new Point(-5, 0, 0), new Vector(-1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC03: The box is behind the ray");
+        // TC04: The ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0, 0, 0), new Vector(1, 2, 3)), Double.POSITIVE_INFINITY),
+                "TC04: The ray starts inside the box");
+        // TC05: The box is farther than the maximal distance
+        assertFalse(box.intersects(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0)), 3),
+                "TC05: The box is too far");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Flat box (of a polygon that is parallel to the xy plane)
+        BoundingBox flat = new BoundingBox(-1, -1, 2, 1, 1, 2);
+        assertTrue(flat.intersects(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY),
+                "TC10: The ray should cross the flat box");
+        // TC11: The ray is parallel to a face of the box and passes outside it
+        assertFalse(box.intersects(new Ray(new Point(-5, 2, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC11: The ray should miss the box");
+        // TC12: The ray goes along a face of the box
+        assertTrue(box.intersects(new Ray(new Point(-5, 1, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "TC12: The ray touches the box");
+    }
+}
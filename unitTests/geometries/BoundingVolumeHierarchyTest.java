@@ -0,0 +1,47 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Unit tests for geometries.BoundingVolumeHierarchy class
+ */
+class BoundingVolumeHierarchyTest {
+
+    /**
+     * Test method for {@link BoundingVolumeHierarchy#BoundingVolumeHierarchy(List, boolean)}.
+     */
+    @Test
+    void testParallelBuild() {
+        Random random = new Random(7);
+        List<Intersectable> geometries = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            double x = random.nextDouble() * 1000, y = random.nextDouble() * 1000, z = random.nextDouble() * 1000;
+            geometries.add(i % 2 == 0
+                    ? new Sphere(1 + random.nextDouble(), new Point(x, y, z))
+                    : new Triangle(new Point(x, y, z), new Point(x + 2, y, z), new Point(x, y + 2, z + 1)));
+        }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The parallel build makes exactly the same hierarchy as the sequential one
+        BoundingVolumeHierarchy sequential = new BoundingVolumeHierarchy(geometries, false);
+        BoundingVolumeHierarchy parallel = new BoundingVolumeHierarchy(geometries, true);
+        assertArrayEquals(sequential.bounds, parallel.bounds, "TC01: Different boxes");
+        assertArrayEquals(sequential.links, parallel.links, "TC01: Different links");
+        assertArrayEquals(sequential.primitives, parallel.primitives, "TC01: Different order of the geometries");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Fewer geometries than a parallel task
+        List<Intersectable> few = geometries.subList(0, 100);
+        sequential = new BoundingVolumeHierarchy(few, false);
+        parallel = new BoundingVolumeHierarchy(few, true);
+        assertArrayEquals(sequential.links, parallel.links, "TC10: Different links");
+        assertArrayEquals(sequential.primitives, parallel.primitives, "TC10: Different order of the geometries");
+    }
+}
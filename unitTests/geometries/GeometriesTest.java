@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -9,6 +11,8 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GeometriesTest {
 
@@ -82,4 +86,247 @@ class GeometriesTest {
         assertEquals(4, result.size(), "There are suppose to be 4 points");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Geometries#findGeoIntersectionsHelper(Ray, double)} with the bounding volume hierarchy
+     * and with bounds culling - both must find exactly the intersections that are found by testing every geometry.
+     */
+    @Test
+    void testFindIntersectionsBVH() {
+        Intersectable[] shapes = new Intersectable[60];
+        for (int i = 0; i < 20; i++) {
+            shapes[3 * i] = new Sphere(1, new Point(i * 3, 0, -10));
+            shapes[3 * i + 1] = new Triangle(new Point(i * 3, 2, -5), new Point(i * 3 + 2, 2, -5), new Point(i * 3, 4, -5));
+            shapes[3 * i + 2] = new Cylinder(1, new Ray(new Point(i * 3, -4, -8), new Vector(0, 1, 0)), 2);
+        }
+        Geometries linear = new Geometries(shapes).setAcceleration(Geometries.Acceleration.NONE);
+        Geometries bvh = new Geometries(shapes);
+        Geometries culled = new Geometries(shapes).setAcceleration(Geometries.Acceleration.BOUNDS);
+        bvh.add(new Plane(new Point(0, 0, -20), new Vector(0, 0, 1)));
+        culled.add(new Plane(new Point(0, 0, -20), new Vector(0, 0, 1)));
+        linear.add(new Plane(new Point(0, 0, -20), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Rays that hit spheres, triangles, cylinders and the (unbounded) plane
+        for (int i = 0; i < 20; i++) {
+            for (int y = -3; y <= 3; y++) {
+                Ray ray = new Ray(new Point(i * 3 + 0.5, y, 0), new Vector(0, 0, -1));
+                assertEquals(linear.findGeoIntersections(ray).size(), bvh.findGeoIntersections(ray).size(),
+                        "TC01: Wrong amount of intersections");
+                assertEquals(linear.findGeoIntersections(ray).size(), culled.findGeoIntersections(ray).size(),
+                        "TC01: Wrong amount of intersections with bounds culling");
+            }
+        }
+
+        // TC02: Limited distance - only the shapes before the distance are found
+        Ray ray = new Ray(new Point(0.5, 0, 0), new Vector(0, 0, -1));
+        assertEquals(linear.findGeoIntersections(ray, 12).size(), bvh.findGeoIntersections(ray, 12).size(),
+                "TC02: Wrong amount of intersections");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The ray misses all the bounded shapes and is parallel to the plane
+        ray = new Ray(new Point(0, 50, 0), new Vector(1, 0, 0));
+        assertNull(bvh.findGeoIntersections(ray), "TC10: The result is not null");
+    }
+
+    /**
+     * Test method for {@link Intersectable#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometries geometries = new Geometries(
+                new Sphere(1, new Point(0, 0, -5)).setMaterial(new Material().setKt(0.5)),
+                new Sphere(1, new Point(5, 0, -5)).setMaterial(new Material().setKt(0.5)),
+                new Sphere(1, new Point(5, 0, -10)));
+        Vector v = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray passes a transparent sphere (twice)
+        assertEquals(new Double3(0.25), geometries.findTransparency(new Ray(new Point(0, 0, 0), v),
+                Double.POSITIVE_INFINITY, 0.001), "TC01: Wrong transparency");
+        // TC02: The ray passes a transparent sphere and is blocked by an opaque one
+        assertEquals(Double3.ZERO, geometries.findTransparency(new Ray(new Point(5, 0, 0), v),
+                Double.POSITIVE_INFINITY, 0.001), "TC02: The ray should be blocked");
+        // TC03: The ray doesn't hit anything
+        assertEquals(Double3.ONE, geometries.findTransparency(new Ray(new Point(20, 0, 0), v),
+                Double.POSITIVE_INFINITY, 0.001), "TC03: Wrong transparency");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The opaque sphere is beyond the maximal distance
+        assertEquals(new Double3(0.25), geometries.findTransparency(new Ray(new Point(5, 0, 0), v), 8, 0.001),
+                "TC10: Wrong transparency");
+    }
+
+    /**
+     * Test method for {@link Intersectable#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Sphere near = new Sphere(1, new Point(0, 0, -5));
+        Sphere far = new Sphere(1, new Point(0, 0, -10));
+        Plane plane = new Plane(new Point(0, 0, -20), new Vector(0, 0, 1));
+        Vector v = new Vector(0, 0, -1);
+        for (Geometries.Acceleration acceleration : Geometries.Acceleration.values()) {
+            Geometries geometries = new Geometries(far, plane, near).setAcceleration(acceleration);
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The ray hits several shapes - the nearest point of the nearest shape
+            Intersectable.GeoPoint closest = geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), v));
+            assertEquals(near, closest.geometry, "TC01: Wrong closest shape " + acceleration);
+            assertEquals(new Point(0, 0, -4), closest.point, "TC01: Wrong closest point " + acceleration);
+            // TC02: The ray starts between the spheres - only the shapes in front of it count
+            closest = geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, -7), v));
+            assertEquals(new Point(0, 0, -9), closest.point, "TC02: Wrong closest point " + acceleration);
+            // TC03: The ray hits nothing
+            assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                    "TC03: The result is not null " + acceleration);
+
+            // =============== Boundary Values Tests ==================
+            // TC10: Only the unbounded plane is before the maximal distance
+            closest = geometries.findClosestGeoIntersection(new Ray(new Point(5, 0, 0), v), 25);
+            assertEquals(plane, closest.geometry, "TC10: Wrong closest shape " + acceleration);
+            // TC11: All the shapes are beyond the maximal distance
+            assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), v), 3),
+                    "TC11: The result is not null " + acceleration);
+        }
+    }
+
+    /**
+     * Test method for {@link Geometries#setStatistics(IntersectionStatistics)}.
+     */
+    @Test
+    void testStatistics() {
+        Sphere sphere = new Sphere(1, new Point(0, 0, -5));
+        Plane plane = new Plane(new Point(0, 0, -20), new Vector(0, 0, 1));
+        Ray ray = new Ray(new Point(5, 0, 0), new Vector(0, 0, -1));
+        for (Geometries.Acceleration acceleration : Geometries.Acceleration.values()) {
+            IntersectionStatistics statistics = new IntersectionStatistics();
+            Geometries geometries = new Geometries(sphere, new Geometries(plane))
+                    .setAcceleration(acceleration).setStatistics(statistics);
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The ray hits the plane of the nested collection and misses the sphere
+            geometries.findClosestGeoIntersection(ray);
+            assertEquals(1, statistics.getTests(Plane.class), "TC01: Wrong amount of plane tests " + acceleration);
+            assertEquals(1, statistics.getHits(Plane.class), "TC01: Wrong amount of plane hits " + acceleration);
+            assertEquals(0, statistics.getHits(Sphere.class), "TC01: Wrong amount of sphere hits " + acceleration);
+            assertEquals(0, statistics.getTests(Geometries.class), "TC01: Collections are counted " + acceleration);
+            // (the nested collection is organized in a hierarchy in all the modes)
+            assertTrue(statistics.getBuildTime() > 0, "TC01: No build time " + acceleration);
+
+            // TC02: The counters are reset and aren't counted any more
+            statistics.reset();
+            geometries.setStatistics(null).findClosestGeoIntersection(ray);
+            assertEquals(0, statistics.getTests(), "TC02: Wrong amount of tests " + acceleration);
+        }
+    }
+
+    /**
+     * Test method for the traversal of a deep {@link Geometries.Acceleration#BVH} hierarchy.
+     */
+    @Test
+    void testDeepHierarchy() {
+        // a row of spheres, each one a bit farther than the previous one, and a wall of triangles behind them
+        Geometries bvh = new Geometries();
+        Geometries linear = new Geometries().setAcceleration(Geometries.Acceleration.NONE);
+        for (int i = 0; i < 500; i++) {
+            Sphere sphere = new Sphere(1, new Point(3 * i, 0, -10 - i * 0.01));
+            Geometry triangle = new Triangle(new Point(3 * i - 2, -2, -50), new Point(3 * i + 2, -2, -50),
+                    new Point(3 * i, 2, -50)).setMaterial(new Material().setKt(0.5));
+            bvh.add(sphere, triangle);
+            linear.add(sphere, triangle);
+        }
+        Vector v = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        for (int i = 0; i < 500; i += 7) {
+            // TC01: The closest sphere of every ray is found as without the hierarchy
+            Ray ray = new Ray(new Point(3 * i + 0.5, 0.5, 0), v);
+            assertEquals(linear.findClosestGeoIntersection(ray).point, bvh.findClosestGeoIntersection(ray).point,
+                    "TC01: Wrong closest point " + i);
+            // TC02: The ray passes between the spheres - only the triangle is in its way
+            Ray between = new Ray(new Point(3 * i + 1.2, -1.5, 0), v);
+            assertEquals(linear.findTransparency(between, Double.POSITIVE_INFINITY, 0.001),
+                    bvh.findTransparency(between, Double.POSITIVE_INFINITY, 0.001), "TC02: Wrong transparency " + i);
+            assertEquals(linear.findGeoIntersections(between).size(), bvh.findGeoIntersections(between).size(),
+                    "TC02: Wrong intersections " + i);
+        }
+    }
+
+    /**
+     * Test method for the intersections search of {@link Geometries.Acceleration#TYPED} - the geometries of all the
+     * types (and of the other ones) must be found exactly as by testing every geometry in the order they were added.
+     */
+    @Test
+    void testFindIntersectionsTyped() {
+        Material glass = new Material().setKt(0.5);
+        Intersectable[] shapes = new Intersectable[70];
+        for (int i = 0; i < 10; i++) {
+            double x = i * 4;
+            shapes[7 * i] = new Sphere(1, new Point(x, 0, -10)).setMaterial(glass);
+            shapes[7 * i + 1] = new Triangle(new Point(x, 2, -5), new Point(x + 2, 2, -5), new Point(x, 4, -5));
+            shapes[7 * i + 2] = new Polygon(new Point(x - 1, -3, -6), new Point(x + 1, -3, -6),
+                    new Point(x + 1, -1.5, -6), new Point(x - 1, -1.5, -6)).setMaterial(glass);
+            shapes[7 * i + 3] = new Tube(0.3, new Ray(new Point(x + 2, 0, -12), new Vector(0, 1, 0)));
+            shapes[7 * i + 4] = new Cylinder(1, new Ray(new Point(x + 2, -4, -8), new Vector(0, 1, 0)), 2);
+            // a nested collection is kept with the geometries of the other types
+            shapes[7 * i + 5] = new Geometries(new Sphere(0.5, new Point(x + 1, 1, -3)));
+            shapes[7 * i + 6] = new Plane(new Point(0, 0, -30 - i), new Vector(0, 0, 1));
+        }
+        Geometries linear = new Geometries(shapes).setAcceleration(Geometries.Acceleration.NONE);
+        Geometries typed = new Geometries(shapes).setAcceleration(Geometries.Acceleration.TYPED);
+        Vector v = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        for (int i = 0; i < 40; i++) {
+            for (int y = -3; y <= 3; y++) {
+                Ray ray = new Ray(new Point(i + 0.5, y + 0.3, 0), v);
+                // TC01: All the intersections of rays that hit every type
+                assertEquals(linear.findGeoIntersections(ray).size(), typed.findGeoIntersections(ray).size(),
+                        "TC01: Wrong amount of intersections " + i + "," + y);
+                // TC02: The closest intersection
+                assertEquals(linear.findClosestGeoIntersection(ray), typed.findClosestGeoIntersection(ray),
+                        "TC02: Wrong closest intersection " + i + "," + y);
+                // TC03: The transparency through the transparent spheres and polygons
+                assertEquals(linear.findTransparency(ray, 20, 0.001), typed.findTransparency(ray, 20, 0.001),
+                        "TC03: Wrong transparency " + i + "," + y);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The ray misses all the bounded shapes and is parallel to the planes
+        Ray ray = new Ray(new Point(0, 50, 0), new Vector(1, 0, 0));
+        assertNull(typed.findGeoIntersections(ray), "TC10: The result is not null");
+        // TC11: The box of the unbounded planes
+        assertNull(typed.getBoundingBox(), "TC11: The geometries are bounded");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#flatten()}.
+     */
+    @Test
+    void testFlatten() {
+        Sphere first = new Sphere(1, new Point(0, 0, -5));
+        Sphere second = new Sphere(1, new Point(3, 0, -5));
+        Plane floor = new Plane(new Point(0, -10, 0), new Vector(0, 1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The members of the nested collections are members of the copy, in depth-first order
+        Geometries nested = new Geometries(first, new Geometries(second, new Geometries(floor)));
+        Geometries flat = nested.flatten();
+        assertEquals(List.of(first, second, floor), flat.getGeometries(), "TC01: Wrong members");
+        assertEquals(Geometries.Acceleration.BVH, flat.getAcceleration(), "TC01: Wrong acceleration");
+        // TC02: The copy isn't changed by the collection
+        nested.add(new Sphere(1, new Point(0, 0, -2)));
+        assertEquals(3, flat.getGeometries().size(), "TC02: The copy was changed");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A collection without nested collections shares its hierarchy with the copy
+        Geometries single = new Geometries(first, second, floor);
+        assertSame(single.getLayout(), single.flatten().getLayout(), "TC10: The hierarchy was built again");
+        // TC11: A collection without acceleration
+        Geometries linear = new Geometries(first, new Geometries(second)).setAcceleration(Geometries.Acceleration.NONE);
+        assertEquals(Geometries.Acceleration.NONE, linear.flatten().getAcceleration(), "TC11: Wrong acceleration");
+        assertEquals(2, linear.flatten().getGeometries().size(), "TC11: Wrong members");
+    }
+}
@@ -154,4 +154,30 @@ public class PolygonTests {
         assertNotNull(planeResult, "should be not null");
         assertNull(polygonResult, "not suppose to be intersection point");
     }
+
+    /**
+     * Test method for {@link Intersectable#findClosestHit(Ray, double, Intersectable.Hit)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Polygon polygon = new Polygon(new Point(0, 0, 1), new Point(1, 0, 1), new Point(1, 1, 1), new Point(0, 1, 1));
+        Intersectable.Hit hit = new Intersectable.Hit();
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the polygon
+        assertTrue(polygon.findClosestHit(new Ray(new Point(0.5, 0.5, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY, hit), "TC01: Ray crosses the polygon");
+        assertEquals(1, hit.t, 1e-10, "TC01: Wrong distance");
+        assertSame(polygon, hit.geometry, "TC01: Wrong geometry");
+        // TC02: Ray crosses the plane outside the polygon
+        assertFalse(polygon.findClosestHit(new Ray(new Point(2, 0.5, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY, hit), "TC02: Ray misses the polygon");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray crosses the polygon's edge
+        assertFalse(polygon.findClosestHit(new Ray(new Point(1, 0.5, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY, hit), "TC10: Ray on the edge");
+        // TC11: Ray crosses the polygon's vertex
+        assertFalse(polygon.findClosestHit(new Ray(new Point(1, 1, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY, hit), "TC11: Ray on the vertex");
+    }
 }
@@ -125,4 +125,41 @@ class SphereTest {
                 new Vector(-1, 0, 0)));
         assertNull(result,"The result suppose to be null");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Intersectable#findClosestHit(Ray, double, Intersectable.Hit)}.
+     */
+    @Test
+    public void testFindClosestHit() {
+        Sphere sphere = new Sphere(1d, new Point(1, 0, 0));
+        Intersectable.Hit hit = new Intersectable.Hit();
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray starts before and crosses the sphere - the nearer point
+        assertTrue(sphere.findClosestHit(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY, hit), "TC01: Ray crosses sphere");
+        assertEquals(1, hit.t, 1e-10, "TC01: Wrong distance");
+        assertSame(sphere, hit.geometry, "TC01: Wrong geometry");
+        assertEquals(new Point(0, 0, 0), hit.toGeoPoint(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0))).point,
+                "TC01: Wrong point");
+        // TC02: Ray starts inside the sphere - the far point
+        assertTrue(sphere.findClosestHit(new Ray(new Point(1.5, 0, 0), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY, hit), "TC02: Ray crosses sphere");
+        assertEquals(0.5, hit.t, 1e-10, "TC02: Wrong distance");
+        // TC03: Ray's line is outside the sphere - the record isn't changed
+        assertFalse(sphere.findClosestHit(new Ray(new Point(-1, 0, 0), new Vector(1, 1, 0)),
+                Double.POSITIVE_INFINITY, hit), "TC03: Ray's line out of sphere");
+        assertEquals(0.5, hit.t, 1e-10, "TC03: The record was changed");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray starts at the center
+        assertTrue(sphere.findClosestHit(new Ray(new Point(1, 0, 0), new Vector(0, -1, 0)),
+                Double.POSITIVE_INFINITY, hit), "TC10: Ray crosses sphere");
+        assertEquals(1, hit.t, 1e-10, "TC10: Wrong distance");
+        // TC11: The nearer point is beyond the maximal distance
+        assertFalse(sphere.findClosestHit(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 0.5, hit),
+                "TC11: The sphere is too far");
+        // TC12: Ray is tangent to the sphere
+        assertFalse(sphere.findClosestHit(new Ray(new Point(2, 1, 0), new Vector(-1, 0, 0)),
+                Double.POSITIVE_INFINITY, hit), "TC12: Tangent ray");
+    }
+}
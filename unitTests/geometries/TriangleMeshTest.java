@@ -0,0 +1,214 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.TriangleMesh class
+ */
+class TriangleMeshTest {
+    /**
+     * A bumpy height field over a grid of n x n squares, 2 triangles per square.
+     */
+    private static TriangleMesh grid(int n) {
+        int size = n + 1;
+        double[] x = new double[size * size], y = new double[size * size], z = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                x[i * size + j] = j;
+                y[i * size + j] = i;
+                z[i * size + j] = Math.sin(i * 0.7) + Math.cos(j * 0.3);
+            }
+        }
+        int[] indices = new int[6 * n * n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int a = i * size + j;
+                indices[k++] = a;
+                indices[k++] = a + 1;
+                indices[k++] = a + size;
+                indices[k++] = a + 1;
+                indices[k++] = a + size + 1;
+                indices[k++] = a + size;
+            }
+        }
+        return new TriangleMesh(x, y, z, indices);
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#TriangleMesh(double[], double[], double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        double[] x = {0, 1, 0}, y = {0, 0, 1}, z = {0, 0, 0};
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A single triangle
+        assertEquals(1, new TriangleMesh(x, y, z, new int[]{0, 1, 2}).getTriangleCount(),
+                "TC01: Wrong amount of triangles");
+        // TC02: Coordinate arrays of different lengths
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(x, y, new double[2], new int[]{0, 1, 2}),
+                "TC02: Constructed a mesh with missing coordinates");
+        // TC03: An index out of the vertices
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(x, y, z, new int[]{0, 1, 3}),
+                "TC03: Constructed a mesh with a wrong index");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: An amount of indices that isn't a multiple of 3
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(x, y, z, new int[]{0, 1, 2, 0}),
+                "TC10: Constructed a mesh with a partial triangle");
+        // TC11: A degenerate triangle is left out
+        assertEquals(1, new TriangleMesh(x, y, z, new int[]{0, 1, 2, 0, 1, 1}).getTriangleCount(),
+                "TC11: A degenerate triangle was kept");
+        // TC12: Only degenerate triangles
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(x, y, z, new int[]{0, 1, 1}),
+                "TC12: Constructed a mesh without triangles");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#getNormal(Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        TriangleMesh mesh = grid(20);
+        Random random = new Random(5);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normal at an intersection is the normal of its face
+        for (int r = 0; r < 200; r++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 20, random.nextDouble() * 20, 5),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            Hit hit = new Hit();
+            if (mesh.findClosestHit(ray, Double.POSITIVE_INFINITY, hit)) {
+                Point point = ray.getPoint(hit.t);
+                assertEquals(hit.geometry.getNormal(point), mesh.getNormal(point), "TC01: Wrong normal of " + ray);
+            }
+        }
+        // TC02: A point that isn't on the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(5.5, 5.5, 10)),
+                "TC02: A normal of a point above the mesh");
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(-3, 5.5, 0)),
+                "TC02: A normal of a point beside the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A vertex of the mesh is on one of its triangles
+        Vector normal = mesh.getNormal(mesh.getVertex(22 * 3));
+        assertEquals(1, normal.length(), 1e-12, "TC10: The normal isn't normalized");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh.Face#setMaterial(Material)} and
+     * {@link TriangleMesh.Face#setEmission(Color)}.
+     */
+    @Test
+    void testFaceSetters() {
+        TriangleMesh mesh = grid(2);
+        Hit hit = new Hit();
+        mesh.findClosestHit(new Ray(new Point(0.25, 0.25, 5), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY, hit);
+        Geometry face = hit.geometry;
+        Material material = new Material().setKd(0.4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Setting the material or the emission of a face sets them for the whole mesh
+        assertSame(face, face.setMaterial(material).setEmission(new Color(10, 20, 30)),
+                "TC01: The setters don't return the face");
+        assertSame(material, mesh.getMaterial(), "TC01: The material of the mesh wasn't set");
+        assertEquals(new Color(10, 20, 30).getRgb(), mesh.getEmission().getRgb(),
+                "TC01: The emission of the mesh wasn't set");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findGeoIntersectionsHelper(Ray, double)}.
+     */
+    @Test
+    void testFindIntersections() {
+        TriangleMesh mesh = grid(1);
+        Ray down = new Ray(new Point(0.25, 0.25, 5), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses a triangle
+        List<GeoPoint> result = mesh.findGeoIntersections(down);
+        assertNotNull(result, "TC01: The intersection was not found");
+        assertEquals(1, result.size(), "TC01: Wrong number of points");
+        Point expected = new Triangle(mesh.getVertex(0), mesh.getVertex(1), mesh.getVertex(2))
+                .findIntersections(down).get(0);
+        assertEquals(0, result.get(0).point.distance(expected), 1e-10, "TC01: Wrong point");
+        // TC02: The ray passes beside the mesh
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(2, 2, 5), new Vector(0, 0, -1))),
+                "TC02: The ray should miss the mesh");
+        // TC03: The ray starts after the mesh
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(0.25, 0.25, 0), new Vector(0, 0, -1))),
+                "TC03: The ray should miss the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The ray crosses the edge between the two triangles
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(0.5, 0.5, 5), new Vector(0, 0, -1))),
+                "TC10: An edge should not be intersected");
+        // TC11: The ray crosses a vertex
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(0, 0, 5), new Vector(0, 0, -1))),
+                "TC11: A vertex should not be intersected");
+        // TC12: The intersection is beyond the maximum distance
+        assertNull(mesh.findGeoIntersections(down, 3.5), "TC12: The intersection is too far");
+        // TC13: The ray is parallel to the triangles
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(-1, 0.25, 0), new Vector(1, 0, 0))),
+                "TC13: A parallel ray should miss the mesh");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findClosestHit(Ray, double, Hit)} and
+     * {@link TriangleMesh#findTransparency(Ray, double, double)}, compared with separate triangles.
+     */
+    @Test
+    void testCompareWithTriangles() {
+        int n = 20;
+        TriangleMesh mesh = grid(n);
+        mesh.setMaterial(new Material());
+        List<Intersectable> list = new ArrayList<>();
+        int size = n + 1;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int a = i * size + j;
+                list.add(new Triangle(mesh.getVertex(a), mesh.getVertex(a + 1), mesh.getVertex(a + size)));
+                list.add(new Triangle(mesh.getVertex(a + 1), mesh.getVertex(a + size + 1), mesh.getVertex(a + size)));
+            }
+        }
+        Geometries triangles = new Geometries(list.toArray(new Intersectable[0]));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Random rays have the same closest intersection, the same normal and the same shadow
+        Random random = new Random(3);
+        for (int r = 0; r < 1000; r++) {
+            Point p0 = new Point(random.nextDouble() * n, random.nextDouble() * n, 5);
+            Vector dir = new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1).normalize();
+            Ray ray = new Ray(p0, dir);
+            Hit meshHit = new Hit();
+            Hit trianglesHit = new Hit();
+            boolean found = mesh.findClosestHit(ray, Double.POSITIVE_INFINITY, meshHit);
+            assertEquals(triangles.findClosestHit(ray, Double.POSITIVE_INFINITY, trianglesHit), found,
+                    "TC01: Different hit of ray " + ray);
+            assertEquals(mesh.findTransparency(ray, 100, 0.001) == Double3.ZERO, found,
+                    "TC01: Different shadow of ray " + ray);
+            if (found) {
+                assertEquals(trianglesHit.t, meshHit.t, 1e-9, "TC01: Different distance of ray " + ray);
+                Point point = ray.getPoint(meshHit.t);
+                assertEquals(1, Math.abs(trianglesHit.geometry.getNormal(point)
+                        .dotProduct(meshHit.geometry.getNormal(point))), 1e-9, "TC01: Different normal of ray " + ray);
+                assertSame(mesh.getMaterial(), meshHit.geometry.getMaterial(), "TC01: The face has another material");
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package jsonConverting;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.RenderJob;
+import scene.Scene;
+import scene.SceneMemoryCache;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for jsonConverting.JsonSceneReader class
+ */
+class JsonSceneReaderTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * A scene with every kind of geometry, in both forms of the triads and the numbers.
+     */
+    private static final String SCENE = """
+            {"scene": {
+                "background": "75 127 190",
+                "ambientLight": {"intensity": [255, 191, 191]},
+                "comment": {"ignored": ["unknown", "names"]},
+                "geometryData": {
+                    "spheres": [{"center": "0 0 -100", "radius": "50"}],
+                    "triangles": [{"p0": " -100  0 -100 ", "p1": "0\\t100 -100", "p2": [-100, 100, -100]}],
+                    "polygons": [{"vertices": ["200 0 -100", "210 0 -100", "210 10 -100", "200 10 -100"]}],
+                    "planes": [{"p0": "0 0 -300", "normal": "0 0 1"}],
+                    "tubes": [{"radius": 5, "axisRay": {"p0": "-200 0 -100", "dir": "0 1 0"}}],
+                    "cylinders": [{"radius": "5", "height": 20.5, "axisRay": {"p0": "300 0 -100", "dir": "0 1 0"}}],
+                    "meshes": null
+                }
+            }}
+            """;
+
+    /**
+     * A job with materials, emissions, lights, a camera, an image and rendering settings.
+     */
+    private static final String JOB = """
+            {"scene": {
+                "name": "lit",
+                "ambientLight": {"intensity": "255 255 255", "ka": 0.1},
+                "materials": {"shiny": {"kd": 0.5, "ks": "0.5 0.4 0.3", "kr": [0.1, 0.2, 0.3], "shininess": "60"}},
+                "lights": {
+                    "directional": [{"intensity": "100 100 100", "direction": "1 -1 -1"}],
+                    "point": [{"intensity": "500 300 0", "position": "50 50 0", "kl": 0.0004, "size": 2,
+                               "samples": 10, "adaptiveShadow": true}],
+                    "spot": [{"intensity": "500 300 0", "position": "-50 50 0", "direction": "1 -1 -2",
+                              "kq": 0.00002, "narrowBeam": 10}]
+                },
+                "geometryData": {
+                    "spheres": [{"center": "0 0 -100", "radius": 50, "emission": "0 0 100", "material": "shiny"}],
+                    "planes": [{"p0": "0 0 -300", "normal": "0 0 1", "material": {"kt": 0.6}}]
+                }},
+             "camera": {"position": "0 0 1000", "to": "0 0 -1", "up": "0 1 0",
+                        "viewPlane": {"width": 200, "height": 150, "distance": 1000}},
+             "image": {"nX": 40, "nY": 30},
+             "render": {"threads": 2, "supersamplingDepth": 1}
+            }
+            """;
+
+    /**
+     * Test method for {@link JsonSceneReader#read(java.io.Reader, String)}.
+     */
+    @Test
+    void testRead() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A scene with every kind of geometry
+        Scene scene = JsonSceneReader.read(new StringReader(SCENE), "test");
+        assertEquals("test", scene.name, "TC01: Wrong name");
+        assertEquals(new Double3(75, 127, 190), scene.background.getRgb(), "TC01: Wrong background");
+        assertEquals(new Double3(255, 191, 191), scene.ambientLight.getIntensity().getRgb(),
+                "TC01: Wrong ambient light");
+        Vector down = new Vector(0, 0, -1);
+        assertEquals(new Point(0, 0, -50),
+                scene.geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), down)).point,
+                "TC01: Wrong sphere");
+        assertEquals(new Point(-90, 20, -100),
+                scene.geometries.findClosestGeoIntersection(new Ray(new Point(-90, 20, 0), down)).point,
+                "TC01: Wrong triangle");
+        assertEquals(new Point(205, 5, -100),
+                scene.geometries.findClosestGeoIntersection(new Ray(new Point(205, 5, 0), down)).point,
+                "TC01: Wrong polygon");
+        assertEquals(new Point(500, 500, -300),
+                scene.geometries.findClosestGeoIntersection(new Ray(new Point(500, 500, 0), down)).point,
+                "TC01: Wrong plane");
+        assertEquals(new Point(-200, 50, -95),
+                scene.geometries.findClosestGeoIntersection(new Ray(new Point(-200, 50, 0), down)).point,
+                "TC01: Wrong tube");
+        assertEquals(new Point(300, 10, -95),
+                scene.geometries.findClosestGeoIntersection(new Ray(new Point(300, 10, 0), down)).point,
+                "TC01: Wrong cylinder");
+
+        // TC02: Invalid documents
+        assertThrows(IOException.class, () -> read("{\"scene\": {\"background\": \"1 2\"}}"),
+                "TC02: Read a triad of 2 numbers");
+        assertThrows(IOException.class, () -> read("{\"scene\": {\"background\": \"1 2 x\"}}"),
+                "TC02: Read an invalid number");
+        assertThrows(IOException.class, () -> read("{\"scene\": {\"geometryData\": {\"spheres\": [{\"radius\": 1}]}}}"),
+                "TC02: Read a sphere without a center");
+        IOException error = assertThrows(IOException.class, () -> read(
+                        "{\"scene\": {\"geometryData\": {\"triangles\": [{\"p0\": \"0 0 0\", \"p1\": \"1 1 1\", \"p2\": \"2 2 2\"}]}}}"),
+                "TC02: Read a degenerate triangle");
+        assertTrue(error.getMessage().contains("triangles[0]"), "TC02: The error doesn't tell the position");
+        assertThrows(IOException.class, () -> read("{\"other\": {}}"), "TC02: Read a document without a scene");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: An empty scene
+        scene = read("{\"scene\": {}}");
+        assertNull(scene.geometries.findIntersections(new Ray(new Point(0, 0, 0), down)), "TC10: Wrong geometries");
+        // TC11: A triad of 4 numbers
+        assertThrows(IOException.class, () -> read("{\"scene\": {\"background\": [1, 2, 3, 4]}}"),
+                "TC11: Read a triad of 4 numbers");
+    }
+
+    /**
+     * Test method for {@link JsonSceneReader#readJob(java.io.Reader, String)}.
+     */
+    @Test
+    void testReadJob() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A job with every section
+        RenderJob job = JsonSceneReader.readJob(new StringReader(JOB), "job");
+        assertEquals("job", job.getName(), "TC01: Wrong job name");
+        Scene scene = job.getScene();
+        assertEquals("lit", scene.name, "TC01: Wrong scene name");
+        assertEquals(new Double3(25.5), scene.ambientLight.getIntensity().getRgb(), "TC01: Wrong ambient light");
+
+        assertEquals(3, scene.lights.size(), "TC01: Wrong amount of lights");
+        assertInstanceOf(DirectionalLight.class, scene.lights.get(0), "TC01: Wrong directional light");
+        PointLight point = (PointLight) scene.lights.get(1);
+        assertEquals(new Point(50, 50, 0), point.getPosition(), "TC01: Wrong point light position");
+        assertEquals(1, point.getKc(), "TC01: Wrong default kc");
+        assertEquals(0.0004, point.getKl(), "TC01: Wrong kl");
+        assertEquals(2, point.getSize(), "TC01: Wrong size");
+        assertEquals(10, point.getSamples(), "TC01: Wrong samples");
+        assertTrue(point.isAdaptiveShadow(), "TC01: Wrong adaptive shadow");
+        SpotLight spot = assertInstanceOf(SpotLight.class, scene.lights.get(2), "TC01: Wrong spotlight");
+        assertEquals(10, spot.getNarrowBeam(), "TC01: Wrong narrow beam");
+        assertEquals(0.00002, spot.getKq(), "TC01: Wrong kq");
+
+        Vector down = new Vector(0, 0, -1);
+        GeoPoint sphere = scene.geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), down));
+        assertEquals(new Double3(0, 0, 100), sphere.geometry.getEmission().getRgb(), "TC01: Wrong emission");
+        Material shiny = sphere.geometry.getMaterial();
+        assertEquals(new Double3(0.5), shiny.getKd(), "TC01: Wrong kd");
+        assertEquals(new Double3(0.5, 0.4, 0.3), shiny.getKs(), "TC01: Wrong ks");
+        assertEquals(new Double3(0.1, 0.2, 0.3), shiny.getKr(), "TC01: Wrong kr");
+        assertEquals(60, shiny.getShininess(), "TC01: Wrong shininess");
+        GeoPoint plane = scene.geometries.findClosestGeoIntersection(new Ray(new Point(500, 0, 0), down));
+        assertEquals(new Double3(0.6), plane.geometry.getMaterial().getKt(), "TC01: Wrong inline material");
+
+        Camera camera = job.getCamera();
+        assertEquals(new Point(0, 0, 1000), camera.getP0(), "TC01: Wrong camera position");
+        assertEquals(200, camera.getWidth(), "TC01: Wrong view plane width");
+        assertEquals(150, camera.getHeight(), "TC01: Wrong view plane height");
+        assertEquals(1000, camera.getDistance(), "TC01: Wrong view plane distance");
+        assertDoesNotThrow(camera::renderImage, "TC01: The camera isn't ready to render");
+
+        // TC02: Invalid jobs
+        assertThrows(IOException.class, () -> JsonSceneReader.readJob(new StringReader("{\"scene\": {}}"), "job"),
+                "TC02: Read a job without a camera");
+        assertThrows(IOException.class, () -> JsonSceneReader.readJob(new StringReader(
+                        JOB.replace("\"up\": \"0 1 0\"", "\"up\": \"0 1 1\"")), "job"),
+                "TC02: Read a camera with vectors that aren't orthogonal");
+        assertThrows(IOException.class, () -> read(
+                        "{\"scene\": {\"geometryData\": {\"spheres\": [{\"center\": \"0 0 0\", \"radius\": 1, "
+                                + "\"material\": \"missing\"}]}}}"),
+                "TC02: Read an unknown material");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A scene of a job is read without its job sections
+        assertEquals("lit", read(JOB).name, "TC10: Wrong scene of a job");
+        // TC11: An image without a resolution
+        assertThrows(IOException.class, () -> JsonSceneReader.readJob(new StringReader(
+                        JOB.replace("\"nX\": 40", "\"nX\": 0")), "job"),
+                "TC11: Read an image without a resolution");
+    }
+
+    /**
+     * Test method for {@link JsonSceneReader#readJob(Path, SceneMemoryCache)} of jobs that name a scene file.
+     */
+    @Test
+    void testReadJobOfSceneFile() throws IOException {
+        Files.createDirectory(directory.resolve("scenes"));
+        Files.writeString(directory.resolve("scenes/shapes.json"), SCENE);
+        String camera = JOB.substring(JOB.indexOf("\"camera\""));
+        Path front = directory.resolve("front.json");
+        Path side = directory.resolve("side.json");
+        Files.writeString(front, "{\"scene\": \"scenes/shapes.json\", " + camera);
+        Files.writeString(side, "{\"scene\": \"scenes/shapes.json\", "
+                + camera.replace("\"position\": \"0 0 1000\"", "\"position\": \"100 0 1000\""));
+        SceneMemoryCache scenes = new SceneMemoryCache(4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Jobs of the same scene file share the scene, which is loaded once
+        RenderJob frontJob = JsonSceneReader.readJob(front, scenes);
+        RenderJob sideJob = JsonSceneReader.readJob(side, scenes);
+        assertEquals("shapes", frontJob.getScene().name, "TC01: Wrong scene name");
+        assertSame(frontJob.getScene(), sideJob.getScene(), "TC01: The scene wasn't shared");
+        assertEquals(new Point(100, 0, 1000), sideJob.getCamera().getP0(), "TC01: Wrong camera");
+        assertEquals(1, scenes.getMisses(), "TC01: Wrong amount of loads");
+        assertEquals(1, scenes.getHits(), "TC01: Wrong amount of hits");
+        // TC02: Without a cache, the scene file is loaded for every job
+        assertNotSame(JsonSceneReader.readJob(front).getScene(), JsonSceneReader.readJob(front).getScene(),
+                "TC02: A scene was shared without a cache");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A scene document can't name another scene file
+        assertThrows(IOException.class, () -> read("{\"scene\": \"scenes/shapes.json\"}"),
+                "TC10: A scene named a scene file");
+        // TC11: A missing scene file
+        Files.writeString(front, "{\"scene\": \"scenes/missing.json\", " + camera);
+        assertThrows(IOException.class, () -> JsonSceneReader.readJob(front, scenes), "TC11: Read a missing scene");
+    }
+
+    /**
+     * Test method for {@link JsonSceneReader#read(java.io.Reader, String)} from several threads at once.
+     */
+    @Test
+    void testConcurrentRead() throws Exception {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Scenes that are loaded concurrently don't share any state
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Scene>> scenes = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String name = "scene" + i;
+                scenes.add(pool.submit(() -> JsonSceneReader.read(new StringReader(SCENE), name)));
+            }
+            for (int i = 0; i < scenes.size(); i++) {
+                Scene scene = scenes.get(i).get();
+                assertEquals("scene" + i, scene.name, "TC01: Wrong scene");
+                assertNotNull(scene.geometries.findIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1))),
+                        "TC01: Wrong geometries");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Scene read(String document) throws IOException {
+        return JsonSceneReader.read(new StringReader(document), "test");
+    }
+}
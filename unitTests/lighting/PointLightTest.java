@@ -0,0 +1,103 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for lighting.PointLight class
+ */
+class PointLightTest {
+    private static final Point POSITION = new Point(0, 10, 0);
+
+    /**
+     * Asserts that all the directions of a beam come from the disk of the light that faces the receiver:
+     * the angle between a direction and the direction from the center is at most the angle of the disk's radius.
+     *
+     * @param light    the light.
+     * @param size     the radius of the light's disk.
+     * @param receiver the receiver point.
+     * @param vectors  the directions of the beam.
+     * @param message  the message of a failure.
+     */
+    private static void assertFacing(PointLight light, double size, Point receiver, List<Vector> vectors,
+                                     String message) {
+        Vector center = light.getL(receiver);
+        double minCos = Math.cos(Math.atan(size / light.getDistance(receiver))) - 1e-9;
+        double lowest = 1;
+        for (Vector l : vectors) {
+            double cos = l.dotProduct(center);
+            assertTrue(cos >= minCos, message + ": a direction doesn't come from the disk");
+            lowest = Math.min(lowest, cos);
+        }
+        assertTrue(lowest < 1 - 1e-6, message + ": the directions aren't spread over the disk");
+    }
+
+    /**
+     * Test method for {@link PointLight#getLightVectors(Point)}.
+     */
+    @Test
+    void testGetLightVectors() throws Exception {
+        PointLight light = new PointLight(new Color(100, 100, 100), POSITION).setSize(2).setSamples(200);
+        Point below = new Point(0, 0, 0);
+        Point aside = new Point(10, 10, 0);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The beam has the configured amount of directions, and it faces the receiver
+        List<Vector> first = light.getLightVectors(below);
+        assertEquals(200, first.size(), "TC01: Wrong amount of directions");
+        assertFacing(light, 2, below, first, "TC01");
+
+        // TC02: The beam is turned to face every receiver, not only the first one
+        assertFacing(light, 2, aside, light.getLightVectors(aside), "TC02");
+        assertEquals(first, light.getLightVectors(below), "TC02: The beam of a receiver was changed");
+
+        // TC03: The beams of concurrent receivers are the same as the beams of a single thread
+        List<Point> receivers = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            receivers.add(new Point(i - 32, -i % 7, i % 5 - 2));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Vector>>> beams = new ArrayList<>();
+            for (Point receiver : receivers) {
+                beams.add(pool.submit(() -> light.getLightVectors(receiver)));
+            }
+            for (int i = 0; i < receivers.size(); i++) {
+                assertEquals(light.getLightVectors(receivers.get(i)), beams.get(i).get(),
+                        "TC03: Wrong concurrent beam " + i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // TC04: The probes of the adaptive soft shadow - the center of the light first, then its rim
+        assertNull(light.getProbeVectors(below), "TC04: Probes without the adaptive mode");
+        List<Vector> probes = light.setAdaptiveShadow(true).getProbeVectors(below);
+        assertEquals(light.getL(below), probes.get(0), "TC04: The first probe isn't from the center");
+        double rimCos = Math.cos(Math.atan(2 / light.getDistance(below)));
+        for (Vector l : probes.subList(1, probes.size())) {
+            assertEquals(rimCos, l.dotProduct(light.getL(below)), 1e-9, "TC04: A probe isn't from the rim");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A light without a size has a single direction from its position
+        light.setSize(0);
+        assertEquals(List.of(light.getL(below)), light.getLightVectors(below), "TC10: Wrong directions");
+        assertNull(light.getProbeVectors(below), "TC10: Probes of a light without a size");
+        // TC11: A receiver at the light's position has no directions
+        assertTrue(light.setSize(2).getLightVectors(POSITION).isEmpty(), "TC11: Directions to the light itself");
+        // TC12: Invalid settings
+        assertThrows(IllegalArgumentException.class, () -> light.setSamples(0), "TC12: A light without samples");
+        assertThrows(IllegalArgumentException.class, () -> light.setSize(-1), "TC12: A negative size");
+    }
+}
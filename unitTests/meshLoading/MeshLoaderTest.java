@@ -0,0 +1,134 @@
+package meshLoading;
+
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for meshLoading.MeshLoader class
+ */
+class MeshLoaderTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Writes a binary little endian PLY file of a unit square (a single quad face) with an extra
+     * vertex property, an extra face list and an extra element, which must be skipped.
+     */
+    private Path writePly() throws IOException {
+        String header = """
+                ply
+                format binary_little_endian 1.0
+                comment a unit square
+                element vertex 4
+                property float x
+                property float y
+                property float z
+                property uchar red
+                element face 1
+                property list uchar int vertex_indices
+                property list uchar float texcoord
+                element edge 1
+                property int vertex1
+                property int vertex2
+                end_header
+                """;
+        byte[] head = header.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer data = ByteBuffer.allocate(head.length + 4 * 13 + 1 + 16 + 1 + 8 + 8)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        data.put(head);
+        float[][] vertices = {{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {0, 1, 0}};
+        for (float[] vertex : vertices) {
+            data.putFloat(vertex[0]).putFloat(vertex[1]).putFloat(vertex[2]).put((byte) 200);
+        }
+        data.put((byte) 4).putInt(0).putInt(1).putInt(2).putInt(3);
+        data.put((byte) 2).putFloat(0.5f).putFloat(0.5f);
+        data.putInt(0).putInt(1);
+        Path path = directory.resolve("square.ply");
+        Files.write(path, data.array());
+        return path;
+    }
+
+    /**
+     * Test method for {@link MeshLoader#loadObj(Path)}.
+     */
+    @Test
+    void testLoadObj() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Vertices, a quad with texture and normal references, a triangle with relative references
+        Path path = directory.resolve("model.obj");
+        Files.writeString(path, """
+                # a quad and a triangle
+                mtllib model.mtl
+                v 0 0 0
+                v 1.0 0 0
+                v 1 1e0 0
+                v 0 1 -0.0
+                vt 0.5 0.5
+                vn 0 0 1
+                f 1/1/1 2/1/1 3/1/1 4/1/1
+                v 0 0 2.5E-1\r
+                f -1 -5 -4 # the last vertex and the first two\r
+                """);
+        TriangleMesh mesh = MeshLoader.load(path);
+        assertEquals(5, mesh.getVertexCount(), "TC01: Wrong amount of vertices");
+        assertEquals(3, mesh.getTriangleCount(), "TC01: Wrong amount of triangles");
+        assertEquals(new Point(0, 0, 0.25), mesh.getVertex(4), "TC01: Wrong vertex");
+        assertNotNull(mesh.findIntersections(new Ray(new Point(0.75, 0.5, 1), new Vector(0, 0, -1))),
+                "TC01: The quad was not loaded");
+        // TC02: An invalid number
+        Files.writeString(path, "v 0 0 0\nv 1 0 x\n");
+        assertThrows(IOException.class, () -> MeshLoader.loadObj(path), "TC02: Loaded an invalid number");
+        // TC03: A reference to a vertex that wasn't defined
+        Files.writeString(path, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 4\n");
+        assertThrows(IOException.class, () -> MeshLoader.loadObj(path), "TC03: Loaded a wrong reference");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Numbers beyond the fast parsing (many digits, big exponents)
+        Files.writeString(path, "v 0.1234567890123456789 1e-30 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+        mesh = MeshLoader.loadObj(path);
+        assertEquals(new Point(0.1234567890123456789, 1e-30, 0), mesh.getVertex(0), "TC10: Wrong vertex");
+        // TC11: A face with 2 vertices
+        Files.writeString(path, "v 0 0 0\nv 1 0 0\nf 1 2\n");
+        assertThrows(IOException.class, () -> MeshLoader.loadObj(path), "TC11: Loaded a partial face");
+    }
+
+    /**
+     * Test method for {@link MeshLoader#loadPly(Path)}.
+     */
+    @Test
+    void testLoadPly() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A quad with extra properties and elements
+        TriangleMesh mesh = MeshLoader.load(writePly());
+        assertEquals(4, mesh.getVertexCount(), "TC01: Wrong amount of vertices");
+        assertEquals(2, mesh.getTriangleCount(), "TC01: Wrong amount of triangles");
+        assertEquals(new Point(1, 1, 0), mesh.getVertex(2), "TC01: Wrong vertex");
+        assertNotNull(mesh.findIntersections(new Ray(new Point(0.25, 0.75, 1), new Vector(0, 0, -1))),
+                "TC01: The quad was not loaded");
+        // TC02: An ASCII PLY file
+        Path path = directory.resolve("ascii.ply");
+        Files.writeString(path, "ply\nformat ascii 1.0\nelement vertex 0\nelement face 0\nend_header\n");
+        assertThrows(IOException.class, () -> MeshLoader.loadPly(path), "TC02: Loaded an ASCII file");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A file that ends in the middle of the data
+        Path truncated = directory.resolve("truncated.ply");
+        byte[] bytes = Files.readAllBytes(writePly());
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 20));
+        assertThrows(IOException.class, () -> MeshLoader.loadPly(truncated), "TC10: Loaded a truncated file");
+    }
+}
@@ -0,0 +1,143 @@
+package renderer;
+
+import jsonConverting.JsonSceneReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.Ray;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.BatchRenderer class
+ */
+class BatchRendererTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Writes a small job file.
+     */
+    private Path writeJob(String name, int nX, int nY) throws Exception {
+        Path file = directory.resolve(name + ".json");
+        Files.writeString(file, String.format("""
+                {"scene": {
+                    "ambientLight": {"intensity": "255 255 255", "ka": 0.2},
+                    "lights": {"point": [{"intensity": "500 500 500", "position": "0 100 100", "samples": 1}]},
+                    "geometryData": {"spheres": [{"center": "0 0 -100", "radius": 50, "material": {"kd": 0.5}}]}},
+                 "camera": {"position": "0 0 0", "to": "0 0 -1", "up": "0 1 0",
+                            "viewPlane": {"width": 200, "height": 200, "distance": 100}},
+                 "image": {"name": "batch test %s", "nX": %d, "nY": %d},
+                 "render": {"tileSize": 7}
+                }
+                """, name, nX, nY));
+        return file;
+    }
+
+    /**
+     * Reads the image of a job from its image writer, without writing it to a file.
+     */
+    private static BufferedImage readImage(RenderJob job) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        job.getCamera().getImageWriter().writePng(out);
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Test method for {@link BatchRenderer#render(List)}.
+     */
+    @Test
+    void testRender() throws Exception {
+        Path first = writeJob("first", 30, 20);
+        Path second = writeJob("second", 16, 16);
+        Path invalid = directory.resolve("invalid.json");
+        Files.writeString(invalid, "{\"scene\": {}}");
+
+        try (BatchRenderer renderer = new BatchRenderer(3, 4)) {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: Jobs that are queued together are reported in order
+            List<BatchRenderer.Report> reports = renderer.render(List.of(first, invalid, second), false);
+            assertEquals(3, reports.size(), "TC01: Wrong amount of reports");
+            assertEquals("first", reports.get(0).getName(), "TC01: Wrong order of the reports");
+            assertNull(reports.get(0).getError(), "TC01: The job failed");
+            assertTrue(reports.get(0).getRays() >= 30 * 20, "TC01: Wrong amount of rays");
+            assertTrue(reports.get(0).getRaysPerSecond() > 0, "TC01: Wrong rays per second");
+            assertEquals("second", reports.get(2).getName(), "TC01: Wrong order of the reports");
+            assertNull(reports.get(2).getError(), "TC01: The job failed");
+
+            // TC02: Every pixel of a submitted job is traced exactly once
+            RenderJob job = JsonSceneReader.readJob(first);
+            BatchRenderer.Report report = renderer.submit(job, false).join();
+            assertNull(report.getError(), "TC02: The job failed");
+            assertEquals(30 * 20, job.getCamera().getStatistics().getRays(RenderStatistics.RayType.PRIMARY),
+                    "TC02: Wrong amount of primary rays");
+            BufferedImage image = readImage(job);
+            assertNotEquals(0, image.getRGB(15, 10) & 0xFFFFFF, "TC02: The sphere wasn't rendered");
+            assertEquals(0, image.getRGB(0, 0) & 0xFFFFFF, "TC02: Wrong background");
+
+            // TC03: A job without a camera is reported with its error
+            assertNotNull(reports.get(1).getError(), "TC03: An invalid job didn't fail");
+
+            // TC04: A job whose tiles fail with an error (not an exception) is reported with it, and doesn't hang
+            RenderJob failing = JsonSceneReader.readJob(first);
+            failing.getCamera().setRayTracer(new RayTracerBase(new Scene.SceneBuilder("failing").build()) {
+                @Override
+                public Color traceRay(Ray ray) {
+                    throw new StackOverflowError("TC04");
+                }
+            });
+            report = renderer.submit(failing, false).get(10, TimeUnit.SECONDS);
+            assertInstanceOf(StackOverflowError.class, report.getError().getCause(), "TC04: Wrong error");
+
+            // =============== Boundary Values Tests ==================
+            // TC10: An image of a single tile
+            reports = renderer.render(List.of(writeJob("tiny", 1, 1)), false);
+            assertNull(reports.get(0).getError(), "TC10: The job failed");
+        }
+        // TC11: An invalid pool
+        assertThrows(IllegalArgumentException.class, () -> new BatchRenderer(1, 0), "TC11: Created an empty queue");
+    }
+
+    /**
+     * Test method for {@link BatchRenderer#close()}.
+     */
+    @Test
+    void testClose() throws Exception {
+        Path file = writeJob("close", 40, 40);
+        BatchRenderer renderer = new BatchRenderer(2, 64);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A job that is rendered while the renderer is closed is still reported
+        CompletableFuture<BatchRenderer.Report> running = renderer.submit(JsonSceneReader.readJob(file), false);
+        renderer.close();
+        BatchRenderer.Report report = running.get(10, TimeUnit.SECONDS);
+        assertNull(report.getError(), "TC01: The job failed");
+        assertTrue(report.getRays() >= 40 * 40, "TC01: Wrong amount of rays");
+
+        // TC02: A job that is submitted after the renderer was closed is reported with an error
+        report = renderer.submit(JsonSceneReader.readJob(file), false).get(10, TimeUnit.SECONDS);
+        assertInstanceOf(RejectedExecutionException.class, report.getError(), "TC02: Wrong error");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A thread that is interrupted while it submits a job doesn't hold places of the queue
+        try (BatchRenderer small = new BatchRenderer(1, 1)) {
+            Thread.currentThread().interrupt();
+            assertThrows(InterruptedException.class, () -> small.submit(JsonSceneReader.readJob(file), false),
+                    "TC10: The interrupt was ignored");
+            report = small.submit(JsonSceneReader.readJob(file), false).get(10, TimeUnit.SECONDS);
+            assertNull(report.getError(), "TC10: The next job failed");
+        }
+    }
+}
@@ -2,9 +2,20 @@ package renderer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
 
 import primitives.*;
+import scene.Scene;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Testing Camera Class
@@ -55,4 +66,212 @@ class CameraTest {
 
     }
 
+    /**
+     * Test method for {@link renderer.Camera#constructRay(int, int, int, int)} after the camera is changed
+     * (the rays of the previous view plane must not be reused).
+     */
+    @Test
+    void testConstructRayAfterChange() {
+        Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(6, 6).setVPDistance(10);
+        assertEquals(new Ray(ZERO_POINT, new Vector(0, 0, -1)), camera.constructRay(3, 3, 1, 1),
+                "TC01: Bad ray");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The camera is moved
+        camera.moveUp(1);
+        assertEquals(new Ray(new Point(0, 1, 0), new Vector(0, 0, -1)), camera.constructRay(3, 3, 1, 1),
+                "TC01: Bad ray after moving");
+        // TC02: The camera is turned
+        camera.turnRight(90);
+        assertEquals(0, camera.constructRay(3, 3, 1, 1).getDir().dotProduct(new Vector(0, 0, -1)), 1e-10,
+                "TC02: Bad ray after turning");
+        // TC03: The view plane is changed
+        camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0)).setVPSize(6, 6).setVPDistance(10);
+        camera.constructRay(3, 3, 0, 0);
+        assertEquals(new Ray(ZERO_POINT, new Vector(-4, 4, -10)), camera.setVPSize(12, 12).constructRay(3, 3, 0, 0),
+                "TC03: Bad ray after resizing");
+        assertEquals(new Ray(ZERO_POINT, new Vector(-4, 4, -5)), camera.setVPDistance(5).constructRay(3, 3, 0, 0),
+                "TC03: Bad ray after changing the distance");
+    }
+
+    /**
+     * Ray tracer for the rendering tests - counts the traced rays and colors the rays that go to the left
+     * of the view plane's center red (or everything red if there is no edge).
+     */
+    private static class CountingTracer extends RayTracerBase {
+        final boolean edge;
+        final AtomicInteger rays = new AtomicInteger();
+
+        CountingTracer(boolean edge) {
+            super(new Scene.SceneBuilder("counting").build());
+            this.edge = edge;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            rays.incrementAndGet();
+            return !edge || ray.getDir().getX() < 0 ? new Color(255, 0, 0) : new Color(0, 0, 255);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setSupersamplingDepth(int)}.
+     */
+    @Test
+    void testAdaptiveSupersampling() {
+        Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(8, 8).setVPDistance(10)
+                .setImageWriter(new ImageWriter("supersampling", 8, 8));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: No supersampling - a ray per pixel
+        CountingTracer tracer = new CountingTracer(false);
+        camera.setRayTracer(tracer).renderImage();
+        assertEquals(64, tracer.rays.get(), "TC01: Wrong amount of rays");
+
+        // TC02: Uniform image - only the corners of the pixels, each one once
+        tracer = new CountingTracer(false);
+        camera.setSupersamplingDepth(2).setRayTracer(tracer).renderImage();
+        assertEquals(81, tracer.rays.get(), "TC02: Wrong amount of rays");
+
+        // TC03: An edge in the middle - only the pixels at the edge are split
+        tracer = new CountingTracer(true);
+        camera.setRayTracer(tracer).renderImage();
+        assertTrue(tracer.rays.get() > 81 && tracer.rays.get() < 33 * 33, "TC03: Wrong amount of rays " + tracer.rays);
+
+        // TC04: The same image in parallel tiles
+        CountingTracer parallelTracer = new CountingTracer(true);
+        camera.setRayTracer(parallelTracer).setThreads(2).setTileSize(4).renderImage();
+        assertTrue(parallelTracer.rays.get() >= tracer.rays.get(), "TC04: Wrong amount of rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Negative depth and threshold
+        assertThrows(IllegalArgumentException.class, () -> camera.setSupersamplingDepth(-1),
+                "TC10: Negative depth");
+        assertThrows(IllegalArgumentException.class, () -> camera.setSupersamplingThreshold(-1),
+                "TC10: Negative threshold");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setStatistics(RenderStatistics)}.
+     */
+    @Test
+    void testStatistics() {
+        Scene scene = new Scene.SceneBuilder("statistics").build();
+        scene.geometries.add(new Sphere(3, new Point(0, 0, -20))
+                .setMaterial(new Material().setKd(0.5).setKr(0.3).setKt(0.3)));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 10, 0)).setSize(0));
+        RenderStatistics statistics = new RenderStatistics();
+        Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(2, 2).setVPDistance(10)
+                .setImageWriter(new ImageWriter("statistics", 4, 4))
+                .setRayTracer(new RayTracerBasic(scene))
+                .setStatistics(statistics);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the rays of the frame are counted
+        camera.renderImage();
+        assertEquals(16, statistics.getRays(RenderStatistics.RayType.PRIMARY), "TC01: Wrong amount of primary rays");
+        assertTrue(statistics.getRays(RenderStatistics.RayType.REFLECTED) > 0, "TC01: No reflected rays");
+        assertTrue(statistics.getRays(RenderStatistics.RayType.REFRACTED) > 0, "TC01: No refracted rays");
+        assertTrue(statistics.getRays(RenderStatistics.RayType.SHADOW) > 0, "TC01: No shadow rays");
+        assertEquals(16 + statistics.getRays(RenderStatistics.RayType.REFLECTED)
+                        + statistics.getRays(RenderStatistics.RayType.REFRACTED),
+                statistics.getHits() + statistics.getMisses(), "TC01: Wrong amount of hits and misses");
+        assertTrue(statistics.getMaxDepth() >= 2, "TC01: Wrong max depth");
+        assertTrue(statistics.getIntersections().getTests(Sphere.class) > 0, "TC01: No sphere tests");
+        assertTrue(statistics.getFrameTime() > 0, "TC01: No frame time");
+
+        // TC02: The counters are reset for every frame
+        camera.renderImage();
+        assertEquals(16, statistics.getRays(RenderStatistics.RayType.PRIMARY), "TC02: Wrong amount of primary rays");
+
+        // TC03: Nothing is counted without statistics
+        camera.setStatistics(null).renderImage();
+        assertEquals(16, statistics.getRays(RenderStatistics.RayType.PRIMARY), "TC03: The rays were counted");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setHeatmap(boolean)}.
+     */
+    @Test
+    void testHeatmap() {
+        // the pixels of the left half are slow
+        RayTracerBase tracer = new RayTracerBase(new Scene.SceneBuilder("heatmap").build()) {
+            @Override
+            public Color traceRay(Ray ray) {
+                if (ray.getDir().getX() < 0) {
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return Color.BLACK;
+            }
+        };
+        Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(4, 4).setVPDistance(10)
+                .setImageWriter(new ImageWriter("heatmap", 4, 4))
+                .setRayTracer(tracer);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The slow pixels cost more
+        camera.setHeatmap(true).renderImage();
+        assertTrue(camera.getPixelCost(0, 1) > camera.getPixelCost(3, 1), "TC01: Wrong pixel costs");
+
+        // TC02: The same in parallel tiles
+        camera.setThreads(2).setTileSize(2).renderImage();
+        assertTrue(camera.getPixelCost(1, 3) > camera.getPixelCost(2, 3), "TC02: Wrong pixel costs");
+
+        // TC03: Without the heatmap the costs aren't recorded
+        camera.setHeatmap(false).renderImage();
+        assertThrows(IllegalStateException.class, () -> camera.getPixelCost(0, 0), "TC03: The costs were recorded");
+    }
+
+    /**
+     * Renders an image of a camera in memory and reads its pixels.
+     *
+     * @param camera  the camera.
+     * @param threads the amount of rendering threads.
+     * @return the colors of the pixels, row by row.
+     */
+    private static int[] renderPixels(Camera camera, int threads) throws Exception {
+        camera.setThreads(threads).renderImage();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        camera.getImageWriter().writePng(out);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setThreads(int)}: the image is the same pixel for pixel
+     * for any amount of threads.
+     */
+    @Test
+    void testSetThreads() throws Exception {
+        Scene scene = new Scene.SceneBuilder("threads").build();
+        scene.geometries.add(new Plane(new Point(0, -2, 0), new Vector(0, 1, 0))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(20)),
+                new Sphere(1.5, new Point(0, 0, -20)).setMaterial(new Material().setKd(0.4).setKr(0.3).setKt(0.2)));
+        // a soft shadow, whose samples are random
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(2, 8, -15)).setSize(1.5).setSamples(20));
+        Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(8, 8).setVPDistance(10).setTileSize(8)
+                .setImageWriter(new ImageWriter("threads", 48, 48))
+                .setRayTracer(new RayTracerBasic(scene));
+        int[] single = renderPixels(camera, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A few threads render the same pixels as a single thread
+        assertTrue(Arrays.stream(single).distinct().count() > 100, "TC01: The scene wasn't rendered");
+        assertArrayEquals(single, renderPixels(camera, 4), "TC01: Different pixels in 4 threads");
+        // TC02: The same with a thread per processor
+        assertArrayEquals(single, renderPixels(camera, 0), "TC02: Different pixels in a thread per processor");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: More threads than tiles
+        assertArrayEquals(single, renderPixels(camera.setTileSize(48), 4), "TC10: Different pixels in a single tile");
+    }
 }
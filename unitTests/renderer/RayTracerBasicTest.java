@@ -0,0 +1,163 @@
+package renderer;
+
+import geometries.IntersectionStatistics;
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.CompiledScene;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.RayTracerBasic class
+ */
+class RayTracerBasicTest {
+    private static final Ray RAY = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+    private static final Color BACKGROUND = new Color(10, 20, 30);
+
+    /**
+     * Builds a scene with a background color only.
+     *
+     * @return the scene.
+     */
+    private static Scene emptyScene() {
+        return new Scene.SceneBuilder("tracer").setBackground(BACKGROUND)
+                .setAmbientLight(new AmbientLight(new Color(50, 50, 50), 0.2)).build();
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#RayTracerBasic(Scene)}, {@link RayTracerBasic#beginFrame()} and
+     * {@link RayTracerBasic#RayTracerBasic(CompiledScene)}.
+     */
+    @Test
+    void testTraceRay() {
+        Scene scene = emptyScene();
+        RayTracerBasic live = new RayTracerBasic(scene);
+        RayTracerBasic compiled = new RayTracerBasic(scene.compile());
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The geometries and the lights that are added after the tracer was constructed are seen
+        // (the scene is compiled when the first ray is traced)
+        scene.geometries.add(new Sphere(1, new Point(0, 0, -5)).setMaterial(new Material().setKd(0.5)));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 0)).setSize(0));
+        // (the ambient light of the sphere is 50 * 0.2 and the diffuse light at its center is 100 * 0.5)
+        assertEquals(new Double3(60), live.traceRay(RAY).getRgb(), "TC01: Wrong color");
+
+        // TC02: A compiled view is a snapshot of the scene, even when a frame begins
+        compiled.beginFrame();
+        assertEquals(BACKGROUND.getRgb(), compiled.traceRay(RAY).getRgb(), "TC02: The view was changed");
+
+        // TC03: The changes of the scene are seen from the next frame
+        scene.geometries.add(new Sphere(1, new Point(0, 0, -3)).setEmission(new Color(5, 5, 5)));
+        assertEquals(new Double3(60), live.traceRay(RAY).getRgb(), "TC03: The frame was changed");
+        live.beginFrame();
+        assertNotEquals(new Double3(60), live.traceRay(RAY).getRgb(), "TC03: The next frame wasn't changed");
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#setStatistics(RenderStatistics)} of tracers that share a compiled scene.
+     */
+    @Test
+    void testSharedStatistics() {
+        Scene scene = emptyScene();
+        scene.geometries.add(new Sphere(1, new Point(0, 0, -5)));
+        CompiledScene view = scene.compile();
+        RenderStatistics firstStatistics = new RenderStatistics();
+        RenderStatistics secondStatistics = new RenderStatistics();
+        RayTracerBasic first = new RayTracerBasic(view);
+        first.setStatistics(firstStatistics);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A tracer that shares the view counts its tests apart
+        RayTracerBasic second = new RayTracerBasic(view);
+        second.setStatistics(secondStatistics);
+        first.traceRay(RAY);
+        assertEquals(1, firstStatistics.getIntersections().getTests(Sphere.class), "TC01: Wrong amount of tests");
+        assertEquals(0, secondStatistics.getIntersections().getTests(), "TC01: Counted by the other tracer");
+        second.traceRay(RAY);
+        second.traceRay(RAY);
+        assertEquals(1, firstStatistics.getIntersections().getTests(Sphere.class), "TC01: Counted by the other tracer");
+        assertEquals(2, secondStatistics.getIntersections().getTests(Sphere.class), "TC01: Wrong amount of tests");
+
+        // TC02: Tracers of the same scene count apart, and the geometries of the scene don't count
+        RenderStatistics thirdStatistics = new RenderStatistics();
+        RayTracerBasic third = new RayTracerBasic(scene);
+        third.setStatistics(thirdStatistics).beginFrame();
+        RayTracerBasic fourth = new RayTracerBasic(scene);
+        fourth.setStatistics(null).beginFrame();
+        third.traceRay(RAY);
+        fourth.traceRay(RAY);
+        assertEquals(1, thirdStatistics.getIntersections().getTests(Sphere.class), "TC02: Wrong amount of tests");
+        IntersectionStatistics sceneStatistics = new IntersectionStatistics();
+        scene.geometries.setStatistics(sceneStatistics);
+        third.traceRay(RAY);
+        assertEquals(2, thirdStatistics.getIntersections().getTests(Sphere.class), "TC02: Wrong amount of tests");
+        assertEquals(0, sceneStatistics.getTests(), "TC02: Counted by the geometries of the scene");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A tracer without statistics doesn't count in the others
+        second.setStatistics(null);
+        second.traceRay(RAY);
+        assertEquals(2, secondStatistics.getIntersections().getTests(Sphere.class), "TC10: The test was counted");
+        assertEquals(1, firstStatistics.getIntersections().getTests(Sphere.class), "TC10: The test was counted");
+    }
+
+    /**
+     * Test method for the adaptive soft shadow of {@link PointLight#setAdaptiveShadow(boolean)}:
+     * the image is the same as with the full beam everywhere, but far fewer shadow rays are traced.
+     */
+    @Test
+    void testAdaptiveShadow() {
+        Scene scene = emptyScene();
+        Material matte = new Material().setKd(0.5).setKs(0.3).setShininess(20);
+        scene.geometries.add(new Plane(new Point(0, 0, 0), new Vector(0, 1, 0)).setMaterial(matte),
+                new Sphere(1, new Point(0, 2, 0)).setMaterial(matte));
+        PointLight light = new PointLight(new Color(300, 300, 300), new Point(0.5, 6, 0)).setSize(1);
+        scene.lights.add(light);
+        RenderStatistics statistics = new RenderStatistics();
+        RayTracerBasic tracer = new RayTracerBasic(scene);
+        tracer.setStatistics(statistics);
+        // a grid of rays that look down at the sphere, its shadow and its penumbra, and the lit floor around them
+        Ray[] rays = new Ray[41 * 41];
+        for (int i = 0; i < 41; i++) {
+            for (int j = 0; j < 41; j++) {
+                rays[41 * i + j] = new Ray(new Point(i * 0.4 - 8, 10, j * 0.4 - 8), new Vector(0, -1, 0));
+            }
+        }
+        Color[] full = new Color[rays.length];
+        for (int i = 0; i < rays.length; i++) {
+            full[i] = tracer.traceRay(rays[i]);
+        }
+        long fullRays = statistics.getRays(RenderStatistics.RayType.SHADOW);
+        statistics.reset();
+        light.setAdaptiveShadow(true);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The colors are the same as with the full beam (at the outer edge of the penumbra the probes may miss
+        // the sphere when it hides a sliver of the light between them, which changes the color very slightly)
+        int same = 0;
+        for (int i = 0; i < rays.length; i++) {
+            Color color = tracer.traceRay(rays[i]);
+            assertTrue(full[i].isCloseTo(color, 2), "TC01: Wrong color " + rays[i]);
+            if (full[i].getRgb().equals(color.getRgb())) {
+                same++;
+            }
+        }
+        assertTrue(same >= rays.length * 0.99, "TC01: Only " + same + " of the colors are the same");
+        // TC02: The full beam is traced in the penumbra only
+        long adaptiveRays = statistics.getRays(RenderStatistics.RayType.SHADOW);
+        assertTrue(adaptiveRays * 10 < fullRays,
+                "TC02: Too many shadow rays: " + adaptiveRays + " instead of " + fullRays);
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A point light without a size has a single shadow ray, even in the adaptive mode
+        light.setSize(0);
+        statistics.reset();
+        tracer.traceRay(rays[0]);
+        assertEquals(1, statistics.getRays(RenderStatistics.RayType.SHADOW), "TC10: Wrong amount of shadow rays");
+    }
+}
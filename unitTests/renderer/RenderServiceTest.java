@@ -0,0 +1,115 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.RenderService class
+ */
+class RenderServiceTest {
+    private static final String JOB = """
+            {"scene": {"geometryData": {"spheres": [{"center": "0 0 -100", "radius": 50, "emission": "0 100 0"}]}},
+             "camera": {"position": "0 0 0", "to": "0 0 -1", "up": "0 1 0",
+                        "viewPlane": {"width": 200, "height": 200, "distance": 100}},
+             "image": {"name": "%s", "nX": 20, "nY": 20},
+             "render": {"threads": %d}
+            }
+            """;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G'};
+
+    private static HttpResponse<byte[]> post(HttpClient client, RenderService service, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + service.getPort() + "/render"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Test method for the render requests of {@link RenderService}.
+     */
+    @Test
+    void testRender() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        try (RenderService service = new RenderService(0, 2, 1 << 20)) {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: A new job is rendered into a png image
+            HttpResponse<byte[]> first = post(client, service, String.format(JOB, "first", 1));
+            assertEquals(200, first.statusCode(), "TC01: The job failed");
+            assertEquals("MISS", first.headers().firstValue("X-Cache").orElse(null), "TC01: Wrong cache header");
+            assertArrayEquals(PNG_SIGNATURE, Arrays.copyOf(first.body(), 4), "TC01: The response isn't a png image");
+
+            // TC02: The same job with another name, threads and formatting is served from the cache
+            HttpResponse<byte[]> second = post(client, service,
+                    String.format(JOB, "second", 4).replace("\n", "\n    "));
+            assertEquals("HIT", second.headers().firstValue("X-Cache").orElse(null), "TC02: The cache wasn't used");
+            assertArrayEquals(first.body(), second.body(), "TC02: Wrong cached image");
+            assertEquals(1, service.getHits(), "TC02: Wrong amount of hits");
+            assertEquals(1, service.getMisses(), "TC02: Wrong amount of misses");
+
+            // TC03: Another camera is rendered again
+            HttpResponse<byte[]> moved = post(client, service,
+                    String.format(JOB, "moved", 1).replace("\"position\": \"0 0 0\"", "\"position\": \"30 0 0\""));
+            assertEquals("MISS", moved.headers().firstValue("X-Cache").orElse(null), "TC03: A wrong image was cached");
+
+            // TC04: Invalid requests
+            assertEquals(400, post(client, service, "{\"scene\": {}}").statusCode(),
+                    "TC04: Rendered a job without a camera");
+            assertEquals(400, post(client, service, "not json").statusCode(), "TC04: Rendered invalid JSON");
+            HttpResponse<byte[]> get = client.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + service.getPort() + "/render")).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(405, get.statusCode(), "TC04: Accepted a GET request");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A cache that is too small for an image renders every request
+        try (RenderService service = new RenderService(0, 1, 10)) {
+            post(client, service, String.format(JOB, "first", 1));
+            HttpResponse<byte[]> again = post(client, service, String.format(JOB, "first", 1));
+            assertEquals("MISS", again.headers().firstValue("X-Cache").orElse(null), "TC10: An image was cached");
+            assertEquals(0, service.getHits(), "TC10: Wrong amount of hits");
+        }
+    }
+
+    /**
+     * Test method for the render requests of {@link RenderService} whose jobs name a scene file.
+     */
+    @Test
+    void testRenderSceneFile(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("scene.json");
+        Files.writeString(file, "{\"scene\": {\"geometryData\": {\"spheres\": "
+                + "[{\"center\": \"0 0 -100\", \"radius\": 50, \"emission\": \"0 100 0\"}]}}}");
+        String job = String.format(JOB, "file", 1).replaceFirst("\\{\"scene\": .*},\n",
+                "{\"scene\": \"" + file.toAbsolutePath().toString().replace("\\", "/") + "\",\n");
+        HttpClient client = HttpClient.newHttpClient();
+        try (RenderService service = new RenderService(0, 1, 1 << 20)) {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The same scene file is served from the cache
+            assertEquals("MISS", post(client, service, job).headers().firstValue("X-Cache").orElse(null),
+                    "TC01: Wrong cache header");
+            assertEquals("HIT", post(client, service, job).headers().firstValue("X-Cache").orElse(null),
+                    "TC01: The cache wasn't used");
+
+            // TC02: A changed scene file is rendered again
+            Files.writeString(file, Files.readString(file).replace("0 100 0", "100 0 0"));
+            HttpResponse<byte[]> changed = post(client, service, job);
+            assertEquals(200, changed.statusCode(), "TC02: The job failed");
+            assertEquals("MISS", changed.headers().firstValue("X-Cache").orElse(null),
+                    "TC02: The image of the old scene was served");
+
+            // =============== Boundary Values Tests ==================
+            // TC10: A missing scene file
+            Files.delete(file);
+            assertEquals(400, post(client, service, job).statusCode(), "TC10: Rendered a missing scene file");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.Intersectable.GeoPoint;
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.CompiledScene class
+ */
+class CompiledSceneTest {
+    /**
+     * Test method for {@link Scene#compile()}.
+     */
+    @Test
+    void testCompile() {
+        Material mirror = new Material().setKr(0.5);
+        Material glass = new Material().setKt(0.7).setKr(0.1);
+        Material matte = new Material().setKd(0.5);
+        Random random = new Random(5);
+        Geometries spheres = new Geometries().setAcceleration(Geometries.Acceleration.BOUNDS);
+        for (int i = 0; i < 30; i++) {
+            spheres.add(new Sphere(1, new Point(random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10,
+                    -20 - random.nextDouble() * 10)).setMaterial(i % 2 == 0 ? mirror : glass));
+        }
+        Geometries triangles = new Geometries(
+                new Triangle(new Point(-5, -5, -15), new Point(5, -5, -15), new Point(0, 5, -15)).setMaterial(matte),
+                new Geometries(spheres));
+        Scene scene = new Scene.SceneBuilder("compiled")
+                .setGeometries(new Geometries(triangles, new Plane(new Point(0, 0, -40), new Vector(0, 0, 1))))
+                .build();
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 10, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The nested collections are flattened and the intersections are the same
+        CompiledScene view = scene.compile();
+        assertEquals(32, view.getGeometriesCount(), "TC01: Wrong amount of flat geometries");
+        for (int i = 0; i < 500; i++) {
+            Ray ray = new Ray(new Point(0, 0, 0),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            GeoPoint expected = scene.geometries.findClosestGeoIntersection(ray);
+            GeoPoint actual = view.getGeometries().findClosestGeoIntersection(ray);
+            assertEquals(expected.point, actual.point, "TC01: Wrong intersection");
+            assertSame(expected.geometry, actual.geometry, "TC01: Wrong geometry");
+        }
+
+        // TC02: The flags of the materials
+        assertEquals(CompiledScene.REFLECTIVE, view.getFlags(mirror), "TC02: Wrong mirror");
+        assertEquals(CompiledScene.REFRACTIVE | CompiledScene.REFLECTIVE, view.getFlags(glass), "TC02: Wrong glass");
+        assertEquals(0, view.getFlags(matte), "TC02: Wrong matte material");
+
+        // TC03: The view is a snapshot of the scene
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, -10, 0)));
+        scene.geometries.add(new Sphere(1, new Point(0, 0, -2)));
+        assertEquals(1, view.getLights().size(), "TC03: The lights of the view were changed");
+        assertEquals(32, view.getGeometriesCount(), "TC03: The geometries of the view were changed");
+        assertThrows(UnsupportedOperationException.class, () -> view.getLights().clear(),
+                "TC03: The lights of the view can be changed");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: An empty scene
+        CompiledScene empty = new Scene.SceneBuilder("empty").build().compile();
+        assertEquals(0, empty.getGeometriesCount(), "TC10: Wrong amount of geometries");
+        assertNull(empty.getGeometries().findIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1))),
+                "TC10: Wrong intersections");
+    }
+}
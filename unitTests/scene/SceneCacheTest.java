@@ -0,0 +1,200 @@
+package scene;
+
+import geometries.Cylinder;
+import geometries.Geometries;
+import geometries.Intersectable.GeoPoint;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import geometries.TriangleMesh;
+import geometries.Tube;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.SceneCache class
+ */
+class SceneCacheTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Builds a scene with every kind of geometry and light, and a nested collection.
+     */
+    private static Scene buildScene() {
+        Material shiny = new Material().setKd(0.4).setKs(0.3).setShininess(50).setKr(0.2);
+        Random random = new Random(3);
+        Geometries spheres = new Geometries().setAcceleration(Geometries.Acceleration.BOUNDS);
+        for (int i = 0; i < 50; i++) {
+            spheres.add(new Sphere(1 + random.nextDouble(), new Point(random.nextDouble() * 40 - 20,
+                    random.nextDouble() * 40 - 20, -random.nextDouble() * 40)).setMaterial(shiny));
+        }
+        int n = 10;
+        double[] x = new double[(n + 1) * (n + 1)], y = new double[x.length], z = new double[x.length];
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j <= n; j++) {
+                x[i * (n + 1) + j] = 2 * j - 10;
+                y[i * (n + 1) + j] = 2 * i - 10;
+                z[i * (n + 1) + j] = -45 + random.nextDouble();
+            }
+        }
+        int[] indices = new int[6 * n * n];
+        for (int i = 0, k = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int a = i * (n + 1) + j;
+                indices[k++] = a;
+                indices[k++] = a + 1;
+                indices[k++] = a + n + 1;
+                indices[k++] = a + 1;
+                indices[k++] = a + n + 2;
+                indices[k++] = a + n + 1;
+            }
+        }
+        Geometries geometries = new Geometries(
+                spheres,
+                new Plane(new Point(0, -30, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20)),
+                new Triangle(new Point(-5, 0, -10), new Point(5, 0, -10), new Point(0, 5, -12))
+                        .setMaterial(new Material().setKt(0.5)),
+                new Polygon(new Point(10, 10, -20), new Point(14, 10, -20), new Point(14, 14, -20),
+                        new Point(10, 14, -20)).setMaterial(shiny),
+                new Tube(1, new Ray(new Point(-15, 0, -30), new Vector(0, 1, 1))),
+                new Cylinder(2, new Ray(new Point(15, -15, -25), new Vector(1, 0, 1)), 6)
+                        .setEmission(new Color(0, 0, 100)),
+                new TriangleMesh(x, y, z, indices).setMaterial(new Material().setKd(new Double3(0.1, 0.2, 0.3))));
+        Scene scene = new Scene.SceneBuilder("cached scene")
+                .setBackground(new Color(10, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1))
+                .setGeometries(geometries)
+                .build();
+        List<LightSource> lights = List.of(
+                new DirectionalLight(new Color(100, 100, 100), new Vector(1, -1, -1)),
+                new PointLight(new Color(200, 100, 0), new Point(0, 20, 0)).setKl(0.001).setSize(2).setSamples(33),
+                new SpotLight(new Color(0, 100, 200), new Point(10, 10, 10), new Vector(-1, -1, -2))
+                        .setNarrowBeam(8).setKq(0.0001).setAdaptiveShadow(true));
+        return scene.setLights(new LinkedList<>(lights));
+    }
+
+    /**
+     * Test method for {@link SceneCache#write(Scene, String, Path)} and {@link SceneCache#read(Path)}.
+     */
+    @Test
+    void testWriteAndRead() throws IOException {
+        Scene scene = buildScene();
+        Path cache = directory.resolve("scene.cache");
+        SceneCache.write(scene, "source", cache);
+        Scene read = SceneCache.read(cache);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The scene attributes and the lights are the same
+        assertEquals(scene.name, read.name, "TC01: Wrong name");
+        assertEquals(scene.background.getRgb(), read.background.getRgb(), "TC01: Wrong background");
+        assertEquals(scene.ambientLight.getIntensity().getRgb(), read.ambientLight.getIntensity().getRgb(),
+                "TC01: Wrong ambient light");
+        assertEquals(3, read.lights.size(), "TC01: Wrong amount of lights");
+        Point receiver = new Point(1, 2, -20);
+        for (int i = 0; i < 3; i++) {
+            LightSource expected = scene.lights.get(i), actual = read.lights.get(i);
+            assertEquals(expected.getClass(), actual.getClass(), "TC01: Wrong kind of light");
+            assertEquals(expected.getIntensity(receiver).getRgb(), actual.getIntensity(receiver).getRgb(),
+                    "TC01: Wrong intensity");
+            assertEquals(expected.getLightVectors(receiver), actual.getLightVectors(receiver),
+                    "TC01: Wrong beam of the light");
+        }
+
+        // TC02: Random rays find the same intersections with the same emissions and materials
+        Random random = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5, 10),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            GeoPoint expected = scene.geometries.findClosestGeoIntersection(ray);
+            GeoPoint actual = read.geometries.findClosestGeoIntersection(ray);
+            if (expected == null) {
+                assertNull(actual, "TC02: Found a wrong intersection");
+                continue;
+            }
+            assertNotNull(actual, "TC02: Missed an intersection");
+            // the directions of the shapes are normalized again, so the last bits may differ
+            assertEquals(0, expected.point.distance(actual.point), 1e-9, "TC02: Wrong intersection point");
+            assertEquals(expected.geometry.getClass(), actual.geometry.getClass(), "TC02: Wrong geometry");
+            assertEquals(expected.geometry.getEmission().getRgb(), actual.geometry.getEmission().getRgb(),
+                    "TC02: Wrong emission");
+            Material material = expected.geometry.getMaterial(), readMaterial = actual.geometry.getMaterial();
+            assertEquals(material.getKd(), readMaterial.getKd(), "TC02: Wrong material");
+            assertEquals(material.getKt(), readMaterial.getKt(), "TC02: Wrong material");
+            assertEquals(material.getShininess(), readMaterial.getShininess(), "TC02: Wrong material");
+        }
+
+        // TC03: A damaged file
+        byte[] bytes = Files.readAllBytes(cache);
+        Files.write(cache, Arrays.copyOf(bytes, bytes.length - 100));
+        assertThrows(IOException.class, () -> SceneCache.read(cache), "TC03: Read a truncated file");
+        Files.writeString(cache, "not a cache");
+        assertThrows(IOException.class, () -> SceneCache.read(cache), "TC03: Read a file of another format");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A scene without lights and geometries
+        Scene empty = new Scene.SceneBuilder("empty").build();
+        SceneCache.write(empty, "source", cache);
+        read = SceneCache.read(cache);
+        assertTrue(read.lights.isEmpty(), "TC10: Wrong lights");
+        assertNull(read.geometries.findIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                "TC10: Wrong geometries");
+    }
+
+    /**
+     * Test method for {@link SceneCache#load(Path, Path, SceneCache.Loader)}.
+     */
+    @Test
+    void testLoad() throws IOException {
+        Path source = directory.resolve("scene.json");
+        Path cache = directory.resolve("scene.cache");
+        Files.writeString(source, "first version");
+        AtomicInteger loads = new AtomicInteger();
+        SceneCache.Loader loader = path -> {
+            loads.incrementAndGet();
+            return buildScene();
+        };
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The first load uses the loader, the next one reads the cache
+        SceneCache.load(source, cache, loader);
+        Scene scene = SceneCache.load(source, cache, loader);
+        assertEquals(1, loads.get(), "TC01: The cache wasn't used");
+        assertEquals("cached scene", scene.name, "TC01: Wrong scene");
+        // TC02: A changed source is loaded again
+        Files.writeString(source, "second version");
+        SceneCache.load(source, cache, loader);
+        assertEquals(2, loads.get(), "TC02: The cache of the old source was used");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A damaged cache file is replaced
+        Files.writeString(cache, "damaged");
+        SceneCache.load(source, cache, loader);
+        assertEquals(3, loads.get(), "TC10: The damaged cache was used");
+        SceneCache.load(source, cache, loader);
+        assertEquals(3, loads.get(), "TC10: The cache wasn't written again");
+    }
+}
@@ -0,0 +1,83 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.Sphere;
+import lighting.LightSource;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.Point;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.SceneMemoryCache class
+ */
+class SceneMemoryCacheTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Test method for {@link SceneMemoryCache#get(Path, SceneCache.Loader)}.
+     */
+    @Test
+    void testGet() throws IOException {
+        Path first = directory.resolve("first.json");
+        Path second = directory.resolve("second.json");
+        Path third = directory.resolve("third.json");
+        Files.writeString(first, "first");
+        Files.writeString(second, "second");
+        Files.writeString(third, "third");
+        AtomicInteger loads = new AtomicInteger();
+        SceneCache.Loader loader = path -> {
+            loads.incrementAndGet();
+            Scene scene = new Scene.SceneBuilder(path.getFileName().toString())
+                    .setGeometries(new Geometries(new Sphere(1, new Point(0, 0, -5)))).build();
+            return scene.setLights(new LinkedList<>(List.<LightSource>of(
+                    new PointLight(new Color(100, 100, 100), new Point(0, 5, 0)))));
+        };
+        SceneMemoryCache cache = new SceneMemoryCache(2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A scene is loaded and compiled once
+        CompiledScene scene = cache.get(first, loader);
+        assertSame(scene, cache.get(first, loader), "TC01: The cached scene wasn't returned");
+        assertEquals(1, loads.get(), "TC01: The scene was loaded again");
+        assertEquals(1, cache.getHits(), "TC01: Wrong amount of hits");
+        assertEquals(1, cache.getMisses(), "TC01: Wrong amount of misses");
+        assertEquals(1, scene.getLights().size(), "TC01: Wrong lights");
+
+        // TC02: A file with the content of a cached file uses its scene
+        Path copy = directory.resolve("copy.json");
+        Files.writeString(copy, "first");
+        assertSame(scene, cache.get(copy, loader), "TC02: The scene of the same content wasn't used");
+
+        // TC03: A changed file is loaded again
+        Files.writeString(first, "changed");
+        assertNotSame(scene, cache.get(first, loader), "TC03: The scene of the old content was used");
+        assertEquals(2, loads.get(), "TC03: Wrong amount of loads");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The least recently used scene is dropped when the cache is full
+        cache.get(second, loader);
+        cache.get(first, loader);
+        cache.get(third, loader);
+        assertEquals(2, cache.size(), "TC10: Wrong amount of cached scenes");
+        int before = loads.get();
+        cache.get(first, loader);
+        assertEquals(before, loads.get(), "TC10: A recently used scene was dropped");
+        cache.get(second, loader);
+        assertEquals(before + 1, loads.get(), "TC10: The least recently used scene wasn't dropped");
+
+        // TC11: An empty cache
+        assertThrows(IllegalArgumentException.class, () -> new SceneMemoryCache(0), "TC11: Created an empty cache");
+    }
+}